@@ -10,19 +10,41 @@ import com.guildwars.commands.SupportCommand;
 import com.guildwars.database.GuildService;
 import com.guildwars.enchantments.CustomEnchantmentManager;
 import com.guildwars.listeners.ChatListener;
+import com.guildwars.listeners.TerritoryMovementListener;
+import com.guildwars.listeners.TerritoryProtectionListener;
 import com.guildwars.listeners.TreeFellerListener;
 import com.guildwars.listeners.VisualEffectListener;
 import com.guildwars.mobs.CustomMobManager;
+import com.guildwars.model.Guild;
 import com.guildwars.storage.YamlStorageService;
+import com.guildwars.util.MessageManager;
 import com.guildwars.util.MessageUtil;
 import com.guildwars.util.PlaceholderManager;
+import com.guildwars.util.PlayerNameCache;
 import com.guildwars.utils.ClearLagManager;
+import com.guildwars.utils.CooldownManager;
+import com.guildwars.utils.BudgetedTaskExecutor;
+import com.guildwars.utils.GuildBankManager;
+import com.guildwars.utils.MailboxManager;
+import com.guildwars.utils.OnlineMemberIndex;
+import com.guildwars.utils.GuildListManager;
+import com.guildwars.utils.HomeTeleportManager;
+import com.guildwars.utils.LeaderboardManager;
 import com.guildwars.utils.MobMergeManager;
+import com.guildwars.utils.TerritoryBorderManager;
+import com.guildwars.utils.TerritoryMapManager;
+import com.guildwars.utils.TerritorySessionManager;
+import com.guildwars.utils.WarManager;
+import com.guildwars.utils.WarScoreManager;
 import com.guildwars.mobs.CustomMobSpawnManager;
 import com.guildwars.utils.VisualEffectManager;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Main class for the GuildWars plugin.
  * Version: 1.5.0 for Minecraft 1.21.6
@@ -33,12 +55,30 @@ public class GuildWars extends JavaPlugin {
     private YamlStorageService storageService;
     private GuildService guildService;
     private PlaceholderManager placeholderManager;
+    private MessageManager messageManager;
+    private PlayerNameCache playerNameCache;
     private CustomEnchantmentManager enchantmentManager;
     private CustomMobManager mobManager;
     private CustomMobSpawnManager mobSpawnManager;
     private VisualEffectManager visualEffectManager;
     private MobMergeManager mobMergeManager;
     private ClearLagManager clearLagManager;
+    private BudgetedTaskExecutor taskExecutor;
+    private TerritorySessionManager territorySessionManager;
+    private TerritoryMapManager territoryMapManager;
+    private TerritoryBorderManager territoryBorderManager;
+    private WarManager warManager;
+    private WarScoreManager warScoreManager;
+    private LeaderboardManager leaderboardManager;
+    private GuildListManager guildListManager;
+    private CooldownManager cooldownManager;
+    private HomeTeleportManager homeTeleportManager;
+    private GuildBankManager guildBankManager;
+    private OnlineMemberIndex onlineMemberIndex;
+    private MailboxManager mailboxManager;
+    private TerritoryProtectionListener territoryProtectionListener;
+    private ChatListener chatListener;
+    private TerritoryMovementListener territoryMovementListener;
 
     @Override
     public void onEnable() {
@@ -51,15 +91,48 @@ public class GuildWars extends JavaPlugin {
         // Initialize message utility
         MessageUtil.init(this);
         
+        // Parse configured messages
+        initializeMessages();
+        
         // Initialize data storage
         initializeDataStorage();
         
         // Initialize guild service
         initializeGuildService();
         
+        // Initialize player name cache
+        initializePlayerNameCache();
+        
         // Initialize placeholder manager
         initializePlaceholderManager();
         
+        // Initialize online guild member index
+        initializeOnlineMemberIndex();
+        
+        // Initialize offline member mailboxes
+        initializeMailbox();
+        
+        // Initialize territory map
+        initializeTerritoryMap();
+        
+        // Initialize war manager
+        initializeWarManager();
+        
+        // Initialize guild bank
+        initializeGuildBank();
+        
+        // Initialize guild leaderboards
+        initializeLeaderboards();
+        
+        // Initialize command cooldowns
+        initializeCooldowns();
+        
+        // Initialize guild home teleports
+        initializeHomeTeleports();
+        
+        // Initialize the budgeted executor for repeating effects
+        initializeTaskExecutor();
+        
         // Initialize custom enchantments
         initializeEnchantments();
         
@@ -85,9 +158,66 @@ public class GuildWars extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        // Stop ending wars and persist the active ones and their scores
+        if (warManager != null) {
+            warManager.cleanup();
+        }
+        if (warScoreManager != null) {
+            warScoreManager.cleanup();
+        }
+        
+        // Cancel pending home teleports and release their chunks
+        if (homeTeleportManager != null) {
+            homeTeleportManager.cleanup();
+        }
+        
+        // Write the remaining mailbox entries
+        if (mailboxManager != null) {
+            mailboxManager.cleanup();
+        }
+        
+        // Write the remaining bank ledger entries
+        if (guildBankManager != null) {
+            guildBankManager.cleanup();
+        }
+        
+        // Persist running command cooldowns
+        if (cooldownManager != null) {
+            cooldownManager.cleanup();
+        }
+        
         // Save data when plugin is disabled
         saveData();
         
+        // Persist cached player names
+        if (playerNameCache != null) {
+            playerNameCache.cleanup();
+        }
+        
+        if (territoryMapManager != null) {
+            territoryMapManager.cleanup();
+        }
+        
+        if (territoryBorderManager != null) {
+            territoryBorderManager.cleanup();
+        }
+        
+        if (leaderboardManager != null) {
+            leaderboardManager.cleanup();
+        }
+        
+        if (guildListManager != null) {
+            guildListManager.cleanup();
+        }
+        
+        if (onlineMemberIndex != null) {
+            onlineMemberIndex.cleanup();
+        }
+        
+        if (mobManager != null) {
+            mobManager.cleanup();
+        }
+        
         // No need to unregister custom enchantments with the new implementation
         
         // Clean up visual effects
@@ -106,6 +236,10 @@ public class GuildWars extends JavaPlugin {
             getLogger().info("Clear lag manager stopped.");
         }
         
+        if (taskExecutor != null) {
+            taskExecutor.cleanup();
+        }
+        
         getLogger().info("GuildWars plugin has been disabled!");
         // Broadcast before closing MessageUtil
         MessageUtil.broadcastError("GuildWars plugin has been disabled!");
@@ -137,7 +271,9 @@ public class GuildWars extends JavaPlugin {
         // Register guilds command
         PluginCommand guildsCommand = getCommand("guilds");
         if (guildsCommand != null) {
-            guildsCommand.setExecutor(new GuildsCommand(this));
+            GuildsCommand guildsCommandExecutor = new GuildsCommand(this);
+            guildsCommand.setExecutor(guildsCommandExecutor);
+            guildsCommand.setTabCompleter(guildsCommandExecutor);
         }
         
         // Register help command
@@ -182,13 +318,26 @@ public class GuildWars extends JavaPlugin {
      */
     private void registerListeners() {
         // Register chat listener for guild chat tags
-        getServer().getPluginManager().registerEvents(new ChatListener(this), this);
+        chatListener = new ChatListener(this);
+        getServer().getPluginManager().registerEvents(chatListener, this);
         getLogger().info("Chat listener registered for guild chat tags.");
         
         // Register TreeFeller listener
         getServer().getPluginManager().registerEvents(new TreeFellerListener(this), this);
         getLogger().info("TreeFeller listener registered.");
         
+        // Register territory protection
+        territorySessionManager = new TerritorySessionManager(this);
+        territoryProtectionListener = new TerritoryProtectionListener(this, territorySessionManager);
+        getLogger().info("Territory protection listener registered.");
+        
+        // Register territory enter/leave tracking
+        territoryMovementListener = new TerritoryMovementListener(this, territorySessionManager);
+        getLogger().info("Territory movement listener registered.");
+        
+        // Register territory border particles
+        territoryBorderManager = new TerritoryBorderManager(this, territorySessionManager);
+        
         // Register Visual Effect listener
         if (visualEffectManager != null) {
             new VisualEffectListener(this, visualEffectManager);
@@ -217,6 +366,85 @@ public class GuildWars extends JavaPlugin {
         getLogger().info("Guild service initialized.");
     }
     
+    /**
+     * Initialize the player name cache and warm it with all guild members.
+     */
+    private void initializePlayerNameCache() {
+        playerNameCache = new PlayerNameCache(this);
+        List<UUID> members = new ArrayList<>();
+        for (Guild guild : guildService.getAllGuilds()) {
+            members.addAll(guild.getMembers());
+        }
+        playerNameCache.prefetch(members);
+        getLogger().info("Player name cache initialized.");
+    }
+    
+    /**
+     * Initialize the index of online guild members used for guild chat and notifications.
+     */
+    private void initializeOnlineMemberIndex() {
+        onlineMemberIndex = new OnlineMemberIndex(this);
+        getLogger().info("Online member index initialized.");
+    }
+    
+    /**
+     * Initialize the mailboxes that hold guild notifications for offline members.
+     */
+    private void initializeMailbox() {
+        mailboxManager = new MailboxManager(this);
+        getLogger().info("Mailboxes initialized.");
+    }
+    
+    /**
+     * Initialize the territory map renderer.
+     */
+    private void initializeTerritoryMap() {
+        territoryMapManager = new TerritoryMapManager(this);
+        getLogger().info("Territory map initialized.");
+    }
+    
+    /**
+     * Initialize the war manager, which resumes persisted wars and ends them on time.
+     */
+    private void initializeWarManager() {
+        warManager = new WarManager(this);
+        warScoreManager = new WarScoreManager(this, warManager);
+        getLogger().info("War manager initialized.");
+    }
+    
+    /**
+     * Initialize the guild bank, which rebuilds guild balances from its ledger.
+     */
+    private void initializeGuildBank() {
+        guildBankManager = new GuildBankManager(this);
+        getLogger().info("Guild bank initialized.");
+    }
+    
+    /**
+     * Initialize the guild leaderboards and the /guilds listing, which are kept up to date as guilds change.
+     */
+    private void initializeLeaderboards() {
+        leaderboardManager = new LeaderboardManager(this);
+        guildListManager = new GuildListManager(this);
+        getLogger().info("Guild leaderboards initialized.");
+    }
+    
+    /**
+     * Initialize the cooldown manager, which resumes persisted command cooldowns.
+     */
+    private void initializeCooldowns() {
+        cooldownManager = new CooldownManager(this);
+        getLogger().info("Cooldown manager initialized.");
+    }
+    
+    /**
+     * Initialize guild home teleports, which warm up while the home chunk loads asynchronously.
+     */
+    private void initializeHomeTeleports() {
+        homeTeleportManager = new HomeTeleportManager(this);
+        getLogger().info("Home teleport manager initialized.");
+    }
+    
     /**
      * Save all plugin data.
      */
@@ -228,6 +456,14 @@ public class GuildWars extends JavaPlugin {
         }
     }
     
+    /**
+     * Initialize the message manager, which parses the configured messages once.
+     */
+    private void initializeMessages() {
+        messageManager = new MessageManager(this);
+        getLogger().info("Messages loaded.");
+    }
+    
     /**
      * Initialize the placeholder manager.
      */
@@ -237,13 +473,64 @@ public class GuildWars extends JavaPlugin {
     }
     
     /**
-     * Reload the placeholder manager.
+     * Reload the placeholder manager and the configured messages.
      */
     public void reloadPlaceholders() {
         if (placeholderManager != null) {
             placeholderManager.reloadTags();
+            onlineMemberIndex.refreshChatProfiles();
             getLogger().info("Placeholders reloaded.");
         }
+        if (messageManager != null) {
+            messageManager.loadMessages();
+            getLogger().info("Messages reloaded.");
+        }
+    }
+    
+    /**
+     * Reload the /guilds listing, guild home and guild chat settings.
+     */
+    public void reloadGuildSettings() {
+        if (guildListManager != null) {
+            guildListManager.loadConfig();
+        }
+        if (homeTeleportManager != null) {
+            homeTeleportManager.loadConfig();
+        }
+        if (chatListener != null) {
+            chatListener.loadConfig();
+        }
+        if (mailboxManager != null) {
+            mailboxManager.loadConfig();
+        }
+        if (onlineMemberIndex != null) {
+            onlineMemberIndex.refreshAdmins();
+        }
+    }
+    
+    /**
+     * Reload the territory protection settings.
+     */
+    public void reloadTerritoryProtection() {
+        if (territoryProtectionListener != null) {
+            territoryProtectionListener.loadConfig();
+            getLogger().info("Territory protection settings reloaded.");
+        }
+        if (territoryMovementListener != null) {
+            territoryMovementListener.loadConfig();
+        }
+        if (territoryBorderManager != null) {
+            territoryBorderManager.loadConfig();
+        }
+    }
+    
+    /**
+     * Reload the tick budget of repeating effects.
+     */
+    public void reloadPerformanceSettings() {
+        if (taskExecutor != null) {
+            taskExecutor.loadConfig();
+        }
     }
     
     /**
@@ -282,6 +569,59 @@ public class GuildWars extends JavaPlugin {
         return placeholderManager;
     }
     
+    /**
+     * Get the message manager.
+     * 
+     * @return The message manager
+     */
+    public MessageManager getMessageManager() {
+        return messageManager;
+    }
+    
+    /**
+     * Get the player name cache.
+     * 
+     * @return The player name cache
+     */
+    public PlayerNameCache getPlayerNameCache() {
+        return playerNameCache;
+    }
+    
+    /**
+     * Get the online guild member index.
+     * 
+     * @return The online member index
+     */
+    public OnlineMemberIndex getOnlineMemberIndex() {
+        return onlineMemberIndex;
+    }
+    
+    /**
+     * Get the mailbox manager.
+     * 
+     * @return The mailbox manager
+     */
+    public MailboxManager getMailboxManager() {
+        return mailboxManager;
+    }
+    
+    /**
+     * Initialize the executor that runs repeating effects within a time budget per tick.
+     */
+    private void initializeTaskExecutor() {
+        taskExecutor = new BudgetedTaskExecutor(this);
+        getLogger().info("Task executor initialized with a budget of " + taskExecutor.getBudgetMillis() + " ms per tick.");
+    }
+    
+    /**
+     * Get the budgeted task executor.
+     * 
+     * @return The task executor
+     */
+    public BudgetedTaskExecutor getTaskExecutor() {
+        return taskExecutor;
+    }
+    
     /**
      * Initialize the custom enchantments.
      */
@@ -304,7 +644,7 @@ public class GuildWars extends JavaPlugin {
      */
     private void initializeCustomMobs() {
         // Initialize custom mob manager
-        mobManager = new CustomMobManager(this);
+        mobManager = new CustomMobManager(this, taskExecutor);
         
         // Initialize custom mob spawn manager for biome-specific spawns
         mobSpawnManager = new CustomMobSpawnManager(this, mobManager);
@@ -368,6 +708,96 @@ public class GuildWars extends JavaPlugin {
         return mobMergeManager;
     }
     
+    /**
+     * Get the territory session manager.
+     * 
+     * @return The territory session manager
+     */
+    public TerritorySessionManager getTerritorySessionManager() {
+        return territorySessionManager;
+    }
+    
+    /**
+     * Get the territory map manager.
+     * 
+     * @return The territory map manager
+     */
+    public TerritoryMapManager getTerritoryMapManager() {
+        return territoryMapManager;
+    }
+    
+    /**
+     * Get the territory border manager.
+     * 
+     * @return The territory border manager
+     */
+    public TerritoryBorderManager getTerritoryBorderManager() {
+        return territoryBorderManager;
+    }
+    
+    /**
+     * Get the war manager.
+     * 
+     * @return The war manager
+     */
+    public WarManager getWarManager() {
+        return warManager;
+    }
+    
+    /**
+     * Get the war score manager.
+     * 
+     * @return The war score manager
+     */
+    public WarScoreManager getWarScoreManager() {
+        return warScoreManager;
+    }
+    
+    /**
+     * Get the leaderboard manager.
+     * 
+     * @return The leaderboard manager
+     */
+    public LeaderboardManager getLeaderboardManager() {
+        return leaderboardManager;
+    }
+    
+    /**
+     * Get the guild list manager.
+     * 
+     * @return The guild list manager
+     */
+    public GuildListManager getGuildListManager() {
+        return guildListManager;
+    }
+    
+    /**
+     * Get the cooldown manager.
+     * 
+     * @return The cooldown manager
+     */
+    public CooldownManager getCooldownManager() {
+        return cooldownManager;
+    }
+    
+    /**
+     * Get the home teleport manager.
+     * 
+     * @return The home teleport manager
+     */
+    public HomeTeleportManager getHomeTeleportManager() {
+        return homeTeleportManager;
+    }
+    
+    /**
+     * Get the guild bank manager.
+     * 
+     * @return The guild bank manager
+     */
+    public GuildBankManager getGuildBankManager() {
+        return guildBankManager;
+    }
+    
     /**
      * Get the clear lag manager.
      * 
@@ -4,7 +4,9 @@ import com.guildwars.GuildWars;
 import com.guildwars.enchantments.CustomEnchantmentManager;
 import com.guildwars.enchantments.CustomEnchantmentType;
 import com.guildwars.mobs.CustomMobManager;
+import com.guildwars.utils.BudgetedTaskExecutor;
 import com.guildwars.utils.ClearLagManager;
+import com.guildwars.utils.GuildBankManager;
 import com.guildwars.utils.MobMergeManager;
 import com.guildwars.utils.VisualEffectManager;
 import com.guildwars.mobs.CustomMobSpawnManager;
@@ -29,7 +31,7 @@ import org.bukkit.persistence.PersistentDataType;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -114,6 +116,12 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             case "mobspawn":
                 handleMobSpawn(sender, args);
                 break;
+            case "bank":
+                handleBank(sender, subArgs);
+                break;
+            case "tasks":
+                handleTasks(sender);
+                break;
             default:
                 showHelp(sender);
                 break;
@@ -140,6 +148,8 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.YELLOW + "/guildadmin mobmerge <on/off>" + ChatColor.WHITE + " - Toggle mob merging");
         sender.sendMessage(ChatColor.YELLOW + "/guildadmin clearlag <on/off/now>" + ChatColor.WHITE + " - Toggle clear lag or run now");
         sender.sendMessage(ChatColor.YELLOW + "/guildadmin mobspawn <on/off/warden/frost> <value>" + ChatColor.WHITE + " - Control custom mob spawning");
+        sender.sendMessage(ChatColor.YELLOW + "/guildadmin bank <guild> <deposit/withdraw> <amount>" + ChatColor.WHITE + " - Change a guild's bank balance");
+        sender.sendMessage(ChatColor.YELLOW + "/guildadmin tasks" + ChatColor.WHITE + " - Show repeating effect timings and deferrals");
     }
 
     /**
@@ -163,19 +173,19 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        // Get all guild members for notification
-        Set<UUID> guildMembers = guild.getMembers();
+        // Get the online guild members for notification
+        List<Player> onlineMembers = new ArrayList<>(plugin.getOnlineMemberIndex().getOnlineMembers(guild));
+        List<UUID> members = new ArrayList<>(guild.getMembers());
 
         // Delete the guild from the database
         try {
             if (plugin.getGuildService().deleteGuild(UUID.fromString(guild.getId()))) {
-                // Notify all online guild members
-                for (UUID memberId : guildMembers) {
-                    Player member = Bukkit.getPlayer(memberId);
-                    if (member != null && member.isOnline()) {
-                        member.sendMessage(ChatColor.RED + "Your guild '" + guild.getName() + "' has been deleted by an administrator.");
-                    }
+                // Notify all guild members, offline members when they next join
+                String message = ChatColor.RED + "Your guild '" + guild.getName() + "' has been deleted by an administrator.";
+                for (Player member : onlineMembers) {
+                    member.sendMessage(message);
                 }
+                plugin.getMailboxManager().mailOfflineMembers(members, message);
 
                 sender.sendMessage(ChatColor.GREEN + "Guild '" + guild.getName() + "' has been deleted.");
 
@@ -203,6 +213,15 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
 
             // Reload placeholders
             plugin.reloadPlaceholders();
+            
+            // Reload territory protection settings
+            plugin.reloadTerritoryProtection();
+            
+            // Reload the /guilds listing, guild home and guild chat settings
+            plugin.reloadGuildSettings();
+            
+            // Reload the tick budget of repeating effects
+            plugin.reloadPerformanceSettings();
 
             sender.sendMessage(ChatColor.GREEN + "GuildWars configuration reloaded successfully.");
             plugin.getLogger().info("Admin " + sender.getName() + " reloaded the plugin configuration.");
@@ -703,6 +722,67 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         }
     }
     
+    /**
+     * Handles the tasks command, which shows how long the repeating effects take per run
+     * and how often cosmetic ones were deferred to stay within the tick budget.
+     *
+     * @param sender The command sender
+     */
+    private void handleTasks(CommandSender sender) {
+        BudgetedTaskExecutor taskExecutor = plugin.getTaskExecutor();
+        sender.sendMessage(ChatColor.GOLD + "=== Repeating Effects ===");
+        sender.sendMessage(ChatColor.YELLOW + "Budget: " + ChatColor.WHITE + taskExecutor.getBudgetMillis() + " ms per tick"
+                + ChatColor.YELLOW + ", active tasks: " + ChatColor.WHITE + taskExecutor.getTaskCount()
+                + ChatColor.YELLOW + ", deferred: " + ChatColor.WHITE + taskExecutor.getTotalDeferrals());
+        
+        for (Map.Entry<String, BudgetedTaskExecutor.Stats> entry : taskExecutor.getStats().entrySet()) {
+            BudgetedTaskExecutor.Stats stats = entry.getValue();
+            sender.sendMessage(ChatColor.YELLOW + entry.getKey() + ": " + ChatColor.WHITE + stats.getRuns() + " runs, "
+                    + stats.getDeferrals() + " deferred, "
+                    + String.format("%.1f µs avg, %.1f µs max", stats.getAverageMicros(), stats.getMaxMicros()));
+        }
+    }
+    
+    /**
+     * Handles the bank command, which deposits money into or withdraws money from a guild's bank.
+     *
+     * @param sender The command sender
+     * @param args The command arguments
+     */
+    private void handleBank(CommandSender sender, String[] args) {
+        if (args.length < 3 || !(args[1].equalsIgnoreCase("deposit") || args[1].equalsIgnoreCase("withdraw"))) {
+            sender.sendMessage(ChatColor.RED + "Usage: /guildadmin bank <guild> <deposit|withdraw> <amount>");
+            return;
+        }
+
+        Guild guild = plugin.getGuildService().getGuildByName(args[0]);
+        if (guild == null) {
+            sender.sendMessage(ChatColor.RED + "Guild not found: " + args[0]);
+            return;
+        }
+
+        long cents = GuildBankManager.parseCents(args[2]);
+        if (cents <= 0) {
+            sender.sendMessage(ChatColor.RED + "Invalid amount: " + args[2] + " (at most " + GuildBankManager.format(GuildBankManager.MAX_TRANSACTION_CENTS) + ")");
+            return;
+        }
+
+        GuildBankManager bank = plugin.getGuildBankManager();
+        UUID actor = sender instanceof Player ? ((Player) sender).getUniqueId() : null;
+        if (args[1].equalsIgnoreCase("deposit")) {
+            if (!bank.deposit(guild, cents, actor)) {
+                sender.sendMessage(ChatColor.RED + "The bank of guild '" + guild.getName() + "' cannot hold any more money.");
+                return;
+            }
+        } else if (!bank.withdraw(guild, cents, actor)) {
+            sender.sendMessage(ChatColor.RED + "Guild '" + guild.getName() + "' only has " + GuildBankManager.format(bank.getBalance(guild)) + " in its bank.");
+            return;
+        }
+
+        sender.sendMessage(ChatColor.GREEN + "Guild '" + guild.getName() + "' now has " + GuildBankManager.format(bank.getBalance(guild)) + " in its bank.");
+        plugin.getLogger().info("Admin " + sender.getName() + " used " + args[1].toLowerCase() + " of " + GuildBankManager.format(cents) + " on the bank of guild: " + guild.getName());
+    }
+    
     private void handleGodMode(CommandSender sender) {
         // This command can only be used by players
         if (!(sender instanceof Player)) {
@@ -755,7 +835,7 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         
         if (args.length == 1) {
             // First argument - subcommands
-            String[] subCommands = {"delete", "reload", "about", "enchant", "give", "summon", "godmode", "healthbar", "mobmerge", "clearlag"};
+            String[] subCommands = {"delete", "reload", "about", "enchant", "give", "summon", "godmode", "healthbar", "mobmerge", "clearlag", "bank", "tasks"};
             String input = args[0].toLowerCase();
             
             for (String subCommand : subCommands) {
@@ -764,8 +844,8 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
                 }
             }
         } else if (args.length == 2) {
-            if (args[0].equalsIgnoreCase("delete")) {
-                // Second argument for delete - guild name
+            if (args[0].equalsIgnoreCase("delete") || args[0].equalsIgnoreCase("bank")) {
+                // Second argument for delete and bank - guild name
                 String input = args[1].toLowerCase();
                 
                 // Get all guild names from the guild service
@@ -817,7 +897,16 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
                 }
             }
         } else if (args.length == 3) {
-            if (args[0].equalsIgnoreCase("enchant")) {
+            if (args[0].equalsIgnoreCase("bank")) {
+                // Third argument for bank - action
+                String input = args[2].toLowerCase();
+                
+                for (String action : new String[] {"deposit", "withdraw"}) {
+                    if (action.startsWith(input)) {
+                        completions.add(action);
+                    }
+                }
+            } else if (args[0].equalsIgnoreCase("enchant")) {
                 // Third argument for enchant - level
                 String input = args[2].toLowerCase();
                 
@@ -1,9 +1,7 @@
 package com.guildwars.commands;
 
 import com.guildwars.GuildWars;
-import com.guildwars.mobs.CorruptedWarden;
-import com.guildwars.mobs.FrostGiant;
-import com.guildwars.mobs.ShadowAssassin;
+import com.guildwars.mobs.CustomMobRegistry;
 import com.guildwars.util.MessageUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -11,11 +9,8 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.entity.Zombie;
-import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.util.StringUtil;
 
 import java.util.ArrayList;
@@ -81,61 +76,20 @@ public class ClearCustomMobsCommand implements CommandExecutor, TabCompleter {
      * @return The number of mobs removed
      */
     private int removeCustomMobs(List<World> worlds) {
+        CustomMobRegistry registry = plugin.getMobManager().getRegistry();
         int count = 0;
 
         for (World world : worlds) {
-            for (Entity entity : world.getEntities()) {
-                if (entity instanceof LivingEntity) {
-                    LivingEntity livingEntity = (LivingEntity) entity;
-                    
-                    // Check if it's a custom mob from our plugin
-                    if (isCustomMob(livingEntity)) {
-                        entity.remove();
-                        count++;
-                    }
-                }
+            // Removing a mob also drops it from the registry, and with it the tracked counts
+            for (LivingEntity entity : registry.getMobs(world)) {
+                entity.remove();
+                count++;
             }
         }
 
-        // Reset tracked counts after removing all mobs
-        if (plugin.getCustomMobSpawnManager() != null) {
-            // Since we can't directly reset the counters, we'll use reflection 
-            // or wait for the count checker task to update them
-        }
-
         return count;
     }
 
-    /**
-     * Checks if an entity is a custom mob from our plugin.
-     *
-     * @param entity The entity to check
-     * @return True if it's a custom mob
-     */
-    private boolean isCustomMob(LivingEntity entity) {
-        // Check various custom mob types
-        if (CorruptedWarden.isCorruptedWarden(entity)) {
-            return true;
-        }
-        
-        if (FrostGiant.isFrostGiant(entity)) {
-            return true;
-        }
-        
-        if (ShadowAssassin.isShadowAssassin(entity)) {
-            return true;
-        }
-        
-        // Check for minions
-        if (entity instanceof Zombie) {
-            org.bukkit.NamespacedKey minionKey = new org.bukkit.NamespacedKey(plugin, "warden_minion");
-            return entity.getPersistentDataContainer().has(minionKey, PersistentDataType.BYTE);
-        }
-        
-        // Add other custom mob types as needed
-        return false;
-    }
-
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
@@ -5,8 +5,18 @@ import com.guildwars.database.GuildService;
 import com.guildwars.model.ChunkPosition;
 import com.guildwars.model.Guild;
 import com.guildwars.model.Relation;
+import com.guildwars.model.War;
+import com.guildwars.model.WarScore;
+import com.guildwars.util.MessageUtil;
+import com.guildwars.util.PlayerNameCache;
+import com.guildwars.utils.CooldownManager;
+import com.guildwars.utils.GuildBankManager;
+import com.guildwars.utils.MailboxManager;
+import com.guildwars.utils.OnlineMemberIndex;
+import net.kyori.adventure.audience.Audience;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.block.BlockFace;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -16,10 +26,13 @@ import org.bukkit.entity.Player;
 // Using non-deprecated Bungee ChatColor instead of Bukkit ChatColor
 import net.md_5.bungee.api.ChatColor;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -31,11 +44,13 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
 
     private final GuildWars plugin;
     private final GuildService guildService;
+    private final PlayerNameCache nameCache;
+    private final CooldownManager cooldownManager;
+    private final OnlineMemberIndex onlineMemberIndex;
+    private final MailboxManager mailboxManager;
     
-    // Cooldown tracking maps
-    private final java.util.Map<UUID, Long> teleportCooldowns = new java.util.HashMap<>();
-    private final java.util.Map<UUID, Long> creationCooldowns = new java.util.HashMap<>();
-    private final java.util.Map<UUID, Long> warCooldowns = new java.util.HashMap<>();
+    // Default length of /guild claim line
+    private static final int DEFAULT_CLAIM_LINE_LENGTH = 5;
 
     /**
      * Creates a new guild command handler.
@@ -45,6 +60,10 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
     public GuildCommand(GuildWars plugin) {
         this.plugin = plugin;
         this.guildService = plugin.getGuildService();
+        this.nameCache = plugin.getPlayerNameCache();
+        this.cooldownManager = plugin.getCooldownManager();
+        this.onlineMemberIndex = plugin.getOnlineMemberIndex();
+        this.mailboxManager = plugin.getMailboxManager();
     }
 
     @Override
@@ -91,10 +110,19 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
                 handleDemote(player, subArgs);
                 break;
             case "claim":
-                handleClaim(player);
+                handleClaim(player, subArgs);
                 break;
             case "unclaim":
-                handleUnclaim(player);
+                handleUnclaim(player, subArgs);
+                break;
+            case "map":
+                handleMap(player);
+                break;
+            case "borders":
+                handleBorders(player);
+                break;
+            case "bank":
+                handleBank(player, subArgs);
                 break;
             case "home":
                 handleHome(player);
@@ -140,7 +168,7 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
         player.sendMessage(ChatColor.GOLD + "=== " + guild.getName() + " [" + guild.getTag() + "] ===");
         
         // Leader and creation date
-        String leaderName = Bukkit.getOfflinePlayer(guild.getLeader()).getName();
+        String leaderName = nameCache.getName(guild.getLeader());
         player.sendMessage(ChatColor.YELLOW + "Leader: " + leaderName);
         player.sendMessage(ChatColor.YELLOW + "Created: " + guild.getCreationDate());
         
@@ -206,12 +234,9 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
         }
         
         // Check creation cooldown
-        long cooldownTime = plugin.getConfig().getLong("guilds.creation-cooldown", 86400) * 1000; // Convert to milliseconds
-        long currentTime = System.currentTimeMillis();
-        Long lastCreationTime = creationCooldowns.get(player.getUniqueId());
-        
-        if (lastCreationTime != null && currentTime - lastCreationTime < cooldownTime) {
-            long remainingTime = (lastCreationTime + cooldownTime - currentTime) / 1000; // Convert to seconds
+        long creationCooldown = cooldownManager.getRemaining(player.getUniqueId(), CooldownManager.Type.GUILD_CREATE);
+        if (creationCooldown > 0) {
+            long remainingTime = creationCooldown / 1000; // Convert to seconds
             player.sendMessage(ChatColor.RED + "You must wait " + formatTime(remainingTime) + " before creating another guild.");
             return;
         }
@@ -229,17 +254,17 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
         Guild newGuild = guildService.createGuild(guildName, "", player.getUniqueId());
         
         if (newGuild != null) {
-            // Update cooldown
-            creationCooldowns.put(player.getUniqueId(), currentTime);
+            // Start cooldown (configured in hours)
+            cooldownManager.start(player.getUniqueId(), CooldownManager.Type.GUILD_CREATE,
+                    plugin.getConfig().getLong("guilds.creation-cooldown", 24) * 3_600_000L);
             
             // Send success messages
             player.sendMessage(ChatColor.GREEN + "Guild " + guildName + " has been created!");
             player.sendMessage(ChatColor.GREEN + "You are now the leader of this guild.");
             
             // Broadcast to server
-            for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
-                onlinePlayer.sendMessage(ChatColor.YELLOW + "[Server] " + player.getName() + " has created a new guild: " + guildName + "!");
-            }
+            MessageUtil.broadcast(plugin.getMessageManager().getMessage("guild-created",
+                    "<yellow><player> has created a new guild: <guild>!", "player", player.getName(), "guild", guildName));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to create guild. Please try again later.");
         }
@@ -313,12 +338,8 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             player.sendMessage(ChatColor.GREEN + "You have joined the guild " + targetGuild.getName() + "!");
             
             // Notify online guild members
-            for (UUID memberId : targetGuild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline() && !member.equals(player)) {
-                    member.sendMessage(ChatColor.GREEN + player.getName() + " has joined your guild!");
-                }
-            }
+            onlineMemberIndex.getAudience(targetGuild).excluding(player)
+                    .sendMessage(MessageUtil.toComponent(ChatColor.GREEN + player.getName() + " has joined your guild!"));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to join guild. Please try again later.");
         }
@@ -349,12 +370,8 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             player.sendMessage(ChatColor.GREEN + "You have left the guild " + guild.getName() + ".");
             
             // Notify online guild members
-            for (UUID memberId : guild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline()) {
-                    member.sendMessage(ChatColor.YELLOW + player.getName() + " has left your guild.");
-                }
-            }
+            onlineMemberIndex.getAudience(guild)
+                    .sendMessage(MessageUtil.toComponent(ChatColor.YELLOW + player.getName() + " has left your guild."));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to leave guild. Please try again later.");
         }
@@ -386,7 +403,7 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
         player.sendMessage(ChatColor.GOLD + "=== " + guild.getName() + " [" + guild.getTag() + "] ===");
         
         // Leader and creation date
-        String leaderName = Bukkit.getOfflinePlayer(guild.getLeader()).getName();
+        String leaderName = nameCache.getName(guild.getLeader());
         player.sendMessage(ChatColor.YELLOW + "Leader: " + leaderName);
         player.sendMessage(ChatColor.YELLOW + "Created: " + guild.getCreationDate());
         
@@ -411,7 +428,7 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
         for (UUID officerId : guild.getOfficers()) {
             if (count >= 5) break;
             if (!officerId.equals(guild.getLeader())) {
-                String officerName = Bukkit.getOfflinePlayer(officerId).getName();
+                String officerName = nameCache.getName(officerId);
                 if (count > 0) memberList.append(", ");
                 memberList.append("§b").append(officerName).append(" (Officer)");
                 count++;
@@ -422,7 +439,7 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
         for (UUID memberId : guild.getMembers()) {
             if (count >= 5) break;
             if (!guild.isLeader(memberId) && !guild.isOfficer(memberId)) {
-                String memberName = Bukkit.getOfflinePlayer(memberId).getName();
+                String memberName = nameCache.getName(memberId);
                 if (count > 0) memberList.append(", ");
                 memberList.append("§a").append(memberName);
                 count++;
@@ -506,9 +523,8 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             targetPlayer.sendMessage(ChatColor.YELLOW + "Type /guild join " + guild.getName() + " to accept the invitation.");
             
             // Notify online guild officers and leader
-            for (UUID memberId : guild.getOfficers()) {
-                Player officer = Bukkit.getPlayer(memberId);
-                if (officer != null && officer.isOnline() && !officer.equals(player)) {
+            for (Player officer : onlineMemberIndex.getOnlineMembers(guild)) {
+                if (guild.isOfficer(officer.getUniqueId()) && !officer.equals(player)) {
                     officer.sendMessage(ChatColor.YELLOW + player.getName() + " has invited " + targetPlayer.getName() + " to the guild.");
                 }
             }
@@ -561,14 +577,11 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             targetPlayerId = targetPlayer.getUniqueId();
             targetPlayerDisplayName = targetPlayer.getName();
         } else {
-            // Try to find from offline players
-            for (UUID memberId : guild.getMembers()) {
-                String memberName = Bukkit.getOfflinePlayer(memberId).getName();
-                if (memberName != null && memberName.equalsIgnoreCase(targetPlayerName)) {
-                    targetPlayerId = memberId;
-                    targetPlayerDisplayName = memberName;
-                    break;
-                }
+            // Try to find from cached names of offline members
+            UUID memberId = nameCache.findByName(guild.getMembers(), targetPlayerName);
+            if (memberId != null) {
+                targetPlayerId = memberId;
+                targetPlayerDisplayName = nameCache.getName(memberId);
             }
         }
         
@@ -603,18 +616,12 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             
             player.sendMessage(ChatColor.GREEN + "Kicked " + targetPlayerDisplayName + " from your guild!");
             
-            // Notify the kicked player if online
-            if (targetPlayer != null && targetPlayer.isOnline()) {
-                targetPlayer.sendMessage(ChatColor.RED + "You have been kicked from " + guild.getName() + " by " + player.getName() + ".");
-            }
+            // Notify the kicked player, or leave it in their mailbox if offline
+            mailboxManager.send(targetPlayerId, ChatColor.RED + "You have been kicked from " + guild.getName() + " by " + player.getName() + ".");
             
             // Notify online guild members
-            for (UUID memberId : guild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline() && !member.equals(player)) {
-                    member.sendMessage(ChatColor.YELLOW + targetPlayerDisplayName + " has been kicked from the guild by " + player.getName() + ".");
-                }
-            }
+            onlineMemberIndex.getAudience(guild).excluding(player)
+                    .sendMessage(MessageUtil.toComponent(ChatColor.YELLOW + targetPlayerDisplayName + " has been kicked from the guild by " + player.getName() + "."));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to kick player. Please try again later.");
         }
@@ -657,14 +664,11 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             targetPlayerId = targetPlayer.getUniqueId();
             targetPlayerDisplayName = targetPlayer.getName();
         } else {
-            // Try to find from offline players
-            for (UUID memberId : guild.getMembers()) {
-                String memberName = Bukkit.getOfflinePlayer(memberId).getName();
-                if (memberName != null && memberName.equalsIgnoreCase(targetPlayerName)) {
-                    targetPlayerId = memberId;
-                    targetPlayerDisplayName = memberName;
-                    break;
-                }
+            // Try to find from cached names of offline members
+            UUID memberId = nameCache.findByName(guild.getMembers(), targetPlayerName);
+            if (memberId != null) {
+                targetPlayerId = memberId;
+                targetPlayerDisplayName = nameCache.getName(memberId);
             }
         }
         
@@ -696,18 +700,12 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             guild.addOfficer(targetPlayerId); // Update the in-memory guild object
             player.sendMessage(ChatColor.GREEN + "You have promoted " + targetPlayerDisplayName + " to officer.");
             
-            // Notify the promoted player if online
-            if (targetPlayer != null && targetPlayer.isOnline()) {
-                targetPlayer.sendMessage(ChatColor.GREEN + "You have been promoted to officer in " + guild.getName() + " by " + player.getName() + ".");
-            }
+            // Notify the promoted player, or leave it in their mailbox if offline
+            mailboxManager.send(targetPlayerId, ChatColor.GREEN + "You have been promoted to officer in " + guild.getName() + " by " + player.getName() + ".");
             
             // Notify online guild members
-            for (UUID memberId : guild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline() && !member.equals(player) && !member.equals(targetPlayer)) {
-                    member.sendMessage(ChatColor.YELLOW + targetPlayerDisplayName + " has been promoted to officer by " + player.getName() + ".");
-                }
-            }
+            onlineMemberIndex.getAudience(guild).filterAudience(member -> member != player && member != targetPlayer)
+                    .sendMessage(MessageUtil.toComponent(ChatColor.YELLOW + targetPlayerDisplayName + " has been promoted to officer by " + player.getName() + "."));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to promote player. Please try again later.");
         }
@@ -750,14 +748,11 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             targetPlayerId = targetPlayer.getUniqueId();
             targetPlayerDisplayName = targetPlayer.getName();
         } else {
-            // Try to find from offline players
-            for (UUID memberId : guild.getMembers()) {
-                String memberName = Bukkit.getOfflinePlayer(memberId).getName();
-                if (memberName != null && memberName.equalsIgnoreCase(targetPlayerName)) {
-                    targetPlayerId = memberId;
-                    targetPlayerDisplayName = memberName;
-                    break;
-                }
+            // Try to find from cached names of offline members
+            UUID memberId = nameCache.findByName(guild.getMembers(), targetPlayerName);
+            if (memberId != null) {
+                targetPlayerId = memberId;
+                targetPlayerDisplayName = nameCache.getName(memberId);
             }
         }
         
@@ -783,18 +778,12 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             guild.removeOfficer(targetPlayerId); // Update the in-memory guild object
             player.sendMessage(ChatColor.GREEN + "You have demoted " + targetPlayerDisplayName + " to member.");
             
-            // Notify the demoted player if online
-            if (targetPlayer != null && targetPlayer.isOnline()) {
-                targetPlayer.sendMessage(ChatColor.RED + "You have been demoted to member in " + guild.getName() + " by " + player.getName() + ".");
-            }
+            // Notify the demoted player, or leave it in their mailbox if offline
+            mailboxManager.send(targetPlayerId, ChatColor.RED + "You have been demoted to member in " + guild.getName() + " by " + player.getName() + ".");
             
             // Notify online guild members
-            for (UUID memberId : guild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline() && !member.equals(player) && !member.equals(targetPlayer)) {
-                    member.sendMessage(ChatColor.YELLOW + targetPlayerDisplayName + " has been demoted to member by " + player.getName() + ".");
-                }
-            }
+            onlineMemberIndex.getAudience(guild).filterAudience(member -> member != player && member != targetPlayer)
+                    .sendMessage(MessageUtil.toComponent(ChatColor.YELLOW + targetPlayerDisplayName + " has been demoted to member by " + player.getName() + "."));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to demote player. Please try again later.");
         }
@@ -804,8 +793,9 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
      * Handles the claim command.
      *
      * @param player The player
+     * @param args The command arguments
      */
-    private void handleClaim(Player player) {
+    private void handleClaim(Player player, String[] args) {
         // Check if player is in a guild
         Guild guild = guildService.getGuildByPlayer(player.getUniqueId());
         if (guild == null) {
@@ -819,6 +809,12 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
+        // Claim an area instead of a single chunk
+        if (args.length > 0) {
+            handleBulkClaim(player, guild, args);
+            return;
+        }
+        
         // Get the chunk the player is standing in
         org.bukkit.Chunk chunk = player.getLocation().getChunk();
         com.guildwars.model.ChunkPosition chunkPos = new com.guildwars.model.ChunkPosition(
@@ -849,7 +845,7 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
         }
         
         // Check if guild has reached maximum claims
-        int maxClaims = plugin.getConfig().getInt("guild.max-claims", 50);
+        int maxClaims = plugin.getConfig().getInt("territory.max-claims", 50);
         if (guild.getClaims().size() >= maxClaims) {
             player.sendMessage(ChatColor.RED + "Your guild has reached the maximum number of claims (" + maxClaims + ").");
             return;
@@ -861,24 +857,202 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             player.sendMessage(ChatColor.GREEN + "Claimed this chunk for your guild!");
             
             // Notify online guild members
-            for (UUID memberId : guild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline() && !member.equals(player)) {
-                    member.sendMessage(ChatColor.YELLOW + player.getName() + " claimed a new chunk at " + 
-                            player.getLocation().getBlockX() + ", " + player.getLocation().getBlockZ());
-                }
-            }
+            onlineMemberIndex.getAudience(guild).excluding(player)
+                    .sendMessage(MessageUtil.toComponent(ChatColor.YELLOW + player.getName() + " claimed a new chunk at " + 
+                            player.getLocation().getBlockX() + ", " + player.getLocation().getBlockZ()));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to claim chunk. Please try again later.");
         }
     }
     
+    /**
+     * Handles claiming a whole area of chunks at once.
+     * Every chunk in the area is validated first; the claims are then applied together and saved once.
+     *
+     * @param player The player
+     * @param guild The player's guild
+     * @param args The command arguments
+     */
+    private void handleBulkClaim(Player player, Guild guild, String[] args) {
+        String mode = args[0].toLowerCase();
+        if (!mode.equals("radius") && !mode.equals("square") && !mode.equals("line")) {
+            player.sendMessage(ChatColor.RED + "Usage: /guild claim [radius <r>|square <n>|line [length]]");
+            return;
+        }
+        
+        // Parse the size of the area
+        int maxClaims = plugin.getConfig().getInt("territory.max-claims", 50);
+        int size = DEFAULT_CLAIM_LINE_LENGTH;
+        if (args.length > 1) {
+            try {
+                size = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                player.sendMessage(ChatColor.RED + "Invalid size: " + args[1]);
+                return;
+            }
+        } else if (!mode.equals("line")) {
+            player.sendMessage(ChatColor.RED + "Usage: /guild claim " + mode + (mode.equals("radius") ? " <r>" : " <n>"));
+            return;
+        }
+        
+        int minSize = mode.equals("radius") ? 0 : 1;
+        if (size < minSize || size > maxClaims) {
+            player.sendMessage(ChatColor.RED + "Size must be between " + minSize + " and " + maxClaims + ".");
+            return;
+        }
+        
+        // Work out which chunks the area covers
+        Location location = player.getLocation();
+        Set<ChunkPosition> area = getClaimArea(mode, size, location.getWorld().getName(),
+                location.getBlockX() >> 4, location.getBlockZ() >> 4, player.getFacing());
+        
+        // Check ownership of every chunk in the area
+        List<ChunkPosition> toClaim = new ArrayList<>();
+        Guild otherOwner = null;
+        int otherCount = 0;
+        for (ChunkPosition position : area) {
+            Guild owner = guildService.getChunkOwner(position);
+            if (owner == null) {
+                toClaim.add(position);
+            } else if (owner != guild) {
+                otherOwner = owner;
+                otherCount++;
+            }
+        }
+        
+        if (otherOwner != null) {
+            player.sendMessage(ChatColor.RED + "That area contains " + otherCount + " chunk(s) claimed by other guilds, including " +
+                    otherOwner.getName() + ". Nothing was claimed.");
+            return;
+        }
+        
+        if (toClaim.isEmpty()) {
+            player.sendMessage(ChatColor.RED + "Your guild already owns every chunk in that area.");
+            return;
+        }
+        
+        // Check the claim limit for the whole area
+        int claimCount = guild.getClaims().size();
+        if (claimCount + toClaim.size() > maxClaims) {
+            player.sendMessage(ChatColor.RED + "Claiming " + toClaim.size() + " chunks would exceed your guild's maximum of " +
+                    maxClaims + " claims (" + claimCount + " used). Nothing was claimed.");
+            return;
+        }
+        
+        // Check that the area connects to the existing territory
+        if (!isConnectedToTerritory(guild, toClaim)) {
+            player.sendMessage(ChatColor.RED + "You can only claim areas that are connected to your existing territory. Nothing was claimed.");
+            return;
+        }
+        
+        // Claim the whole area with a single save
+        if (guildService.claimChunks(guild, toClaim)) {
+            player.sendMessage(ChatColor.GREEN + "Claimed " + toClaim.size() + " chunks for your guild! (" +
+                    guild.getClaims().size() + "/" + maxClaims + " claims)");
+            
+            // Notify online guild members
+            onlineMemberIndex.getAudience(guild).excluding(player)
+                    .sendMessage(MessageUtil.toComponent(ChatColor.YELLOW + player.getName() + " claimed " + toClaim.size() + " chunks around " +
+                            location.getBlockX() + ", " + location.getBlockZ()));
+        } else {
+            player.sendMessage(ChatColor.RED + "Failed to claim the area. Please try again later.");
+        }
+    }
+    
+    /**
+     * Gets the chunks covered by a bulk claim.
+     *
+     * @param mode The claim mode: radius, square or line
+     * @param size The radius, side length or line length in chunks
+     * @param world The world name
+     * @param centerX The x coordinate of the player's chunk
+     * @param centerZ The z coordinate of the player's chunk
+     * @param facing The direction the player is facing, used for lines
+     * @return The chunks in the area
+     */
+    private Set<ChunkPosition> getClaimArea(String mode, int size, String world, int centerX, int centerZ, BlockFace facing) {
+        Set<ChunkPosition> area = new HashSet<>();
+        switch (mode) {
+            case "radius":
+                // All chunks whose centers lie within the radius
+                for (int dx = -size; dx <= size; dx++) {
+                    for (int dz = -size; dz <= size; dz++) {
+                        if (dx * dx + dz * dz <= size * size) {
+                            area.add(new ChunkPosition(world, centerX + dx, centerZ + dz));
+                        }
+                    }
+                }
+                break;
+            case "square":
+                // An n x n square around the player's chunk
+                int start = -(size - 1) / 2;
+                for (int dx = start; dx < start + size; dx++) {
+                    for (int dz = start; dz < start + size; dz++) {
+                        area.add(new ChunkPosition(world, centerX + dx, centerZ + dz));
+                    }
+                }
+                break;
+            default:
+                // A line starting at the player's chunk in the direction they are facing
+                for (int i = 0; i < size; i++) {
+                    area.add(new ChunkPosition(world, centerX + facing.getModX() * i, centerZ + facing.getModZ() * i));
+                }
+                break;
+        }
+        return area;
+    }
+    
+    /**
+     * Checks whether a set of new chunks forms one piece with a guild's territory.
+     * A guild without claims only needs the new chunks to be connected to each other.
+     *
+     * @param guild The guild
+     * @param newChunks The chunks about to be claimed
+     * @return True if every new chunk is connected to the territory
+     */
+    private boolean isConnectedToTerritory(Guild guild, List<ChunkPosition> newChunks) {
+        Set<ChunkPosition> remaining = new HashSet<>(newChunks);
+        Deque<ChunkPosition> queue = new ArrayDeque<>();
+        
+        // Start from the new chunks that touch existing claims
+        if (guild.getClaims().isEmpty()) {
+            queue.add(newChunks.get(0));
+            remaining.remove(newChunks.get(0));
+        } else {
+            for (ChunkPosition position : newChunks) {
+                if (guildService.isChunkAdjacentToClaim(guild, position)) {
+                    queue.add(position);
+                    remaining.remove(position);
+                }
+            }
+        }
+        
+        // Spread through the new chunks from there
+        while (!queue.isEmpty()) {
+            ChunkPosition current = queue.poll();
+            ChunkPosition[] neighbours = {
+                new ChunkPosition(current.getWorld(), current.getX() + 1, current.getZ()),
+                new ChunkPosition(current.getWorld(), current.getX() - 1, current.getZ()),
+                new ChunkPosition(current.getWorld(), current.getX(), current.getZ() + 1),
+                new ChunkPosition(current.getWorld(), current.getX(), current.getZ() - 1)
+            };
+            for (ChunkPosition neighbour : neighbours) {
+                if (remaining.remove(neighbour)) {
+                    queue.add(neighbour);
+                }
+            }
+        }
+        
+        return remaining.isEmpty();
+    }
+    
     /**
      * Handles the unclaim command.
      *
      * @param player The player
+     * @param args The command arguments
      */
-    private void handleUnclaim(Player player) {
+    private void handleUnclaim(Player player, String[] args) {
         // Check if player is in a guild
         Guild guild = guildService.getGuildByPlayer(player.getUniqueId());
         if (guild == null) {
@@ -892,6 +1066,16 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
+        // Unclaim the whole territory
+        if (args.length > 0) {
+            if (!args[0].equalsIgnoreCase("all")) {
+                player.sendMessage(ChatColor.RED + "Usage: /guild unclaim [all]");
+                return;
+            }
+            handleUnclaimAll(player, guild);
+            return;
+        }
+        
         // Get the chunk the player is standing in
         org.bukkit.Chunk chunk = player.getLocation().getChunk();
         com.guildwars.model.ChunkPosition chunkPos = new com.guildwars.model.ChunkPosition(
@@ -914,24 +1098,143 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             }
         }
         
+        // Check if unclaiming would cut the territory into disconnected parts
+        boolean splitsTerritory = guildService.wouldSplitTerritory(guild, chunkPos);
+        if (splitsTerritory && !plugin.getConfig().getBoolean("territory.allow-disconnected-territory", false)) {
+            player.sendMessage(ChatColor.RED + "You cannot unclaim this chunk because it would split your territory into disconnected parts.");
+            return;
+        }
+        
         // Unclaim the chunk
         if (guildService.unclaimChunk(guild.getId(), chunkPos)) {
             guild.unclaim(chunkPos); // Update the in-memory guild object
             player.sendMessage(ChatColor.GREEN + "Unclaimed this chunk for your guild.");
             
-            // Notify online guild members
-            for (UUID memberId : guild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline() && !member.equals(player)) {
-                    member.sendMessage(ChatColor.YELLOW + player.getName() + " unclaimed a chunk at " + 
-                            chunkPos.getX() + ", " + chunkPos.getZ() + " in " + chunkPos.getWorld() + ".");
-                }
+            if (splitsTerritory) {
+                player.sendMessage(ChatColor.YELLOW + "Your territory is now split into " + 
+                        guild.getTerritoryComponentCount() + " disconnected parts.");
             }
+            
+            // Notify online guild members
+            onlineMemberIndex.getAudience(guild).excluding(player)
+                    .sendMessage(MessageUtil.toComponent(ChatColor.YELLOW + player.getName() + " unclaimed a chunk at " + 
+                            chunkPos.getX() + ", " + chunkPos.getZ() + " in " + chunkPos.getWorld() + "."));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to unclaim chunk. Please try again later.");
         }
     }
 
+    /**
+     * Handles unclaiming all of a guild's territory at once.
+     *
+     * @param player The player
+     * @param guild The player's guild
+     */
+    private void handleUnclaimAll(Player player, Guild guild) {
+        // Only the leader may give up the whole territory
+        if (!guild.isLeader(player.getUniqueId())) {
+            player.sendMessage(ChatColor.RED + "Only the guild leader can unclaim all land.");
+            return;
+        }
+        
+        if (guild.getClaims().isEmpty()) {
+            player.sendMessage(ChatColor.RED + "Your guild has no claimed land.");
+            return;
+        }
+        
+        boolean hadHome = guild.getHome() != null;
+        int unclaimed = guildService.unclaimAllChunks(guild);
+        player.sendMessage(ChatColor.GREEN + "Unclaimed all " + unclaimed + " chunks of your guild's territory.");
+        if (hadHome) {
+            player.sendMessage(ChatColor.YELLOW + "Your guild home has been removed. Use /guild sethome in new territory to set it again.");
+        }
+        
+        // Notify online guild members
+        String message = ChatColor.YELLOW + player.getName() + " unclaimed all of your guild's territory.";
+        onlineMemberIndex.getAudience(guild).excluding(player).sendMessage(MessageUtil.toComponent(message));
+        mailboxManager.mailOfflineMembers(guild, message);
+    }
+    
+    /**
+     * Handles the map command.
+     *
+     * @param player The player
+     */
+    private void handleMap(Player player) {
+        for (String line : plugin.getTerritoryMapManager().render(player)) {
+            player.sendMessage(line);
+        }
+    }
+
+    /**
+     * Handles the borders command.
+     *
+     * @param player The player
+     */
+    private void handleBorders(Player player) {
+        if (plugin.getTerritoryBorderManager().toggle(player)) {
+            player.sendMessage(ChatColor.GREEN + "Territory borders are now shown. Use /guild borders again to hide them.");
+        } else {
+            player.sendMessage(ChatColor.YELLOW + "Territory borders are now hidden.");
+        }
+    }
+
+    /**
+     * Handles the bank command, which shows the guild's balance or transfers money to another guild.
+     *
+     * @param player The player
+     * @param args The command arguments
+     */
+    private void handleBank(Player player, String[] args) {
+        // Check if player is in a guild
+        Guild guild = guildService.getGuildByPlayer(player.getUniqueId());
+        if (guild == null) {
+            player.sendMessage(ChatColor.RED + "You are not in a guild.");
+            return;
+        }
+        
+        GuildBankManager bank = plugin.getGuildBankManager();
+        if (args.length == 0) {
+            player.sendMessage(ChatColor.GOLD + "Guild bank balance: " + ChatColor.YELLOW + GuildBankManager.format(bank.getBalance(guild)));
+            return;
+        }
+        
+        if (!args[0].equalsIgnoreCase("transfer") || args.length < 3) {
+            player.sendMessage(ChatColor.RED + "Usage: /guild bank [transfer <guild> <amount>]");
+            return;
+        }
+        
+        // Check if player is officer or leader
+        if (!guild.isOfficer(player.getUniqueId()) && !guild.isLeader(player.getUniqueId())) {
+            player.sendMessage(ChatColor.RED + "You must be an officer or leader to transfer money from the guild bank.");
+            return;
+        }
+        
+        Guild targetGuild = guildService.getGuildByName(args[1]);
+        if (targetGuild == null) {
+            player.sendMessage(ChatColor.RED + "Guild not found: " + args[1]);
+            return;
+        }
+        if (targetGuild == guild) {
+            player.sendMessage(ChatColor.RED + "You cannot transfer money to your own guild.");
+            return;
+        }
+        
+        long cents = GuildBankManager.parseCents(args[2]);
+        if (cents <= 0) {
+            player.sendMessage(ChatColor.RED + "Invalid amount: " + args[2] + " (at most " + GuildBankManager.format(GuildBankManager.MAX_TRANSACTION_CENTS) + ")");
+            return;
+        }
+        
+        if (bank.transfer(guild, targetGuild, cents, player.getUniqueId())) {
+            player.sendMessage(ChatColor.GREEN + "Transferred " + GuildBankManager.format(cents) + " to " + targetGuild.getName() + ".");
+        } else if (bank.getBalance(guild) < cents) {
+            player.sendMessage(ChatColor.RED + "Your guild bank does not hold " + GuildBankManager.format(cents) + ".");
+        } else {
+            player.sendMessage(ChatColor.RED + "The bank of " + targetGuild.getName() + " cannot hold any more money.");
+        }
+    }
+
     /**
      * @param player The player
      */
@@ -950,26 +1253,24 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        // Check if teleport cooldown is active
-        if (teleportCooldowns.containsKey(player.getUniqueId())) {
-            long cooldownEnd = teleportCooldowns.get(player.getUniqueId());
-            if (System.currentTimeMillis() < cooldownEnd) {
-                long remainingTime = (cooldownEnd - System.currentTimeMillis()) / 1000;
-                player.sendMessage(ChatColor.RED + "You must wait " + formatTime(remainingTime) + " before teleporting again.");
-                return;
-            } else {
-                // Cooldown has expired, remove it
-                teleportCooldowns.remove(player.getUniqueId());
-            }
+        // Check if the home's world is loaded
+        if (home.getWorld() == null) {
+            player.sendMessage(ChatColor.RED + "Your guild home is in a world that is not loaded.");
+            return;
         }
         
-        // Teleport player to guild home
-        player.teleport(home);
-        
-        // Set cooldown (60 seconds)
-        teleportCooldowns.put(player.getUniqueId(), System.currentTimeMillis() + (60 * 1000));
+        // Check if teleport cooldown is active
+        long teleportCooldown = cooldownManager.getRemaining(player.getUniqueId(), CooldownManager.Type.GUILD_HOME);
+        if (teleportCooldown > 0) {
+            long remainingTime = teleportCooldown / 1000;
+            player.sendMessage(ChatColor.RED + "You must wait " + formatTime(remainingTime) + " before teleporting again.");
+            return;
+        }
         
-        player.sendMessage(ChatColor.GREEN + "Teleported to guild home!");
+        // Teleport after the warmup, once the home chunk has loaded; the cooldown starts on arrival
+        if (!plugin.getHomeTeleportManager().requestTeleport(player, home)) {
+            player.sendMessage(ChatColor.RED + "You are already teleporting to your guild home.");
+        }
     }
 
     /**
@@ -1006,12 +1307,8 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             player.sendMessage(ChatColor.GREEN + "Guild home set to your current location.");
             
             // Notify online guild members
-            for (UUID memberId : guild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline() && !member.equals(player)) {
-                    member.sendMessage(ChatColor.YELLOW + player.getName() + " has set a new guild home.");
-                }
-            }
+            onlineMemberIndex.getAudience(guild).excluding(player)
+                    .sendMessage(MessageUtil.toComponent(ChatColor.YELLOW + player.getName() + " has set a new guild home."));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to set guild home. Please try again later.");
         }
@@ -1057,6 +1354,12 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
+        // A war ends on its own when its time is up, with its final score
+        if (guild.getRelation(targetGuild.getId()) == Relation.WAR) {
+            player.sendMessage(ChatColor.RED + "Your guild is at war with " + targetGuild.getName() + ". Wait for the war to end first.");
+            return;
+        }
+        
         // Check if guilds are already allied
         if (guild.getRelation(targetGuild.getId()) == Relation.ALLY) {
             player.sendMessage(ChatColor.RED + "Your guild is already allied with " + targetGuild.getName() + ".");
@@ -1082,20 +1385,10 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
         if (guildService.setGuildRelation(guild.getId(), targetGuild.getId(), Relation.ALLY)) {
             player.sendMessage(ChatColor.GREEN + "Your guild is now allied with " + targetGuild.getName() + "!");
             
-            // Notify online members of both guilds
-            for (UUID memberId : guild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline() && !member.equals(player)) {
-                    member.sendMessage(ChatColor.YELLOW + "Your guild is now allied with " + targetGuild.getName() + "!");
-                }
-            }
-            
-            for (UUID memberId : targetGuild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline()) {
-                    member.sendMessage(ChatColor.YELLOW + guild.getName() + " has formed an alliance with your guild!");
-                }
-            }
+            // Notify the online members of the alliance, which now includes the target guild
+            onlineMemberIndex.getAllianceAudience(guild).filterAudience(member -> member != player)
+                    .sendMessage(plugin.getMessageManager().getMessage("alliance-formed",
+                            "<green><guild1> has formed an alliance with <guild2>!", "guild1", guild.getName(), "guild2", targetGuild.getName()));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to set alliance. Please try again later.");
         }
@@ -1141,6 +1434,12 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
+        // A war ends on its own when its time is up, with its final score
+        if (guild.getRelation(targetGuild.getId()) == Relation.WAR) {
+            player.sendMessage(ChatColor.RED + "Your guild is at war with " + targetGuild.getName() + ". Wait for the war to end first.");
+            return;
+        }
+        
         // Check if guilds are already enemies
         if (guild.getRelation(targetGuild.getId()) == Relation.ENEMY) {
             player.sendMessage(ChatColor.RED + "Your guild already considers " + targetGuild.getName() + " an enemy.");
@@ -1167,19 +1466,9 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             player.sendMessage(ChatColor.RED + "Your guild has declared " + targetGuild.getName() + " as an enemy!");
             
             // Notify online members of both guilds
-            for (UUID memberId : guild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline() && !member.equals(player)) {
-                    member.sendMessage(ChatColor.YELLOW + "Your guild has declared " + targetGuild.getName() + " as an enemy!");
-                }
-            }
-            
-            for (UUID memberId : targetGuild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline()) {
-                    member.sendMessage(ChatColor.RED + guild.getName() + " has declared your guild as an enemy!");
-                }
-            }
+            Audience.audience(onlineMemberIndex.getAudience(guild).excluding(player), onlineMemberIndex.getAudience(targetGuild))
+                    .sendMessage(plugin.getMessageManager().getMessage("enemy-declared",
+                            "<red><guild1> has declared <guild2> as an enemy!", "guild1", guild.getName(), "guild2", targetGuild.getName()));
         } else {
             player.sendMessage(ChatColor.RED + "Failed to declare enemy. Please try again later.");
         }
@@ -1193,7 +1482,12 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
      */
     private void handleWar(Player player, String[] args) {
         if (args.length == 0) {
-            player.sendMessage(ChatColor.RED + "Usage: /guild war <guild> [duration]");
+            player.sendMessage(ChatColor.RED + "Usage: /guild war <guild> [duration] or /guild war status");
+            return;
+        }
+        
+        if (args[0].equalsIgnoreCase("status")) {
+            handleWarStatus(player);
             return;
         }
 
@@ -1251,41 +1545,76 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
         }
         
         // Check if war cooldown is active
-        if (warCooldowns.containsKey(player.getUniqueId())) {
-            long cooldownEnd = warCooldowns.get(player.getUniqueId());
-            if (System.currentTimeMillis() < cooldownEnd) {
-                long remainingTime = (cooldownEnd - System.currentTimeMillis()) / 1000;
-                player.sendMessage(ChatColor.RED + "You must wait " + formatTime(remainingTime) + " before declaring another war.");
-                return;
-            } else {
-                // Cooldown has expired, remove it
-                warCooldowns.remove(player.getUniqueId());
-            }
+        long warCooldown = cooldownManager.getRemaining(player.getUniqueId(), CooldownManager.Type.WAR_DECLARE);
+        if (warCooldown > 0) {
+            long remainingTime = warCooldown / 1000;
+            player.sendMessage(ChatColor.RED + "You must wait " + formatTime(remainingTime) + " before declaring another war.");
+            return;
         }
         
-        // Set relation to WAR
-        if (guildService.setGuildRelation(guild.getId(), targetGuild.getId(), Relation.WAR)) {
-            // Set cooldown (30 minutes)
-            warCooldowns.put(player.getUniqueId(), System.currentTimeMillis() + (30 * 60 * 1000));
+        // Start the war; the war manager announces it and ends it when the duration is up
+        if (plugin.getWarManager().declareWar(guild, targetGuild, duration)) {
+            // Start cooldown (configured in hours)
+            cooldownManager.start(player.getUniqueId(), CooldownManager.Type.WAR_DECLARE,
+                    plugin.getConfig().getLong("war.cooldown", 24) * 3_600_000L);
             
             player.sendMessage(ChatColor.RED + "Your guild has declared war on " + targetGuild.getName() + " for " + duration + " minutes!");
+        } else {
+            player.sendMessage(ChatColor.RED + "Failed to declare war. Please try again later.");
+        }
+    }
+    
+    /**
+     * Shows the scoreboard of each war the player's guild is fighting.
+     *
+     * @param player The player
+     */
+    private void handleWarStatus(Player player) {
+        Guild guild = guildService.getGuildByPlayer(player.getUniqueId());
+        if (guild == null) {
+            player.sendMessage(ChatColor.RED + "You are not in a guild.");
+            return;
+        }
+        
+        List<War> wars = plugin.getWarManager().getWars(guild);
+        if (wars.isEmpty()) {
+            player.sendMessage(ChatColor.YELLOW + "Your guild is not at war.");
+            return;
+        }
+        
+        for (War war : wars) {
+            Guild opponent = guildService.getGuild(UUID.fromString(war.getOpponentId(guild.getId())));
+            String opponentName = opponent != null ? opponent.getName() : "a disbanded guild";
+            long remainingSeconds = Math.max(0, (war.getEndTime() - System.currentTimeMillis()) / 1000);
             
-            // Notify online members of both guilds
-            for (UUID memberId : guild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline() && !member.equals(player)) {
-                    member.sendMessage(ChatColor.YELLOW + "Your guild has declared war on " + targetGuild.getName() + " for " + duration + " minutes!");
-                }
+            player.sendMessage(ChatColor.GOLD + "=== War: " + guild.getName() + " vs " + opponentName + " ===");
+            player.sendMessage(ChatColor.YELLOW + "Time left: " + formatTime(remainingSeconds));
+            
+            WarScore score = plugin.getWarScoreManager().getScore(war);
+            if (score == null) {
+                player.sendMessage(ChatColor.GRAY + "No kills yet.");
+                continue;
             }
             
-            for (UUID memberId : targetGuild.getMembers()) {
-                Player member = Bukkit.getPlayer(memberId);
-                if (member != null && member.isOnline()) {
-                    member.sendMessage(ChatColor.RED + guild.getName() + " has declared war on your guild for " + duration + " minutes!");
-                }
+            String opponentId = war.getOpponentId(guild.getId());
+            player.sendMessage(ChatColor.GREEN + guild.getName() + ": " + score.getGuildStat(guild.getId(), WarScore.POINTS) +
+                    " points, " + score.getGuildStat(guild.getId(), WarScore.KILLS) + " kills, " +
+                    score.getGuildStat(guild.getId(), WarScore.DEATHS) + " deaths");
+            player.sendMessage(ChatColor.RED + opponentName + ": " + score.getGuildStat(opponentId, WarScore.POINTS) +
+                    " points, " + score.getGuildStat(opponentId, WarScore.KILLS) + " kills, " +
+                    score.getGuildStat(opponentId, WarScore.DEATHS) + " deaths");
+            
+            // Show the top scorers of the war
+            List<Map.Entry<UUID, long[]>> topPlayers = score.getPlayerStats().entrySet().stream()
+                    .filter(entry -> entry.getValue()[WarScore.KILLS] > 0)
+                    .sorted((a, b) -> Long.compare(b.getValue()[WarScore.POINTS], a.getValue()[WarScore.POINTS]))
+                    .limit(3)
+                    .collect(Collectors.toList());
+            for (Map.Entry<UUID, long[]> entry : topPlayers) {
+                long[] stats = entry.getValue();
+                player.sendMessage(ChatColor.AQUA + " - " + nameCache.getName(entry.getKey()) + ": " +
+                        stats[WarScore.KILLS] + " kills, " + stats[WarScore.DEATHS] + " deaths");
             }
-        } else {
-            player.sendMessage(ChatColor.RED + "Failed to declare war. Please try again later.");
         }
     }
     
@@ -1310,23 +1639,22 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
         
         // Store guild info before deletion for notifications
         String guildName = guild.getName();
-        Set<UUID> guildMembers = new HashSet<>(guild.getMembers());
+        List<Player> onlineMembers = new ArrayList<>(onlineMemberIndex.getOnlineMembers(guild));
+        Set<UUID> members = new HashSet<>(guild.getMembers());
         
         // Delete the guild from the database
         try {
             if (guildService.deleteGuild(UUID.fromString(guild.getId()))) {
                 // Notify all online guild members AFTER successful deletion
-                for (UUID memberId : guildMembers) {
-                    Player member = Bukkit.getPlayer(memberId);
-                    if (member != null && member.isOnline()) {
-                        member.sendMessage(ChatColor.RED + "Your guild has been disbanded by " + player.getName() + "!");
-                    }
+                String message = ChatColor.RED + "Your guild has been disbanded by " + player.getName() + "!";
+                for (Player member : onlineMembers) {
+                    member.sendMessage(message);
                 }
+                mailboxManager.mailOfflineMembers(members, ChatColor.RED + "Your guild " + guildName + " has been disbanded by " + player.getName() + "!");
                 
                 // Broadcast to server
-                for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
-                    onlinePlayer.sendMessage(ChatColor.YELLOW + "[Server] The guild " + guildName + " has been disbanded!");
-                }
+                MessageUtil.broadcast(plugin.getMessageManager().getMessage("guild-disbanded",
+                        "<yellow>The guild <guild> has been disbanded!", "guild", guildName));
                 
                 // Log the action
                 plugin.getLogger().info("Player " + player.getName() + " disbanded guild: " + guildName);
@@ -1351,7 +1679,7 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
             // First argument - subcommands
             String[] subCommands = {
                 "create", "join", "leave", "info", "invite", "kick", 
-                "promote", "demote", "claim", "unclaim", "home", "sethome", 
+                "promote", "demote", "claim", "unclaim", "map", "borders", "bank", "home", "sethome", 
                 "ally", "enemy", "war", "disband"
             };
             String input = args[0].toLowerCase();
@@ -1377,6 +1705,9 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
                             .filter(name -> name.toLowerCase().startsWith(input))
                             .collect(Collectors.toList());
                     completions.addAll(guildNames);
+                    if (subCommand.equals("war") && "status".startsWith(input)) {
+                        completions.add("status");
+                    }
                     break;
                 case "invite":
                 case "kick":
@@ -1389,6 +1720,24 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
                         }
                     }
                     break;
+                case "claim":
+                    // Complete with bulk claim modes
+                    for (String mode : new String[]{"radius", "square", "line"}) {
+                        if (mode.startsWith(input)) {
+                            completions.add(mode);
+                        }
+                    }
+                    break;
+                case "unclaim":
+                    if ("all".startsWith(input)) {
+                        completions.add("all");
+                    }
+                    break;
+                case "bank":
+                    if ("transfer".startsWith(input)) {
+                        completions.add("transfer");
+                    }
+                    break;
                 case "create":
                     // Suggest a guild name if they haven't typed anything yet
                     if (input.isEmpty()) {
@@ -1405,7 +1754,14 @@ public class GuildCommand implements CommandExecutor, TabCompleter {
                 if (input.isEmpty()) {
                     completions.add("<tag>");
                 }
-            } else if (subCommand.equals("war")) {
+            } else if (subCommand.equals("bank") && args[1].equalsIgnoreCase("transfer")) {
+                // Complete with guild names
+                for (Guild guild : guildService.getAllGuilds()) {
+                    if (guild.getName().toLowerCase().startsWith(input)) {
+                        completions.add(guild.getName());
+                    }
+                }
+            } else if (subCommand.equals("war") && !args[1].equalsIgnoreCase("status")) {
                 // Suggest durations for war
                 String[] durations = {"30", "60", "90", "120"};
                 for (String duration : durations) {
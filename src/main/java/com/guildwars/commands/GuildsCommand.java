@@ -3,26 +3,32 @@ package com.guildwars.commands;
 import com.guildwars.GuildWars;
 import com.guildwars.database.GuildService;
 import com.guildwars.model.Guild;
-import org.bukkit.Bukkit;
+import com.guildwars.utils.GuildListManager;
+import com.guildwars.utils.LeaderboardManager;
+import com.guildwars.utils.LeaderboardManager.Metric;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import org.bukkit.util.StringUtil;
 
 // Using non-deprecated Bungee ChatColor instead of Adventure API
 import net.md_5.bungee.api.ChatColor;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Command handler for the /guilds command.
  */
-public class GuildsCommand implements CommandExecutor {
+public class GuildsCommand implements CommandExecutor, TabCompleter {
 
-    private final GuildWars plugin;
     private final GuildService guildService;
+    private final LeaderboardManager leaderboardManager;
+    private final GuildListManager guildListManager;
 
     /**
      * Creates a new guilds command handler.
@@ -30,48 +36,177 @@ public class GuildsCommand implements CommandExecutor {
      * @param plugin The GuildWars plugin instance
      */
     public GuildsCommand(GuildWars plugin) {
-        this.plugin = plugin;
         this.guildService = plugin.getGuildService();
+        this.leaderboardManager = plugin.getLeaderboardManager();
+        this.guildListManager = plugin.getGuildListManager();
     }
 
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
-        // Retrieve guilds from database
-        Collection<Guild> guildCollection = guildService.getAllGuilds();
-        List<Guild> guilds = new ArrayList<>(guildCollection);
-        
-        sender.sendMessage(ChatColor.GOLD + "=== Guilds on the Server ===");
+        if (args.length > 0 && args[0].equalsIgnoreCase("top")) {
+            handleTop(sender, args);
+            return true;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("rank")) {
+            handleRank(sender, args);
+            return true;
+        }
         
-        if (guilds.isEmpty()) {
-            sender.sendMessage(ChatColor.YELLOW + "No guilds have been created yet.");
-            sender.sendMessage(ChatColor.GREEN + "Use /guild create <name> to create the first guild!");
-        } else {
-            // Sort guilds by member count (largest first)
-            guilds.sort(Comparator.comparing(Guild::getMemberCount).reversed());
-            
-            sender.sendMessage(ChatColor.YELLOW + "Found " + guilds.size() + " guilds:");
-            
-            for (Guild guild : guilds) {
-                String leaderName = Bukkit.getOfflinePlayer(guild.getLeader()).getName();
-                
-                // Format: GuildName [TAG] - Members: X/Y - Leader: PlayerName
-                String guildInfo = ChatColor.GREEN + guild.getName() + 
-                        ChatColor.AQUA + " [" + guild.getTag() + "]" +
-                        ChatColor.GRAY + " - " +
-                        ChatColor.YELLOW + "Members: " + guild.getMemberCount() + "/" + 
-                                plugin.getConfig().getInt("guilds.max-members", 20) +
-                        ChatColor.GRAY + " - " +
-                        ChatColor.GOLD + "Leader: " + leaderName;
-                
-                sender.sendMessage(guildInfo);
+        // Parse the page and filters, which may be given in any order
+        int page = 1;
+        String namePrefix = "";
+        int minMembers = 1;
+        for (String arg : args) {
+            String lowerArg = arg.toLowerCase();
+            try {
+                if (lowerArg.startsWith("name:")) {
+                    namePrefix = arg.substring(5);
+                } else if (lowerArg.startsWith("min:")) {
+                    minMembers = Integer.parseInt(arg.substring(4));
+                } else {
+                    page = Integer.parseInt(arg);
+                }
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "Usage: /guilds [page] [name:<prefix>] [min:<members>]");
+                return true;
             }
-            
-            sender.sendMessage(ChatColor.YELLOW + "Use /guild info <guild> to see detailed information about a guild.");
         }
         
-        // Log that the command was executed
-        plugin.getLogger().info("Player " + sender.getName() + " requested the guilds list.");
+        // Pages are rendered once and cached until a guild changes
+        for (String line : guildListManager.getPage(namePrefix, minMembers, page)) {
+            sender.sendMessage(line);
+        }
         
         return true;
     }
+
+    /**
+     * Handles /guilds top, which shows a page of a leaderboard.
+     *
+     * @param sender The command sender
+     * @param args The command arguments
+     */
+    private void handleTop(CommandSender sender, String[] args) {
+        Metric metric = args.length > 1 ? Metric.fromKey(args[1]) : null;
+        if (metric == null) {
+            sender.sendMessage(ChatColor.RED + "Usage: /guilds top <" + getMetricKeys() + "> [page]");
+            return;
+        }
+
+        int page = 1;
+        if (args.length > 2) {
+            try {
+                page = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "Invalid page number: " + args[2]);
+                return;
+            }
+        }
+
+        int totalGuilds = leaderboardManager.getSize();
+        if (totalGuilds == 0) {
+            sender.sendMessage(ChatColor.YELLOW + "No guilds have been created yet.");
+            return;
+        }
+
+        // Leaderboard pages use the same configured size as the guild listing
+        int pageSize = guildListManager.getPageSize();
+        int totalPages = (totalGuilds + pageSize - 1) / pageSize;
+        page = Math.max(1, Math.min(page, totalPages));
+        int firstIndex = (page - 1) * pageSize;
+
+        sender.sendMessage(ChatColor.GOLD + "=== Top Guilds by " + metric.getDisplayName() + " (Page " + page + "/" + totalPages + ") ===");
+        List<Guild> guilds = leaderboardManager.getRange(metric, firstIndex, pageSize);
+        for (int i = 0; i < guilds.size(); i++) {
+            Guild guild = guilds.get(i);
+            sender.sendMessage(ChatColor.YELLOW + "#" + (firstIndex + i + 1) + " " +
+                    ChatColor.GREEN + guild.getName() +
+                    ChatColor.AQUA + " [" + guild.getTag() + "]" +
+                    ChatColor.GRAY + " - " +
+                    ChatColor.GOLD + metric.format(guild));
+        }
+
+        // Show where the sender's guild stands if it is not on this page
+        if (sender instanceof Player) {
+            Guild ownGuild = guildService.getGuildByPlayer(((Player) sender).getUniqueId());
+            if (ownGuild != null && !guilds.contains(ownGuild)) {
+                sender.sendMessage(ChatColor.GRAY + "Your guild is ranked #" + leaderboardManager.getRank(metric, ownGuild) +
+                        " of " + totalGuilds + " (" + metric.format(ownGuild) + ")");
+            }
+        }
+
+        if (page < totalPages) {
+            sender.sendMessage(ChatColor.YELLOW + "Use /guilds top " + metric.getKey() + " " + (page + 1) + " for the next page.");
+        }
+    }
+
+    /**
+     * Handles /guilds rank, which shows where the sender's guild stands on the leaderboards.
+     *
+     * @param sender The command sender
+     * @param args The command arguments
+     */
+    private void handleRank(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(ChatColor.RED + "Only players can use this command.");
+            return;
+        }
+
+        Guild guild = guildService.getGuildByPlayer(((Player) sender).getUniqueId());
+        if (guild == null) {
+            sender.sendMessage(ChatColor.RED + "You are not in a guild.");
+            return;
+        }
+
+        List<Metric> metrics;
+        if (args.length > 1) {
+            Metric metric = Metric.fromKey(args[1]);
+            if (metric == null) {
+                sender.sendMessage(ChatColor.RED + "Usage: /guilds rank [" + getMetricKeys() + "]");
+                return;
+            }
+            metrics = Collections.singletonList(metric);
+        } else {
+            metrics = Arrays.asList(Metric.values());
+        }
+
+        int totalGuilds = leaderboardManager.getSize();
+        sender.sendMessage(ChatColor.GOLD + "=== " + guild.getName() + " Rankings ===");
+        for (Metric metric : metrics) {
+            sender.sendMessage(ChatColor.YELLOW + metric.getDisplayName() + ": " +
+                    ChatColor.GREEN + "#" + leaderboardManager.getRank(metric, guild) +
+                    ChatColor.GRAY + " of " + totalGuilds + " (" + metric.format(guild) + ")");
+        }
+    }
+
+    /**
+     * Gets the command keys of all metrics, separated by |.
+     *
+     * @return The metric keys
+     */
+    private String getMetricKeys() {
+        StringBuilder keys = new StringBuilder();
+        for (Metric metric : Metric.values()) {
+            if (keys.length() > 0) {
+                keys.append('|');
+            }
+            keys.append(metric.getKey());
+        }
+        return keys.toString();
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1) {
+            StringUtil.copyPartialMatches(args[0], Arrays.asList("top", "rank", "name:", "min:"), completions);
+        } else if (args.length == 2 && (args[0].equalsIgnoreCase("top") || args[0].equalsIgnoreCase("rank"))) {
+            List<String> keys = new ArrayList<>();
+            for (Metric metric : Metric.values()) {
+                keys.add(metric.getKey());
+            }
+            StringUtil.copyPartialMatches(args[1], keys, completions);
+        }
+        return completions;
+    }
 }
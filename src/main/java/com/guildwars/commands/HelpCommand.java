@@ -60,6 +60,15 @@ public class HelpCommand implements CommandExecutor {
             case "unclaim":
                 sendUnclaimHelp(sender);
                 break;
+            case "map":
+                sendMapHelp(sender);
+                break;
+            case "borders":
+                sendBordersHelp(sender);
+                break;
+            case "bank":
+                sendBankHelp(sender);
+                break;
             case "home":
                 sendHomeHelp(sender);
                 break;
@@ -84,6 +93,10 @@ public class HelpCommand implements CommandExecutor {
             case "support":
                 sendSupportHelp(sender);
                 break;
+            case "top":
+            case "rank":
+                sendLeaderboardHelp(sender);
+                break;
             default:
                 sendUnknownHelp(sender, topic);
                 break;
@@ -109,15 +122,20 @@ public class HelpCommand implements CommandExecutor {
         sender.sendMessage("§b/guild kick <player> - Kick a player from your guild");
         sender.sendMessage("§b/guild promote <player> - Promote a player in your guild");
         sender.sendMessage("§b/guild demote <player> - Demote a player in your guild");
-        sender.sendMessage("§b/guild claim - Claim the chunk you're standing in");
-        sender.sendMessage("§b/guild unclaim - Unclaim the chunk you're standing in");
+        sender.sendMessage("§b/guild claim [radius|square|line] - Claim the chunk you're standing in or an area around it");
+        sender.sendMessage("§b/guild unclaim [all] - Unclaim the chunk you're standing in or all your land");
+        sender.sendMessage("§b/guild map - Show a map of nearby claims");
+        sender.sendMessage("§b/guild borders - Toggle particles along nearby territory borders");
+        sender.sendMessage("§b/guild bank [transfer <guild> <amount>] - Show your guild's bank balance or pay another guild");
         sender.sendMessage("§b/guild home - Teleport to your guild's home");
         sender.sendMessage("§b/guild sethome - Set your guild's home");
         sender.sendMessage("§b/guild ally <guild> - Ally with another guild");
         sender.sendMessage("§b/guild enemy <guild> - Declare another guild as an enemy");
         sender.sendMessage("§b/guild war <guild> - Declare war on another guild");
         sender.sendMessage("§b/guild disband - Permanently delete your guild");
-        sender.sendMessage("§b/guilds - List all guilds on the server");
+        sender.sendMessage("§b/guilds [page] [name:<prefix>] [min:<members>] - List the guilds on the server");
+        sender.sendMessage("§b/guilds top <metric> [page] - Show the top guilds by members, claims, kills, balance or age");
+        sender.sendMessage("§b/guilds rank [metric] - Show where your guild ranks");
         sender.sendMessage("§b/guildhelp [topic] - Show help for a specific topic");
         sender.sendMessage("§b/support - Get support for the GuildWars plugin");
         MessageUtil.sendInfo(sender, "For more detailed help, type /guildhelp <command>");
@@ -243,10 +261,15 @@ public class HelpCommand implements CommandExecutor {
         MessageUtil.sendTitle(sender, "=== Guild Claim Help ===");
         MessageUtil.sendInfo(sender, "Claim the chunk you're standing in for your guild.");
         sender.sendMessage("§2Usage: /guild claim");
+        sender.sendMessage("§2Usage: /guild claim radius <r> - Claim all chunks within r chunks of you");
+        sender.sendMessage("§2Usage: /guild claim square <n> - Claim an n x n square around you");
+        sender.sendMessage("§2Usage: /guild claim line [length] - Claim a line of chunks in the direction you face");
         sender.sendMessage("§cRequirements:");
         sender.sendMessage("§d- You must be an officer or leader of the guild");
-        sender.sendMessage("§d- The chunk must not already be claimed by another guild");
-        sender.sendMessage("§d- Your guild must have fewer than " + plugin.getConfig().getInt("territory.max-claims", 10) + " claims");
+        sender.sendMessage("§d- The chunks must not already be claimed by another guild");
+        sender.sendMessage("§d- New claims must connect to your existing territory");
+        sender.sendMessage("§d- Your guild must have fewer than " + plugin.getConfig().getInt("territory.max-claims", 50) + " claims");
+        sender.sendMessage("§d- Areas are claimed all at once; if any chunk fails the checks, nothing is claimed");
         sender.sendMessage("§d- Claiming costs " + plugin.getConfig().getDouble("territory.claim-cost", 100) + " per chunk (if economy is enabled)");
     }
 
@@ -259,9 +282,75 @@ public class HelpCommand implements CommandExecutor {
         MessageUtil.sendTitle(sender, "=== Guild Unclaim Help ===");
         MessageUtil.sendInfo(sender, "Unclaim the chunk you're standing in.");
         sender.sendMessage("§2Usage: /guild unclaim");
+        sender.sendMessage("§2Usage: /guild unclaim all - Unclaim all of your guild's land");
         sender.sendMessage("§cRequirements:");
         sender.sendMessage("§d- You must be an officer or leader of the guild");
         sender.sendMessage("§d- The chunk must be claimed by your guild");
+        sender.sendMessage("§d- Only the leader can unclaim all land, which also removes the guild home");
+    }
+
+    /**
+     * Sends help for the map command.
+     *
+     * @param sender The command sender
+     */
+    private void sendMapHelp(CommandSender sender) {
+        MessageUtil.sendTitle(sender, "=== Guild Map Help ===");
+        MessageUtil.sendInfo(sender, "Show a map of the claims around you.");
+        sender.sendMessage("§2Usage: /guild map");
+        sender.sendMessage("§cNotes:");
+        sender.sendMessage("§d- North is at the top and you are marked with @");
+        sender.sendMessage("§d- Claims are colored by your guild's relation to their owner");
+    }
+
+    /**
+     * Sends help for the guild leaderboards.
+     *
+     * @param sender The command sender
+     */
+    private void sendLeaderboardHelp(CommandSender sender) {
+        MessageUtil.sendTitle(sender, "=== Guild Leaderboards Help ===");
+        MessageUtil.sendInfo(sender, "See which guilds lead the server and where yours stands.");
+        sender.sendMessage("§2Usage: /guilds top <members|claims|kills|balance|age> [page]");
+        sender.sendMessage("§2Usage: /guilds rank [metric]");
+        sender.sendMessage("§cNotes:");
+        sender.sendMessage("§d- Kills are counted across all wars your guild has fought");
+        sender.sendMessage("§d- The age leaderboard lists the oldest guilds first");
+    }
+
+    /**
+     * Sends help for the borders command.
+     *
+     * @param sender The command sender
+     */
+    private void sendBordersHelp(CommandSender sender) {
+        MessageUtil.sendTitle(sender, "=== Guild Borders Help ===");
+        MessageUtil.sendInfo(sender, "Toggle particles along the borders of nearby territory.");
+        sender.sendMessage("§2Usage: /guild borders");
+        sender.sendMessage("§cNotes:");
+        sender.sendMessage("§d- Borders are colored by your guild's relation to the owner");
+        sender.sendMessage("§d- Only borders within " + plugin.getConfig().getInt("territory.borders.radius", 5) + " chunks of you are shown");
+    }
+
+    /**
+     * Sends help for the bank command.
+     *
+     * @param sender The command sender
+     */
+    private void sendBankHelp(CommandSender sender) {
+        MessageUtil.sendTitle(sender, "=== Guild Bank Help ===");
+        MessageUtil.sendInfo(sender, "Show your guild's bank balance or transfer money to another guild.");
+        sender.sendMessage("§2Usage: /guild bank [transfer <guild> <amount>]");
+        sender.sendMessage("§cRequirements:");
+        sender.sendMessage("§d- You must be a member of a guild");
+        sender.sendMessage("§d- You must be an officer or leader to transfer money");
+        sender.sendMessage("§cNotes:");
+        double upkeep = plugin.getConfig().getDouble("territory.upkeep.per-claim", 0);
+        if (upkeep > 0) {
+            sender.sendMessage("§d- Every " + plugin.getConfig().getInt("territory.upkeep.interval-minutes", 1440)
+                    + " minutes the bank pays an upkeep of " + String.format("%.2f", upkeep) + " per claimed chunk");
+        }
+        sender.sendMessage("§d- Administrators can deposit and withdraw money with /guildadmin bank");
     }
 
     /**
@@ -278,6 +367,8 @@ public class HelpCommand implements CommandExecutor {
         sender.sendMessage("§d- Your guild must have set a home");
         sender.sendMessage("§d- There is a " + plugin.getConfig().getInt("guilds.home.teleport-delay", 3) + " second delay before teleporting");
         sender.sendMessage("§d- There is a " + plugin.getConfig().getInt("guilds.home.teleport-cooldown", 60) + " second cooldown between teleports");
+        sender.sendMessage("§cNotes:");
+        sender.sendMessage("§d- Moving or taking damage before the teleport cancels it");
     }
 
     /**
@@ -334,11 +425,13 @@ public class HelpCommand implements CommandExecutor {
         MessageUtil.sendTitle(sender, "=== Guild War Help ===");
         MessageUtil.sendInfo(sender, "Declare war on another guild.");
         sender.sendMessage("§2Usage: /guild war <guild> [duration]");
-        sender.sendMessage("§bExample: /guild war Raiders 24");
+        sender.sendMessage("§2Usage: /guild war status - Show the score of your guild's wars");
+        sender.sendMessage("§bExample: /guild war Raiders 60");
         sender.sendMessage("§cRequirements:");
         sender.sendMessage("§d- You must be the leader of your guild");
         sender.sendMessage("§d- You cannot declare war on an ally");
-        sender.sendMessage("§d- Duration is in hours (default: 24)");
+        sender.sendMessage("§d- Duration is in minutes (" + plugin.getConfig().getInt("war.min-duration", 30) + "-" +
+                plugin.getConfig().getInt("war.max-duration", 120) + ")");
         sender.sendMessage("§d- War declaration costs " + 
                 plugin.getConfig().getDouble("guilds.war.cost", 500) + " (if economy is enabled)");
     }
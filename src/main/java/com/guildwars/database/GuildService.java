@@ -4,6 +4,7 @@ import com.guildwars.GuildWars;
 import com.guildwars.model.ChunkPosition;
 import com.guildwars.model.Guild;
 import com.guildwars.model.Relation;
+import com.guildwars.storage.GuildChangeListener;
 import com.guildwars.storage.YamlStorageService;
 import org.bukkit.Location;
 
@@ -178,6 +179,28 @@ public class GuildService {
         return storageService.unclaimChunk(guild, position);
     }
     
+    /**
+     * Claims several chunks for a guild in one operation.
+     * Either all chunks are claimed or none are, and the data is saved once.
+     *
+     * @param guild     The guild
+     * @param positions The chunk positions
+     * @return True if the chunks were claimed, false otherwise
+     */
+    public boolean claimChunks(Guild guild, Collection<ChunkPosition> positions) {
+        return storageService.claimChunks(guild, positions);
+    }
+    
+    /**
+     * Unclaims all chunks of a guild and clears its home.
+     *
+     * @param guild The guild
+     * @return The number of chunks that were unclaimed
+     */
+    public int unclaimAllChunks(Guild guild) {
+        return storageService.unclaimAllChunks(guild);
+    }
+    
     /**
      * Check if a chunk is claimed by any guild.
      *
@@ -198,6 +221,70 @@ public class GuildService {
         return storageService.getChunkOwner(position);
     }
     
+    /**
+     * Get the guild that owns a chunk from raw chunk coordinates without allocating.
+     *
+     * @param world  The world name
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The guild, or null if the chunk is not claimed
+     */
+    public Guild getChunkOwner(String world, int chunkX, int chunkZ) {
+        return storageService.getChunkOwner(world, chunkX, chunkZ);
+    }
+    
+    /**
+     * Get the border sides of a claimed chunk.
+     *
+     * @param world The world name
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return A mask of ClaimIndex.NORTH, EAST, SOUTH and WEST for sides facing land the owner does not hold
+     */
+    public int getBorderMask(String world, int chunkX, int chunkZ) {
+        return storageService.getBorderMask(world, chunkX, chunkZ);
+    }
+    
+    /**
+     * Get the version of a 16x16-chunk region, which changes whenever a chunk inside it is claimed or unclaimed.
+     *
+     * @param world The world name
+     * @param regionX The region x coordinate
+     * @param regionZ The region z coordinate
+     * @return The region version
+     */
+    public int getRegionVersion(String world, int regionX, int regionZ) {
+        return storageService.getRegionVersion(world, regionX, regionZ);
+    }
+    
+    /**
+     * Get the current territory version.
+     * The version changes whenever claims, guild memberships or relations change.
+     *
+     * @return The territory version
+     */
+    public int getTerritoryVersion() {
+        return storageService.getTerritoryVersion();
+    }
+    
+    /**
+     * Registers a listener that is notified when guilds are created, changed or deleted.
+     *
+     * @param listener The listener
+     */
+    public void addGuildChangeListener(GuildChangeListener listener) {
+        storageService.addChangeListener(listener);
+    }
+    
+    /**
+     * Notifies the change listeners about a guild whose stats were changed outside of storage.
+     *
+     * @param guild The guild that changed
+     */
+    public void notifyGuildChanged(Guild guild) {
+        storageService.notifyGuildChanged(guild);
+    }
+    
     /**
      * Get the guild ID that owns a chunk.
      *
@@ -219,6 +306,17 @@ public class GuildService {
         return storageService.isChunkAdjacentToClaim(guild, position);
     }
     
+    /**
+     * Check if unclaiming a chunk would split a guild's territory into disconnected parts.
+     *
+     * @param guild    The guild
+     * @param position The chunk position
+     * @return True if unclaiming the chunk would split the territory, false otherwise
+     */
+    public boolean wouldSplitTerritory(Guild guild, ChunkPosition position) {
+        return storageService.wouldSplitTerritory(guild, position);
+    }
+    
     /**
      * Get all claims for a guild.
      *
@@ -1,6 +1,7 @@
 package com.guildwars.enchantments;
 
 import com.guildwars.GuildWars;
+import com.guildwars.utils.BudgetedTaskExecutor;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -46,6 +47,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 
 /**
  * Manager for custom enchantments.
@@ -1442,12 +1444,14 @@ public void onEnchantItem(EnchantItemEvent event) {
             );
             shooter.getWorld().playSound(wellLocation, Sound.BLOCK_PORTAL_AMBIENT, 1.0f, 2.0f);
             
-            // Schedule the gravity well effect
-            new BukkitRunnable() {
+            // Schedule the gravity well pull, which always runs, and its visual effects,
+            // which are deferred when the tick budget is used up
+            BudgetedTaskExecutor taskExecutor = plugin.getTaskExecutor();
+            taskExecutor.schedule("gravity-wells", BudgetedTaskExecutor.Priority.NORMAL, 0L, 1L, new BooleanSupplier() {
                 private int ticks = 0;
                 
                 @Override
-                public void run() {
+                public boolean getAsBoolean() {
                     ticks++;
                     
                     // Pull entities toward the gravity well
@@ -1467,17 +1471,6 @@ public void onEnchantItem(EnchantItemEvent event) {
                         }
                     }
                     
-                    // Visual effects every 5 ticks
-                    if (ticks % 5 == 0) {
-                        wellLocation.getWorld().spawnParticle(
-                            Particle.REVERSE_PORTAL, wellLocation, 20, radius/4, radius/4, radius/4, 0.01
-                        );
-                        
-                        if (ticks % 20 == 0) { // Sound every second
-                            wellLocation.getWorld().playSound(wellLocation, Sound.BLOCK_PORTAL_AMBIENT, 0.5f, 2.0f);
-                        }
-                    }
-                    
                     // End the effect after the duration
                     if (ticks >= duration) {
                         // Final explosion effect
@@ -1485,11 +1478,30 @@ public void onEnchantItem(EnchantItemEvent event) {
                             Particle.EXPLOSION_NORMAL, wellLocation, 10, 1.0, 1.0, 1.0, 0.1
                         );
                         wellLocation.getWorld().playSound(wellLocation, Sound.ENTITY_GENERIC_EXPLODE, 0.5f, 2.0f);
-                        
-                        this.cancel();
+                        return false;
+                    }
+                    return true;
+                }
+            });
+            
+            // Visual effects every 5 ticks, with a sound every second
+            taskExecutor.schedule("gravity-wells", BudgetedTaskExecutor.Priority.COSMETIC, 5L, 5L, new BooleanSupplier() {
+                private int ticks = 0;
+                
+                @Override
+                public boolean getAsBoolean() {
+                    ticks += 5;
+                    
+                    wellLocation.getWorld().spawnParticle(
+                        Particle.REVERSE_PORTAL, wellLocation, 20, radius/4, radius/4, radius/4, 0.01
+                    );
+                    
+                    if (ticks % 20 == 0) {
+                        wellLocation.getWorld().playSound(wellLocation, Sound.BLOCK_PORTAL_AMBIENT, 0.5f, 2.0f);
                     }
+                    return ticks < duration;
                 }
-            }.runTaskTimer(plugin, 0L, 1L);
+            });
             
             // Set cooldown
             setCooldown(shooter, CustomEnchantmentType.GRAVITY_WELL);
@@ -5,21 +5,44 @@ import com.guildwars.database.GuildService;
 import com.guildwars.model.Guild;
 import com.guildwars.util.MessageUtil;
 import com.guildwars.util.PlaceholderManager;
+import com.guildwars.util.PlaceholderManager.ChatProfile;
+import com.guildwars.utils.OnlineMemberIndex;
+import io.papermc.paper.chat.ChatRenderer;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Listener for player events to add guild tags and display information.
+ * Guild chat typed in the normal chat, either with guild chat toggled on or with the guild
+ * chat prefix, is handled on Paper's async chat event. Recipients and the sender's chat profile
+ * come from the concurrent online member index, so formatting and delivery never run on the
+ * main thread and never read the mutable guild.
  */
 public class ChatListener implements Listener {
 
     private final GuildWars plugin;
     private final PlaceholderManager placeholderManager;
     private final GuildService guildService;
+    private final OnlineMemberIndex onlineMemberIndex;
+    
+    // Players whose chat messages go to guild chat
+    private final Set<UUID> guildChatToggled = ConcurrentHashMap.newKeySet();
+    
+    // Messages starting with this go to guild chat; empty if the prefix is disabled
+    private volatile String chatPrefix;
 
     /**
      * Creates a new ChatListener.
@@ -30,6 +53,9 @@ public class ChatListener implements Listener {
         this.plugin = plugin;
         this.placeholderManager = plugin.getPlaceholderManager();
         this.guildService = plugin.getGuildService();
+        this.onlineMemberIndex = plugin.getOnlineMemberIndex();
+        
+        loadConfig();
         
         // Register the chat handler command
         plugin.getCommand("gchat").setExecutor((sender, cmd, label, args) -> {
@@ -38,12 +64,12 @@ public class ChatListener implements Listener {
                 return true;
             }
             
+            Player player = (Player) sender;
             if (args.length == 0) {
-                sender.sendMessage(ChatColor.RED + "Usage: /gchat <message>");
+                toggleGuildChat(player);
                 return true;
             }
             
-            Player player = (Player) sender;
             StringBuilder message = new StringBuilder();
             for (String arg : args) {
                 message.append(arg).append(" ");
@@ -57,6 +83,33 @@ public class ChatListener implements Listener {
         plugin.getLogger().info("Guild chat system initialized.");
     }
 
+    /**
+     * Loads guild chat settings from the configuration.
+     */
+    public void loadConfig() {
+        chatPrefix = plugin.getConfig().getString("guilds.chat.prefix", "#");
+    }
+
+    /**
+     * Toggles whether a player's chat messages go to guild chat.
+     *
+     * @param player The player
+     */
+    private void toggleGuildChat(Player player) {
+        if (guildChatToggled.remove(player.getUniqueId())) {
+            player.sendMessage(ChatColor.YELLOW + "Your chat messages now go to public chat.");
+            return;
+        }
+        
+        if (guildService.getGuildByPlayer(player.getUniqueId()) == null) {
+            player.sendMessage(ChatColor.RED + "You are not in a guild!");
+            return;
+        }
+        
+        guildChatToggled.add(player.getUniqueId());
+        player.sendMessage(ChatColor.GREEN + "Your chat messages now go to guild chat. Use /gchat again to switch back.");
+    }
+
     /**
      * Displays guild information when a player joins the server.
      * 
@@ -83,7 +136,67 @@ public class ChatListener implements Listener {
     }
     
     /**
-     * Broadcasts a formatted guild chat message to all online players.
+     * Turns chat messages of players in guild chat mode, or starting with the guild chat prefix,
+     * into guild chat. Runs off the main thread, so it only uses the online member index and the
+     * sender's chat profile.
+     * 
+     * @param event The async chat event
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onAsyncChat(AsyncChatEvent event) {
+        Player player = event.getPlayer();
+        String message = PlainTextComponentSerializer.plainText().serialize(event.message());
+        
+        String prefix = chatPrefix;
+        boolean prefixed = !prefix.isEmpty() && message.startsWith(prefix);
+        if (!prefixed && !guildChatToggled.contains(player.getUniqueId())) {
+            return;
+        }
+        
+        Guild guild = onlineMemberIndex.getGuild(player.getUniqueId());
+        ChatProfile profile = onlineMemberIndex.getChatProfile(player.getUniqueId());
+        if (guild == null || profile == null) {
+            if (prefixed) {
+                return; // Not in a guild, so the message stays in public chat
+            }
+            guildChatToggled.remove(player.getUniqueId());
+            player.sendMessage(ChatColor.RED + "You are no longer in a guild, so guild chat was turned off.");
+            event.setCancelled(true);
+            return;
+        }
+        
+        if (prefixed) {
+            message = message.substring(prefix.length()).trim();
+            if (message.isEmpty()) {
+                event.setCancelled(true);
+                return;
+            }
+        }
+        
+        String formattedMessage = placeholderManager.formatChatMessage(player, profile, message);
+        Component rendered = MessageUtil.toComponent(ChatColor.translateAlternateColorCodes('&', formattedMessage));
+        
+        // Deliver to guild members and admins only, with the same component for every viewer
+        Set<Audience> viewers = event.viewers();
+        viewers.clear();
+        viewers.add(plugin.getServer().getConsoleSender());
+        viewers.addAll(onlineMemberIndex.getOnlineMembers(guild));
+        viewers.addAll(onlineMemberIndex.getOnlineAdmins());
+        event.renderer(ChatRenderer.viewerUnaware((source, sourceDisplayName, chatMessage) -> rendered));
+    }
+    
+    /**
+     * Turns guild chat mode off for players who leave.
+     * 
+     * @param event The player quit event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        guildChatToggled.remove(event.getPlayer().getUniqueId());
+    }
+    
+    /**
+     * Broadcasts a formatted guild chat message to the online members of the sender's guild and to admins.
      * 
      * @param player The player sending the message
      * @param message The message content
@@ -96,22 +209,19 @@ public class ChatListener implements Listener {
         }
         
         // Format the message with guild information
-        String formattedMessage = placeholderManager.formatChatMessage(player, message);
+        String formattedMessage = placeholderManager.formatChatMessage(player, guild, message);
         if (formattedMessage == null) {
             return;
         }
         
-        // Convert color codes
-        formattedMessage = ChatColor.translateAlternateColorCodes('&', formattedMessage);
+        // Convert color codes once for all recipients
+        Component rendered = MessageUtil.toComponent(ChatColor.translateAlternateColorCodes('&', formattedMessage));
         
-        // Broadcast to all online players
-        for (Player onlinePlayer : plugin.getServer().getOnlinePlayers()) {
-            Guild playerGuild = guildService.getGuildByPlayer(onlinePlayer.getUniqueId());
-            
-            // Send to guild members or players with admin permission
-            if (playerGuild != null && playerGuild.equals(guild) || 
-                onlinePlayer.hasPermission("guildwars.admin")) {
-                onlinePlayer.sendMessage(formattedMessage);
+        // Send to guild members, then to admins who are not in the guild
+        onlineMemberIndex.getAudience(guild).sendMessage(rendered);
+        for (Player admin : onlineMemberIndex.getOnlineAdmins()) {
+            if (!guild.isMember(admin.getUniqueId())) {
+                admin.sendMessage(rendered);
             }
         }
     }
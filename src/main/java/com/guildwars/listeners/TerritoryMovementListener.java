@@ -0,0 +1,161 @@
+package com.guildwars.listeners;
+
+import com.guildwars.GuildWars;
+import com.guildwars.model.Guild;
+import com.guildwars.model.TerritorySession.ChunkLookup;
+import com.guildwars.utils.TerritorySessionManager;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+/**
+ * Tracks which territory each player is standing in and announces when they enter or leave one.
+ * Move events that stay inside the same chunk return after an integer compare; only chunk
+ * crossings look up the new owner, which is then cached on the player's territory session
+ * for protection checks.
+ */
+public class TerritoryMovementListener implements Listener {
+
+    private final GuildWars plugin;
+    private final TerritorySessionManager sessionManager;
+
+    // Configuration settings
+    private boolean notificationsEnabled;
+    private boolean useTitles;
+
+    /**
+     * Creates a new territory movement listener.
+     *
+     * @param plugin The plugin instance
+     * @param sessionManager The territory session manager
+     */
+    public TerritoryMovementListener(GuildWars plugin, TerritorySessionManager sessionManager) {
+        this.plugin = plugin;
+        this.sessionManager = sessionManager;
+        loadConfig();
+
+        // Players already online after a reload start out in their current chunk
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            Location location = player.getLocation();
+            sessionManager.updateCurrent(player, location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        }
+
+        // Register events
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Loads notification settings from the configuration.
+     */
+    public void loadConfig() {
+        FileConfiguration config = plugin.getConfig();
+        notificationsEnabled = config.getBoolean("territory.notifications.enabled", true);
+        useTitles = !"actionbar".equalsIgnoreCase(config.getString("territory.notifications.display", "title"));
+    }
+
+    /**
+     * Records the chunk a player joins in without announcing it.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        Location location = player.getLocation();
+        sessionManager.updateCurrent(player, location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Handles players walking across chunk borders.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        handleMove(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+
+    /**
+     * Handles players teleporting into another chunk.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        handleMove(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+
+    /**
+     * Handles players respawning, possibly in another world.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        Location to = event.getRespawnLocation();
+        enterChunk(event.getPlayer(), to.getWorld(), to.getBlockX() >> 4, to.getBlockZ() >> 4);
+    }
+
+    /**
+     * Checks whether a movement crosses a chunk border and updates the player's territory if so.
+     *
+     * @param player The moving player
+     * @param from The location moved from
+     * @param to The location moved to
+     */
+    private void handleMove(Player player, Location from, Location to) {
+        if (to == null) {
+            return;
+        }
+
+        int toChunkX = to.getBlockX() >> 4;
+        int toChunkZ = to.getBlockZ() >> 4;
+        if ((from.getBlockX() >> 4) == toChunkX && (from.getBlockZ() >> 4) == toChunkZ
+                && from.getWorld() == to.getWorld()) {
+            return;
+        }
+
+        enterChunk(player, to.getWorld(), toChunkX, toChunkZ);
+    }
+
+    /**
+     * Moves a player's session into a chunk and announces a change of territory.
+     *
+     * @param player The player
+     * @param world The world of the chunk
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     */
+    private void enterChunk(Player player, World world, int chunkX, int chunkZ) {
+        Guild previousOwner = sessionManager.updateCurrent(player, world, chunkX, chunkZ);
+        ChunkLookup current = sessionManager.getSession(player).getCurrent();
+
+        if (notificationsEnabled && current.getOwner() != previousOwner) {
+            notifyTerritory(player, current);
+        }
+    }
+
+    /**
+     * Shows the territory a player has entered as a title or action bar.
+     *
+     * @param player The player
+     * @param current The lookup of the chunk the player is in
+     */
+    private void notifyTerritory(Player player, ChunkLookup current) {
+        Guild owner = current.getOwner();
+        String message;
+        if (owner == null) {
+            message = current.getAccess().getColor() + "Wilderness";
+        } else {
+            message = current.getAccess().getColor() + "Entering " + owner.getName() + " territory";
+        }
+
+        if (useTitles) {
+            player.sendTitle("", message, 5, 30, 10);
+        } else {
+            player.spigot().sendMessage(ChatMessageType.ACTION_BAR, TextComponent.fromLegacyText(message));
+        }
+    }
+}
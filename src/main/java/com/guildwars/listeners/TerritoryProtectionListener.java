@@ -0,0 +1,590 @@
+package com.guildwars.listeners;
+
+import com.guildwars.GuildWars;
+import com.guildwars.database.GuildService;
+import com.guildwars.model.Guild;
+import com.guildwars.model.Relation;
+import com.guildwars.model.TerritoryAccess;
+import com.guildwars.model.TerritorySession;
+import com.guildwars.model.TerritorySession.ChunkLookup;
+import com.guildwars.storage.ClaimIndex;
+import com.guildwars.utils.TerritorySessionManager;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Directional;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.entity.TNTPrimed;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockDispenseEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Enforces the territory protection settings from config.yml.
+ * Every check is a single claim lookup through the player's territory session, so the common
+ * cases of building in the wilderness or in your own territory return without allocating.
+ */
+public class TerritoryProtectionListener implements Listener {
+
+    private static final long DENY_MESSAGE_INTERVAL = 1000L;
+
+    private final GuildWars plugin;
+    private final TerritorySessionManager sessionManager;
+    private final GuildService guildService;
+
+    // Reused for victim locations; events are only handled on the main thread
+    private final Location scratchLocation = new Location(null, 0, 0, 0);
+
+    // Per-explosion decisions by packed chunk key, reused between explosions
+    private long[] explosionChunks = new long[16];
+    private boolean[] explosionDecisions = new boolean[16];
+    private int explosionChunkCount;
+
+    // Configuration settings
+    private boolean territoryEnabled;
+    private boolean preventBlockBreak;
+    private boolean preventBlockPlace;
+    private boolean preventBlockInteract;
+    private boolean preventPvp;
+    private boolean preventItemUse;
+    private boolean preventExplosions;
+    private boolean preventCrossBorder;
+    private boolean warDisablesProtection;
+
+    /**
+     * Creates a new territory protection listener.
+     *
+     * @param plugin The plugin instance
+     * @param sessionManager The territory session manager
+     */
+    public TerritoryProtectionListener(GuildWars plugin, TerritorySessionManager sessionManager) {
+        this.plugin = plugin;
+        this.sessionManager = sessionManager;
+        this.guildService = plugin.getGuildService();
+        loadConfig();
+
+        // Register events
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Loads protection settings from the configuration.
+     */
+    public void loadConfig() {
+        FileConfiguration config = plugin.getConfig();
+        territoryEnabled = config.getBoolean("territory.enabled", true);
+        preventBlockBreak = config.getBoolean("territory.protection.prevent-block-break", true);
+        preventBlockPlace = config.getBoolean("territory.protection.prevent-block-place", true);
+        preventBlockInteract = config.getBoolean("territory.protection.prevent-block-interact", true);
+        preventPvp = config.getBoolean("territory.protection.prevent-pvp", true);
+        preventItemUse = config.getBoolean("territory.protection.prevent-item-use", true);
+        preventExplosions = config.getBoolean("territory.protection.prevent-explosions", true);
+        preventCrossBorder = config.getBoolean("territory.protection.prevent-cross-border", true);
+        warDisablesProtection = config.getBoolean("war.disable-protection", true);
+    }
+
+    /**
+     * Prevents outsiders from breaking blocks in claimed territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        if (!territoryEnabled || !preventBlockBreak) {
+            return;
+        }
+
+        Block block = event.getBlock();
+        Guild owner = getDeniedOwner(event.getPlayer(), block.getWorld(), block.getX() >> 4, block.getZ() >> 4, false);
+        if (owner != null) {
+            event.setCancelled(true);
+            sendDenied(event.getPlayer(), owner, "break blocks");
+        }
+    }
+
+    /**
+     * Prevents outsiders from placing blocks in claimed territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (!territoryEnabled || !preventBlockPlace) {
+            return;
+        }
+
+        Block block = event.getBlockPlaced();
+        Guild owner = getDeniedOwner(event.getPlayer(), block.getWorld(), block.getX() >> 4, block.getZ() >> 4, false);
+        if (owner != null) {
+            event.setCancelled(true);
+            sendDenied(event.getPlayer(), owner, "place blocks");
+        }
+    }
+
+    /**
+     * Prevents outsiders from interacting with blocks or using items on them in claimed territory.
+     * Allies may interact with blocks but not use items.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        if (!territoryEnabled) {
+            return;
+        }
+
+        Action action = event.getAction();
+        if (action != Action.RIGHT_CLICK_BLOCK && action != Action.PHYSICAL) {
+            return;
+        }
+
+        Block block = event.getClickedBlock();
+        if (block == null) {
+            return;
+        }
+
+        boolean usingItem = action == Action.RIGHT_CLICK_BLOCK && event.hasItem();
+        if (usingItem ? !preventItemUse : !preventBlockInteract) {
+            return;
+        }
+
+        Guild owner = getDeniedOwner(event.getPlayer(), block.getWorld(), block.getX() >> 4, block.getZ() >> 4, !usingItem);
+        if (owner != null) {
+            event.setCancelled(true);
+            if (action != Action.PHYSICAL) {
+                sendDenied(event.getPlayer(), owner, usingItem ? "use items" : "interact with blocks");
+            }
+        }
+    }
+
+    /**
+     * Prevents outsiders from emptying buckets in claimed territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        if (!territoryEnabled || !preventItemUse) {
+            return;
+        }
+
+        Block block = event.getBlock();
+        Guild owner = getDeniedOwner(event.getPlayer(), block.getWorld(), block.getX() >> 4, block.getZ() >> 4, false);
+        if (owner != null) {
+            event.setCancelled(true);
+            sendDenied(event.getPlayer(), owner, "use buckets");
+        }
+    }
+
+    /**
+     * Prevents outsiders from filling buckets in claimed territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBucketFill(PlayerBucketFillEvent event) {
+        if (!territoryEnabled || !preventItemUse) {
+            return;
+        }
+
+        Block block = event.getBlock();
+        Guild owner = getDeniedOwner(event.getPlayer(), block.getWorld(), block.getX() >> 4, block.getZ() >> 4, false);
+        if (owner != null) {
+            event.setCancelled(true);
+            sendDenied(event.getPlayer(), owner, "use buckets");
+        }
+    }
+
+    /**
+     * Prevents outsiders from attacking guild members inside their own territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onPlayerDamage(EntityDamageByEntityEvent event) {
+        if (!territoryEnabled || !preventPvp || !(event.getEntity() instanceof Player)) {
+            return;
+        }
+
+        Player attacker = getAttackingPlayer(event.getDamager());
+        if (attacker == null) {
+            return;
+        }
+
+        Player victim = (Player) event.getEntity();
+        Location location = victim.getLocation(scratchLocation);
+        ChunkLookup lookup = sessionManager.resolve(attacker, location.getWorld(),
+                location.getBlockX() >> 4, location.getBlockZ() >> 4);
+
+        // Only members standing in their own guild's territory are protected
+        Guild owner = lookup.getOwner();
+        if (owner == null || !owner.isMember(victim.getUniqueId())) {
+            return;
+        }
+
+        TerritoryAccess access = lookup.getAccess();
+        if (access == TerritoryAccess.OWN || (access == TerritoryAccess.WAR && warDisablesProtection)) {
+            return;
+        }
+
+        if (!attacker.hasPermission("guildwars.admin")) {
+            event.setCancelled(true);
+            sendDenied(attacker, owner, "attack members");
+        }
+    }
+
+    /**
+     * Removes blocks in protected territory from entity explosions such as TNT, creepers and explosive arrows.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        if (!territoryEnabled || !preventExplosions || event.blockList().isEmpty()) {
+            return;
+        }
+
+        filterExplosion(event.blockList(), event.getEntity().getWorld(), getExplosionGuild(event.getEntity()));
+    }
+
+    /**
+     * Removes blocks in protected territory from block explosions such as beds and respawn anchors.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        if (!territoryEnabled || !preventExplosions || event.blockList().isEmpty()) {
+            return;
+        }
+
+        filterExplosion(event.blockList(), event.getBlock().getWorld(), null);
+    }
+
+    /**
+     * Filters an explosion's block list in place, deciding once per distinct chunk.
+     *
+     * @param blocks The blocks the explosion would destroy
+     * @param world The world of the explosion
+     * @param culprit The guild responsible for the explosion, or null if unknown
+     */
+    private void filterExplosion(List<Block> blocks, World world, Guild culprit) {
+        String worldName = world.getName();
+        explosionChunkCount = 0;
+        blocks.removeIf(block -> isExplosionProtected(worldName, block.getX() >> 4, block.getZ() >> 4, culprit));
+    }
+
+    /**
+     * Checks whether an explosion may not destroy blocks in a chunk.
+     * The decision is remembered for the rest of the explosion, so big blasts do one claim lookup per chunk.
+     *
+     * @param worldName The world name
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @param culprit The guild responsible for the explosion, or null if unknown
+     * @return True if the blocks in this chunk must be kept
+     */
+    private boolean isExplosionProtected(String worldName, int chunkX, int chunkZ, Guild culprit) {
+        long key = ClaimIndex.pack(chunkX, chunkZ);
+
+        // Explosions only span a handful of chunks, so a linear scan beats hashing
+        for (int i = 0; i < explosionChunkCount; i++) {
+            if (explosionChunks[i] == key) {
+                return explosionDecisions[i];
+            }
+        }
+
+        boolean protect = isProtectedFrom(guildService.getChunkOwner(worldName, chunkX, chunkZ), culprit);
+        if (explosionChunkCount == explosionChunks.length) {
+            explosionChunks = Arrays.copyOf(explosionChunks, explosionChunkCount * 2);
+            explosionDecisions = Arrays.copyOf(explosionDecisions, explosionChunkCount * 2);
+        }
+        explosionChunks[explosionChunkCount] = key;
+        explosionDecisions[explosionChunkCount] = protect;
+        explosionChunkCount++;
+        return protect;
+    }
+
+    /**
+     * Checks whether a chunk's owner is protected from an explosion caused by another guild.
+     *
+     * @param owner The owning guild, or null for wilderness
+     * @param culprit The guild responsible for the explosion, or null if unknown
+     * @return True if the explosion must not destroy blocks here
+     */
+    private boolean isProtectedFrom(Guild owner, Guild culprit) {
+        if (owner == null || owner == culprit) {
+            return false;
+        }
+
+        if (warDisablesProtection) {
+            // Without a known culprit (e.g. creepers), a guild at war loses its explosion protection
+            if (culprit == null ? owner.isAtWar() : owner.getRelation(culprit.getId()) == Relation.WAR) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the guild of the player responsible for an exploding entity.
+     * Primed TNT is traced back to whoever lit it, and explosive arrow blasts are sourced from the shooter.
+     *
+     * @param entity The exploding entity
+     * @return The responsible guild, or null if no guild member caused the explosion
+     */
+    private Guild getExplosionGuild(Entity entity) {
+        Entity source = entity instanceof TNTPrimed ? ((TNTPrimed) entity).getSource() : entity;
+        Player player = source != null ? getAttackingPlayer(source) : null;
+        return player != null ? guildService.getGuildByPlayer(player.getUniqueId()) : null;
+    }
+
+    /**
+     * Prevents water and lava from flowing into another guild's territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        if (!territoryEnabled || !preventCrossBorder) {
+            return;
+        }
+
+        Block from = event.getBlock();
+        Block to = event.getToBlock();
+        if (isCrossBorderDenied(from.getWorld(), from.getX(), from.getZ(), to.getX(), to.getZ())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Prevents pistons from pushing blocks into or out of another guild's territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        if (!territoryEnabled || !preventCrossBorder) {
+            return;
+        }
+
+        if (isPistonMoveDenied(event.getBlock(), event.getBlocks(), event.getDirection())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Prevents sticky pistons from pulling blocks out of another guild's territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        if (!territoryEnabled || !preventCrossBorder || event.getBlocks().isEmpty()) {
+            return;
+        }
+
+        // Pulled blocks move back towards the piston, against the way it faces
+        BlockData data = event.getBlock().getBlockData();
+        if (!(data instanceof Directional)) {
+            return;
+        }
+        BlockFace movement = ((Directional) data).getFacing().getOppositeFace();
+
+        if (isPistonMoveDenied(event.getBlock(), event.getBlocks(), movement)) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Prevents fire from spreading into another guild's territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockSpread(BlockSpreadEvent event) {
+        if (!territoryEnabled || !preventCrossBorder) {
+            return;
+        }
+
+        Material type = event.getNewState().getType();
+        if (!Tag.FIRE.isTagged(type)) {
+            return;
+        }
+
+        Block source = event.getSource();
+        Block block = event.getBlock();
+        if (isCrossBorderDenied(block.getWorld(), source.getX(), source.getZ(), block.getX(), block.getZ())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Prevents fire from burning blocks in another guild's territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        Block igniting = event.getIgnitingBlock();
+        if (!territoryEnabled || !preventCrossBorder || igniting == null) {
+            return;
+        }
+
+        Block block = event.getBlock();
+        if (isCrossBorderDenied(block.getWorld(), igniting.getX(), igniting.getZ(), block.getX(), block.getZ())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Prevents dispensers from firing or placing into another guild's territory.
+     */
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockDispense(BlockDispenseEvent event) {
+        if (!territoryEnabled || !preventCrossBorder) {
+            return;
+        }
+
+        Block block = event.getBlock();
+        BlockData data = block.getBlockData();
+        if (!(data instanceof Directional)) {
+            return;
+        }
+
+        BlockFace facing = ((Directional) data).getFacing();
+        if (isCrossBorderDenied(block.getWorld(), block.getX(), block.getZ(),
+                block.getX() + facing.getModX(), block.getZ() + facing.getModZ())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Checks whether a piston may not move a set of blocks.
+     * Every moved block must start and end in land the piston's owner may change.
+     *
+     * @param piston The piston block
+     * @param blocks The blocks being moved
+     * @param movement The direction the blocks move in
+     * @return True if the move crosses into protected territory
+     */
+    private boolean isPistonMoveDenied(Block piston, List<Block> blocks, BlockFace movement) {
+        World world = piston.getWorld();
+        int pistonX = piston.getX();
+        int pistonZ = piston.getZ();
+
+        // Extending into an empty space still moves the piston head one block
+        if (blocks.isEmpty()) {
+            return isCrossBorderDenied(world, pistonX, pistonZ, pistonX + movement.getModX(), pistonZ + movement.getModZ());
+        }
+
+        for (Block block : blocks) {
+            int x = block.getX();
+            int z = block.getZ();
+            if (isCrossBorderDenied(world, pistonX, pistonZ, x, z)
+                    || isCrossBorderDenied(world, pistonX, pistonZ, x + movement.getModX(), z + movement.getModZ())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether something may not cross from one block column into another.
+     * Both columns in the same chunk is by far the most common case and returns without a lookup.
+     *
+     * @param world The world
+     * @param fromX The source block x coordinate
+     * @param fromZ The source block z coordinate
+     * @param toX The target block x coordinate
+     * @param toZ The target block z coordinate
+     * @return True if the target lies in territory the source's owner may not affect
+     */
+    private boolean isCrossBorderDenied(World world, int fromX, int fromZ, int toX, int toZ) {
+        int fromChunkX = fromX >> 4;
+        int fromChunkZ = fromZ >> 4;
+        int toChunkX = toX >> 4;
+        int toChunkZ = toZ >> 4;
+        if (fromChunkX == toChunkX && fromChunkZ == toChunkZ) {
+            return false;
+        }
+
+        String worldName = world.getName();
+        Guild target = guildService.getChunkOwner(worldName, toChunkX, toChunkZ);
+        if (target == null) {
+            return false;
+        }
+
+        Guild source = guildService.getChunkOwner(worldName, fromChunkX, fromChunkZ);
+        if (source == target) {
+            return false;
+        }
+
+        // Guilds at war may flood and burn each other's land
+        return !(warDisablesProtection && source != null && target.getRelation(source.getId()) == Relation.WAR);
+    }
+
+    /**
+     * Checks whether a player is denied building or interacting in a chunk.
+     *
+     * @param player The player
+     * @param world The world of the chunk
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @param allowAllies Whether allied guild members are allowed
+     * @return The guild protecting the chunk, or null if the action is allowed
+     */
+    private Guild getDeniedOwner(Player player, World world, int chunkX, int chunkZ, boolean allowAllies) {
+        ChunkLookup lookup = sessionManager.resolve(player, world, chunkX, chunkZ);
+        switch (lookup.getAccess()) {
+            case WILDERNESS:
+            case OWN:
+                return null;
+            case ALLY:
+                if (allowAllies) {
+                    return null;
+                }
+                break;
+            case WAR:
+                if (warDisablesProtection) {
+                    return null;
+                }
+                break;
+            default:
+                break;
+        }
+
+        // Only reached for protected territory, so the permission check stays off the hot path
+        return player.hasPermission("guildwars.admin") ? null : lookup.getOwner();
+    }
+
+    /**
+     * Gets the player responsible for damage, following projectiles back to their shooter.
+     *
+     * @param damager The damaging entity
+     * @return The attacking player, or null if the damage was not caused by a player
+     */
+    private Player getAttackingPlayer(Entity damager) {
+        if (damager instanceof Player) {
+            return (Player) damager;
+        }
+        if (damager instanceof Projectile && ((Projectile) damager).getShooter() instanceof Player) {
+            return (Player) ((Projectile) damager).getShooter();
+        }
+        return null;
+    }
+
+    /**
+     * Tells a player they cannot do something here, at most once per second.
+     *
+     * @param player The player
+     * @param owner The guild protecting the territory
+     * @param action A description of the denied action
+     */
+    private void sendDenied(Player player, Guild owner, String action) {
+        TerritorySession session = sessionManager.getSession(player);
+        if (session.tryDenyMessage(System.currentTimeMillis(), DENY_MESSAGE_INTERVAL)) {
+            player.sendMessage(ChatColor.RED + "You cannot " + action + " in the territory of " + owner.getName() + ".");
+        }
+    }
+}
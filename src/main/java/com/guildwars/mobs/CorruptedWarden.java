@@ -5,7 +5,6 @@ import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.attribute.Attribute;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.IronGolem;
 import org.bukkit.entity.LivingEntity;
@@ -34,7 +33,13 @@ import java.util.Random;
  */
 public class CorruptedWarden implements Listener {
     
+    /**
+     * How often each Corrupted Warden may trigger an EMP pulse, in ticks.
+     */
+    public static final int EMP_INTERVAL_TICKS = 200;
+    
     private final JavaPlugin plugin;
+    private final CustomMobRegistry registry;
     private final Random random = new Random();
     private final String MINION_TAG = "warden_minion";
     
@@ -42,9 +47,11 @@ public class CorruptedWarden implements Listener {
      * Creates a new CorruptedWarden instance.
      *
      * @param plugin The plugin instance
+     * @param registry The registry of loaded custom mobs
      */
-    public CorruptedWarden(JavaPlugin plugin) {
+    public CorruptedWarden(JavaPlugin plugin, CustomMobRegistry registry) {
         this.plugin = plugin;
+        this.registry = registry;
         
         // Register events
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
@@ -57,8 +64,14 @@ public class CorruptedWarden implements Listener {
      * @return The spawned entity
      */
     public LivingEntity spawn(Location location) {
-        // Create an Iron Golem as the base entity
-        IronGolem entity = (IronGolem) location.getWorld().spawnEntity(location, EntityType.IRON_GOLEM);
+        // Create an Iron Golem as the base entity, marked as a corrupted warden before it enters the world
+        IronGolem entity = location.getWorld().spawn(location, IronGolem.class, golem ->
+            golem.getPersistentDataContainer().set(
+                new org.bukkit.NamespacedKey(plugin, "corrupted_warden"),
+                PersistentDataType.BYTE,
+                (byte) 1
+            )
+        );
         
         // Set entity to target players only using Bukkit NMS to override targeting goals
         entity.setPlayerCreated(false); // Ensure it's not treated as a player-created golem
@@ -103,32 +116,23 @@ public class CorruptedWarden implements Listener {
             1.0f, 0.5f
         );
         
-        // Store custom data to identify this as a corrupted warden
-        entity.getPersistentDataContainer().set(
-            new org.bukkit.NamespacedKey(plugin, "corrupted_warden"),
-            PersistentDataType.BYTE,
-            (byte) 1
-        );
-        
-        // Schedule periodic EMP pulse
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (entity == null || entity.isDead()) {
-                    this.cancel();
-                    return;
-                }
-                
-                // 25% chance to trigger an EMP pulse
-                if (random.nextDouble() < 0.25) {
-                    performEmpPulse(entity);
-                }
-            }
-        }.runTaskTimer(plugin, 200L, 200L); // Every 10 seconds with initial delay
-        
+        // The periodic EMP pulse is triggered by the mob ability ticker
         return entity;
     }
     
+    /**
+     * Gives a Corrupted Warden the chance to trigger an EMP pulse.
+     * Called every {@link #EMP_INTERVAL_TICKS} ticks by the mob ability ticker.
+     * 
+     * @param entity The Corrupted Warden entity
+     */
+    public void tickEmp(LivingEntity entity) {
+        // 25% chance to trigger an EMP pulse
+        if (random.nextDouble() < 0.25) {
+            performEmpPulse((IronGolem) entity);
+        }
+    }
+    
     /**
      * Performs an EMP pulse that blinds nearby players.
      * 
@@ -315,8 +319,14 @@ public class CorruptedWarden implements Listener {
                 random.nextDouble() * 6 - 3
             );
             
-            // Summon a zombie
-            Zombie zombie = (Zombie) warden.getWorld().spawnEntity(spawnLoc, EntityType.ZOMBIE);
+            // Summon a zombie, marked as a minion of the Corrupted Warden before it enters the world
+            Zombie zombie = warden.getWorld().spawn(spawnLoc, Zombie.class, minion ->
+                minion.getPersistentDataContainer().set(
+                    new org.bukkit.NamespacedKey(plugin, MINION_TAG),
+                    PersistentDataType.BYTE,
+                    (byte) 1
+                )
+            );
             
             // Enhance the zombie
             zombie.setCustomName(ChatColor.RED + "Warden's Minion");
@@ -327,13 +337,6 @@ public class CorruptedWarden implements Listener {
             zombie.getAttribute(Attribute.GENERIC_ATTACK_DAMAGE).setBaseValue(8.0);
             zombie.getAttribute(Attribute.GENERIC_MOVEMENT_SPEED).setBaseValue(0.3);
             
-            // Mark this zombie as a minion of the Corrupted Warden
-            zombie.getPersistentDataContainer().set(
-                new org.bukkit.NamespacedKey(plugin, MINION_TAG),
-                PersistentDataType.BYTE,
-                (byte) 1
-            );
-            
             // Add glow effect and prevent burning in daylight
             zombie.addPotionEffect(new PotionEffect(PotionEffectType.GLOWING, Integer.MAX_VALUE, 0, false, false));
             zombie.addPotionEffect(new PotionEffect(PotionEffectType.FIRE_RESISTANCE, Integer.MAX_VALUE, 0, false, false));
@@ -466,9 +469,9 @@ public class CorruptedWarden implements Listener {
         Location playerLoc = player.getLocation();
         
         // Check if there's a Corrupted Warden within 100 blocks
-        for (Entity entity : player.getNearbyEntities(100, 100, 100)) {
-            if (entity instanceof LivingEntity && isCorruptedWarden((LivingEntity) entity)) {
-                Location wardenLoc = entity.getLocation();
+        for (LivingEntity warden : registry.getMobs(CustomMobType.CORRUPTED_WARDEN)) {
+            if (warden.getWorld().equals(playerLoc.getWorld()) && warden.getLocation().distanceSquared(playerLoc) < 10000) {
+                Location wardenLoc = warden.getLocation();
                 double distanceToWarden = playerLoc.distanceSquared(wardenLoc);
                 
                 // Now check for tamed wolves that belong to this player
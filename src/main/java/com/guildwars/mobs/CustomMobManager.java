@@ -1,5 +1,6 @@
 package com.guildwars.mobs;
 
+import com.guildwars.utils.BudgetedTaskExecutor;
 import org.bukkit.Location;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.LivingEntity;
@@ -13,6 +14,10 @@ public class CustomMobManager {
     private final JavaPlugin plugin;
     private boolean customMobsEnabled;
     
+    // Loaded custom mobs and the task that runs their abilities
+    private final MobAbilityTicker abilityTicker;
+    private final CustomMobRegistry registry;
+    
     // Mob instances
     private DebugMob debugMob;
     private FrostGiant frostGiant;
@@ -23,15 +28,23 @@ public class CustomMobManager {
      * Creates a new CustomMobManager instance.
      *
      * @param plugin The plugin instance
+     * @param taskExecutor The executor the mob abilities run on
      */
-    public CustomMobManager(JavaPlugin plugin) {
+    public CustomMobManager(JavaPlugin plugin, BudgetedTaskExecutor taskExecutor) {
         this.plugin = plugin;
+        this.abilityTicker = new MobAbilityTicker(taskExecutor);
+        this.registry = new CustomMobRegistry(plugin, abilityTicker);
         
         // Initialize all mob types
         this.debugMob = new DebugMob(plugin);
         this.frostGiant = new FrostGiant(plugin);
         this.shadowAssassin = new ShadowAssassin(plugin);
-        this.corruptedWarden = new CorruptedWarden(plugin);
+        this.corruptedWarden = new CorruptedWarden(plugin, registry);
+        
+        // Run the periodic abilities of all mobs from one task
+        abilityTicker.setAbility(CustomMobType.FROST_GIANT, FrostGiant.AURA_INTERVAL_TICKS, false, frostGiant::tickAura);
+        abilityTicker.setAbility(CustomMobType.SHADOW_ASSASSIN, ShadowAssassin.SHADOW_INTERVAL_TICKS, true, shadowAssassin::tickShadow);
+        abilityTicker.setAbility(CustomMobType.CORRUPTED_WARDEN, CorruptedWarden.EMP_INTERVAL_TICKS, false, corruptedWarden::tickEmp);
         
         loadConfig();
     }
@@ -72,6 +85,32 @@ public class CustomMobManager {
         plugin.saveConfig();
     }
     
+    /**
+     * Gets the registry of loaded custom mobs.
+     *
+     * @return The custom mob registry
+     */
+    public CustomMobRegistry getRegistry() {
+        return registry;
+    }
+    
+    /**
+     * Gets the ticker that runs the periodic abilities of custom mobs.
+     *
+     * @return The mob ability ticker
+     */
+    public MobAbilityTicker getAbilityTicker() {
+        return abilityTicker;
+    }
+    
+    /**
+     * Stops the mob abilities and clears the registry.
+     */
+    public void cleanup() {
+        abilityTicker.cleanup();
+        registry.cleanup();
+    }
+    
     /**
      * Gets the Debug mob instance.
      *
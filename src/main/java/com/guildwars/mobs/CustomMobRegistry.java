@@ -0,0 +1,187 @@
+package com.guildwars.mobs;
+
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the custom mobs that are currently loaded, by type.
+ * Mobs are added when they enter a world, by spawning or by their chunk loading, and removed
+ * when they die or leave it, by being removed or by their chunk unloading. Counting, capping
+ * and clearing custom mobs therefore only visits the custom mobs instead of every entity of
+ * every world, and the counts are always current. Only entities of a type custom mobs are
+ * based on have their persistent data checked. Registered mobs are handed to the
+ * {@link MobAbilityTicker}, so mobs loaded with their chunk get their abilities back.
+ */
+public class CustomMobRegistry implements Listener {
+
+    // Loaded custom mobs by type
+    private final Map<CustomMobType, Set<LivingEntity>> mobs = new EnumMap<>(CustomMobType.class);
+
+    // Tag keys by type, and the vanilla entity types custom mobs are based on
+    private final Map<CustomMobType, NamespacedKey> tagKeys = new EnumMap<>(CustomMobType.class);
+    private final Set<EntityType> baseTypes = EnumSet.noneOf(EntityType.class);
+
+    private final MobAbilityTicker abilityTicker;
+
+    /**
+     * Creates a new custom mob registry and registers the custom mobs that are already loaded.
+     *
+     * @param plugin The plugin instance
+     * @param abilityTicker The ticker that runs the abilities of registered mobs
+     */
+    public CustomMobRegistry(JavaPlugin plugin, MobAbilityTicker abilityTicker) {
+        this.abilityTicker = abilityTicker;
+        for (CustomMobType type : CustomMobType.values()) {
+            mobs.put(type, new HashSet<>());
+            tagKeys.put(type, new NamespacedKey(plugin, type.getTag()));
+            baseTypes.add(type.getBaseType());
+        }
+
+        // Mobs are already loaded after a reload
+        for (World world : plugin.getServer().getWorlds()) {
+            for (LivingEntity entity : world.getLivingEntities()) {
+                register(entity);
+            }
+        }
+
+        // Register events
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Gets the type of a custom mob.
+     *
+     * @param entity The entity
+     * @return The custom mob type, or null if the entity is not a custom mob
+     */
+    public CustomMobType getType(Entity entity) {
+        if (!baseTypes.contains(entity.getType())) {
+            return null;
+        }
+
+        PersistentDataContainer data = entity.getPersistentDataContainer();
+        for (CustomMobType type : CustomMobType.values()) {
+            if (type.getBaseType() == entity.getType() && data.has(tagKeys.get(type), PersistentDataType.BYTE)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the loaded custom mobs of a type.
+     *
+     * @param type The custom mob type
+     * @return A live, unmodifiable view of the loaded mobs of the type
+     */
+    public Set<LivingEntity> getMobs(CustomMobType type) {
+        return Collections.unmodifiableSet(mobs.get(type));
+    }
+
+    /**
+     * Gets the loaded custom mobs of all types in a world.
+     *
+     * @param world The world
+     * @return The custom mobs in the world
+     */
+    public List<LivingEntity> getMobs(World world) {
+        List<LivingEntity> inWorld = new ArrayList<>();
+        for (Set<LivingEntity> ofType : mobs.values()) {
+            for (LivingEntity mob : ofType) {
+                if (mob.getWorld().equals(world)) {
+                    inWorld.add(mob);
+                }
+            }
+        }
+        return inWorld;
+    }
+
+    /**
+     * Gets the number of loaded custom mobs of a type.
+     *
+     * @param type The custom mob type
+     * @return The number of loaded mobs
+     */
+    public int getCount(CustomMobType type) {
+        return mobs.get(type).size();
+    }
+
+    /**
+     * Adds an entity to the registry if it is a custom mob.
+     *
+     * @param entity The entity
+     */
+    private void register(Entity entity) {
+        CustomMobType type = getType(entity);
+        if (type != null && !entity.isDead() && mobs.get(type).add((LivingEntity) entity)) {
+            abilityTicker.add((LivingEntity) entity, type);
+        }
+    }
+
+    /**
+     * Removes an entity from the registry.
+     *
+     * @param entity The entity
+     */
+    private void unregister(Entity entity) {
+        CustomMobType type = getType(entity);
+        if (type != null) {
+            mobs.get(type).remove(entity);
+        }
+    }
+
+    /**
+     * Registers custom mobs as they spawn or their chunk loads.
+     * The mob classes tag their entities before spawning them, so the tag is already set here.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAddToWorld(EntityAddToWorldEvent event) {
+        register(event.getEntity());
+    }
+
+    /**
+     * Drops custom mobs as soon as they die, rather than when their body is removed.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityDeath(EntityDeathEvent event) {
+        unregister(event.getEntity());
+    }
+
+    /**
+     * Drops custom mobs that are removed or whose chunk unloads.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+        unregister(event.getEntity());
+    }
+
+    /**
+     * Clears the registry.
+     */
+    public void cleanup() {
+        for (Set<LivingEntity> ofType : mobs.values()) {
+            ofType.clear();
+        }
+    }
+}
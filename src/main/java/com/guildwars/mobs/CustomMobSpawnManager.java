@@ -1,16 +1,13 @@
 package com.guildwars.mobs;
 
 import org.bukkit.Location;
-import org.bukkit.World;
 import org.bukkit.block.Biome;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Monster;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
-import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 
@@ -31,10 +28,6 @@ public class CustomMobSpawnManager implements Listener {
     private final Set<Biome> coldBiomes = new HashSet<>();
     private final Set<Biome> plainsBiomes = new HashSet<>();
     
-    // Track spawn counts to avoid overloading the world with custom mobs
-    private int corruptedWardenCount = 0;
-    private int frostGiantCount = 0;
-    
     // Config values
     private boolean naturalSpawningEnabled = true;
     private double corruptedWardenSpawnRate = 0.12; // 12% chance in plains
@@ -60,9 +53,6 @@ public class CustomMobSpawnManager implements Listener {
         
         // Load configuration
         loadConfig();
-        
-        // Start count checker task
-        startCountCheckerTask();
     }
     
     /**
@@ -138,35 +128,6 @@ public class CustomMobSpawnManager implements Listener {
         maxFrostGiants = plugin.getConfig().getInt("custom-mobs.max-frost-giants", 6);
     }
     
-    /**
-     * Starts a task to periodically check and update the current mob counts.
-     */
-    private void startCountCheckerTask() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Reset counts
-                corruptedWardenCount = 0;
-                frostGiantCount = 0;
-                
-                // Count all custom mobs across all worlds
-                for (World world : plugin.getServer().getWorlds()) {
-                    for (Entity entity : world.getEntities()) {
-                        if (entity instanceof org.bukkit.entity.LivingEntity) {
-                            org.bukkit.entity.LivingEntity livingEntity = (org.bukkit.entity.LivingEntity) entity;
-                            
-                            if (CorruptedWarden.isCorruptedWarden(livingEntity)) {
-                                corruptedWardenCount++;
-                            } else if (FrostGiant.isFrostGiant(livingEntity)) {
-                                frostGiantCount++;
-                            }
-                        }
-                    }
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 20L * 60L); // Run every minute
-    }
-    
     /**
      * Handles creature spawn events to potentially replace with custom mobs.
      */
@@ -194,7 +155,7 @@ public class CustomMobSpawnManager implements Listener {
         // For Frost Giants - replace zombies in cold biomes
         if ((entityType == EntityType.ZOMBIE || entityType == EntityType.SKELETON) 
                 && coldBiomes.contains(biome) 
-                && frostGiantCount < maxFrostGiants
+                && getFrostGiantCount() < maxFrostGiants
                 && random.nextDouble() < frostGiantSpawnRate) {
             
             // Cancel original spawn
@@ -205,7 +166,6 @@ public class CustomMobSpawnManager implements Listener {
                 @Override
                 public void run() {
                     customMobManager.summonFrostGiant(location);
-                    frostGiantCount++;
                 }
             }.runTaskLater(plugin, 2L);
             
@@ -215,7 +175,7 @@ public class CustomMobSpawnManager implements Listener {
         // For Corrupted Wardens - replace zombies/skeletons/creepers in plains biomes
         if ((entityType == EntityType.ZOMBIE || entityType == EntityType.SKELETON || entityType == EntityType.CREEPER) 
                 && plainsBiomes.contains(biome)
-                && corruptedWardenCount < maxCorruptedWardens
+                && getCorruptedWardenCount() < maxCorruptedWardens
                 && random.nextDouble() < corruptedWardenSpawnRate) {
             
             // Cancel original spawn
@@ -226,7 +186,6 @@ public class CustomMobSpawnManager implements Listener {
                 @Override
                 public void run() {
                     customMobManager.summonCorruptedWarden(location);
-                    corruptedWardenCount++;
                 }
             }.runTaskLater(plugin, 2L);
             
@@ -234,28 +193,13 @@ public class CustomMobSpawnManager implements Listener {
         }
     }
     
-    /**
-     * Handles entity death events to update custom mob counts.
-     */
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onEntityDeath(EntityDeathEvent event) {
-        org.bukkit.entity.LivingEntity entity = event.getEntity();
-        
-        // Update counts when custom mobs die
-        if (CorruptedWarden.isCorruptedWarden(entity)) {
-            corruptedWardenCount = Math.max(0, corruptedWardenCount - 1);
-        } else if (FrostGiant.isFrostGiant(entity)) {
-            frostGiantCount = Math.max(0, frostGiantCount - 1);
-        }
-    }
-    
     /**
      * Gets the current number of spawned Corrupted Wardens.
      *
      * @return The count of Corrupted Wardens
      */
     public int getCorruptedWardenCount() {
-        return corruptedWardenCount;
+        return customMobManager.getRegistry().getCount(CustomMobType.CORRUPTED_WARDEN);
     }
     
     /**
@@ -264,7 +208,7 @@ public class CustomMobSpawnManager implements Listener {
      * @return The count of Frost Giants
      */
     public int getFrostGiantCount() {
-        return frostGiantCount;
+        return customMobManager.getRegistry().getCount(CustomMobType.FROST_GIANT);
     }
     
     /**
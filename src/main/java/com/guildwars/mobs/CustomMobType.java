@@ -0,0 +1,59 @@
+package com.guildwars.mobs;
+
+import org.bukkit.entity.EntityType;
+
+/**
+ * The types of custom mobs, with the persistent data tag that marks them and the vanilla entity they are based on.
+ */
+public enum CustomMobType {
+    /**
+     * A heavily armored zombie for testing.
+     */
+    DEBUG_MOB("debug_mob", EntityType.ZOMBIE),
+
+    /**
+     * An iron golem with a frost aura.
+     */
+    FROST_GIANT("frost_giant", EntityType.IRON_GOLEM),
+
+    /**
+     * An invisible stray that teleports behind its attackers.
+     */
+    SHADOW_ASSASSIN("shadow_assassin", EntityType.STRAY),
+
+    /**
+     * An iron golem with an EMP pulse that summons minions.
+     */
+    CORRUPTED_WARDEN("corrupted_warden", EntityType.IRON_GOLEM),
+
+    /**
+     * A zombie summoned by a Corrupted Warden.
+     */
+    WARDEN_MINION("warden_minion", EntityType.ZOMBIE);
+
+    private final String tag;
+    private final EntityType baseType;
+
+    CustomMobType(String tag, EntityType baseType) {
+        this.tag = tag;
+        this.baseType = baseType;
+    }
+
+    /**
+     * Gets the key of the persistent data tag that marks mobs of this type.
+     *
+     * @return The tag key
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Gets the vanilla entity type mobs of this type are based on.
+     *
+     * @return The base entity type
+     */
+    public EntityType getBaseType() {
+        return baseType;
+    }
+}
@@ -4,7 +4,6 @@ import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.attribute.Attribute;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Zombie;
 import org.bukkit.inventory.ItemStack;
@@ -37,8 +36,14 @@ public class DebugMob {
      * @return The spawned entity
      */
     public LivingEntity spawn(Location location) {
-        // Create a zombie as the base entity
-        Zombie entity = (Zombie) location.getWorld().spawnEntity(location, EntityType.ZOMBIE);
+        // Create a zombie as the base entity, marked as a debug mob before it enters the world
+        Zombie entity = location.getWorld().spawn(location, Zombie.class, zombie ->
+            zombie.getPersistentDataContainer().set(
+                new org.bukkit.NamespacedKey(plugin, "debug_mob"),
+                PersistentDataType.BYTE,
+                (byte) 1
+            )
+        );
         
         // Set custom name
         entity.setCustomName(ChatColor.RED + "Debug Mob");
@@ -89,13 +94,6 @@ public class DebugMob {
         // Add potion effects
         entity.addPotionEffect(new PotionEffect(PotionEffectType.GLOWING, Integer.MAX_VALUE, 0, false, false));
         
-        // Store custom data to identify this as a debug mob
-        entity.getPersistentDataContainer().set(
-            new org.bukkit.NamespacedKey(plugin, "debug_mob"),
-            PersistentDataType.BYTE,
-            (byte) 1
-        );
-        
         return entity;
     }
     
@@ -6,7 +6,6 @@ import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.attribute.Attribute;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.IronGolem;
 import org.bukkit.entity.LivingEntity;
@@ -15,7 +14,6 @@ import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.Random;
 
@@ -25,6 +23,11 @@ import java.util.Random;
  */
 public class FrostGiant {
     
+    /**
+     * How often each Frost Giant applies its frost aura, in ticks.
+     */
+    public static final int AURA_INTERVAL_TICKS = 20;
+    
     private final JavaPlugin plugin;
     private final Random random = new Random();
     
@@ -44,8 +47,14 @@ public class FrostGiant {
      * @return The spawned entity
      */
     public LivingEntity spawn(Location location) {
-        // Create an Iron Golem as the base entity
-        IronGolem entity = (IronGolem) location.getWorld().spawnEntity(location, EntityType.IRON_GOLEM);
+        // Create an Iron Golem as the base entity, marked as a frost giant before it enters the world
+        IronGolem entity = location.getWorld().spawn(location, IronGolem.class, golem ->
+            golem.getPersistentDataContainer().set(
+                new org.bukkit.NamespacedKey(plugin, "frost_giant"),
+                PersistentDataType.BYTE,
+                (byte) 1
+            )
+        );
         
         // Set entity to target players only
         entity.setPlayerCreated(false); // Ensure it's not treated as a player-created golem
@@ -83,46 +92,36 @@ public class FrostGiant {
                 30, 1, 2, 1, 0.02);
         entity.getWorld().playSound(entity.getLocation(), Sound.BLOCK_GLASS_BREAK, 1.0f, 0.8f);
         
-        // Store custom data to identify this as a frost giant
-        entity.getPersistentDataContainer().set(
-            new org.bukkit.NamespacedKey(plugin, "frost_giant"),
-            PersistentDataType.BYTE,
-            (byte) 1
-        );
+        // The frost aura is applied by the mob ability ticker
+        return entity;
+    }
+    
+    /**
+     * Applies the frost aura of a Frost Giant, which slows nearby players.
+     * Called every {@link #AURA_INTERVAL_TICKS} ticks by the mob ability ticker.
+     * 
+     * @param mob The Frost Giant entity
+     */
+    public void tickAura(LivingEntity mob) {
+        IronGolem entity = (IronGolem) mob;
         
-        // Apply frost aura effect - scheduled task that slows nearby players
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (entity == null || entity.isDead()) {
-                    this.cancel();
-                    return;
-                }
-                
-                // Apply frost effects to nearby players
-                for (Entity nearby : entity.getNearbyEntities(5, 5, 5)) {
-                    if (nearby instanceof Player) {
-                        Player player = (Player) nearby;
-                        player.addPotionEffect(new PotionEffect(PotionEffectType.SLOW, 60, 1));
-                        
-                        // Visual snow particles
-                        player.getWorld().spawnParticle(Particle.SNOW_SHOVEL, 
-                                player.getLocation().add(0, 1, 0), 10, 0.5, 0.5, 0.5, 0);
-                    }
-                }
-                
-                // Ambient effects
-                entity.getWorld().spawnParticle(Particle.SNOWFLAKE, 
-                        entity.getLocation().add(0, 1, 0), 5, 1, 1, 1, 0.01);
-                
-                // 10% chance to perform a ground pound attack
-                if (random.nextDouble() < 0.1) {
-                    performGroundPound(entity);
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 20L);
+        // Apply frost effects to nearby players
+        for (Player player : entity.getLocation().getNearbyPlayers(5, 5, 5)) {
+            player.addPotionEffect(new PotionEffect(PotionEffectType.SLOW, 60, 1));
+            
+            // Visual snow particles
+            player.getWorld().spawnParticle(Particle.SNOW_SHOVEL, 
+                    player.getLocation().add(0, 1, 0), 10, 0.5, 0.5, 0.5, 0);
+        }
         
-        return entity;
+        // Ambient effects
+        entity.getWorld().spawnParticle(Particle.SNOWFLAKE, 
+                entity.getLocation().add(0, 1, 0), 5, 1, 1, 1, 0.01);
+        
+        // 10% chance to perform a ground pound attack
+        if (random.nextDouble() < 0.1) {
+            performGroundPound(entity);
+        }
     }
     
     /**
@@ -0,0 +1,151 @@
+package com.guildwars.mobs;
+
+import com.guildwars.utils.BudgetedTaskExecutor;
+import org.bukkit.entity.LivingEntity;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Runs the periodic abilities of all custom mobs from one task.
+ * Active mobs are kept in a compact array together with their type and a phase offset handed
+ * out round-robin, so mobs of the same type run their ability on different ticks and the cost
+ * is spread evenly instead of spiking on the ticks where every mob's timer would line up.
+ * Mobs that died, were removed or were unloaded are dropped in the same pass that runs the
+ * abilities, by compacting the array. The ticker runs on the budgeted task executor, and purely
+ * cosmetic abilities are skipped for an interval once the tick's budget is used up.
+ */
+public class MobAbilityTicker {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final String CATEGORY = "mob-abilities";
+
+    // Abilities by mob type
+    private final Map<CustomMobType, Ability> abilities = new EnumMap<>(CustomMobType.class);
+
+    // Active mobs, their types and phase offsets; only the first count entries are used
+    private LivingEntity[] mobs = new LivingEntity[INITIAL_CAPACITY];
+    private CustomMobType[] types = new CustomMobType[INITIAL_CAPACITY];
+    private int[] phases = new int[INITIAL_CAPACITY];
+    private int count;
+
+    private final BudgetedTaskExecutor executor;
+    private final BudgetedTaskExecutor.Task task;
+    private int nextPhase;
+    private long tick;
+
+    /**
+     * Creates a new mob ability ticker and starts its task.
+     *
+     * @param executor The executor the ticker runs on
+     */
+    public MobAbilityTicker(BudgetedTaskExecutor executor) {
+        this.executor = executor;
+        this.task = executor.schedule(CATEGORY, BudgetedTaskExecutor.Priority.NORMAL, 1L, 1L, () -> {
+            tick();
+            return true;
+        });
+    }
+
+    /**
+     * Sets the periodic ability of a mob type.
+     *
+     * @param type The mob type
+     * @param intervalTicks How often each mob runs the ability, in ticks
+     * @param cosmetic Whether the ability is only visual and may be skipped when the tick budget is used up
+     * @param ability The ability, called with the mob
+     */
+    public void setAbility(CustomMobType type, int intervalTicks, boolean cosmetic, Consumer<LivingEntity> ability) {
+        abilities.put(type, new Ability(Math.max(1, intervalTicks), cosmetic, ability));
+    }
+
+    /**
+     * Adds a mob, which runs the ability of its type until it dies or is unloaded.
+     *
+     * @param mob The mob
+     * @param type The mob's type
+     */
+    public void add(LivingEntity mob, CustomMobType type) {
+        if (count == mobs.length) {
+            mobs = Arrays.copyOf(mobs, count * 2);
+            types = Arrays.copyOf(types, count * 2);
+            phases = Arrays.copyOf(phases, count * 2);
+        }
+        mobs[count] = mob;
+        types[count] = type;
+        phases[count] = nextPhase++ & Integer.MAX_VALUE;
+        count++;
+    }
+
+    /**
+     * Gets the number of mobs being ticked.
+     *
+     * @return The number of active mobs
+     */
+    public int getActiveCount() {
+        return count;
+    }
+
+    /**
+     * Runs the abilities that are due this tick and drops mobs that are no longer valid.
+     */
+    private void tick() {
+        tick++;
+
+        // Mobs added by an ability, e.g. summoned minions, are appended and visited in this pass
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            LivingEntity mob = mobs[i];
+            if (!mob.isValid()) {
+                continue;
+            }
+
+            // Move the mob down over the dropped ones, keeping its phase
+            if (kept != i) {
+                mobs[kept] = mob;
+                types[kept] = types[i];
+                phases[kept] = phases[i];
+            }
+            kept++;
+
+            Ability ability = abilities.get(types[i]);
+            if (ability == null || (tick + phases[i]) % ability.intervalTicks != 0) {
+                continue;
+            }
+            if (ability.cosmetic && !executor.hasBudget()) {
+                executor.recordDeferral(CATEGORY);
+            } else {
+                ability.action.accept(mob);
+            }
+        }
+
+        Arrays.fill(mobs, kept, count, null);
+        count = kept;
+    }
+
+    /**
+     * Stops the task and forgets all mobs.
+     */
+    public void cleanup() {
+        task.cancel();
+        Arrays.fill(mobs, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * A periodic ability and how often it runs.
+     */
+    private static final class Ability {
+        private final int intervalTicks;
+        private final boolean cosmetic;
+        private final Consumer<LivingEntity> action;
+
+        Ability(int intervalTicks, boolean cosmetic, Consumer<LivingEntity> action) {
+            this.intervalTicks = intervalTicks;
+            this.cosmetic = cosmetic;
+            this.action = action;
+        }
+    }
+}
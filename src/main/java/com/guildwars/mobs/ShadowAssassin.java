@@ -7,7 +7,6 @@ import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.enchantments.Enchantment;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Stray;
@@ -21,7 +20,6 @@ import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.Random;
 
@@ -31,6 +29,11 @@ import java.util.Random;
  */
 public class ShadowAssassin implements Listener {
     
+    /**
+     * How often each Shadow Assassin gives off shadow particles, in ticks.
+     */
+    public static final int SHADOW_INTERVAL_TICKS = 10;
+    
     private final JavaPlugin plugin;
     private final Random random = new Random();
     
@@ -53,8 +56,15 @@ public class ShadowAssassin implements Listener {
      * @return The spawned entity
      */
     public LivingEntity spawn(Location location) {
-        // Create a Stray as the base entity (skeleton variant with icy appearance)
-        Stray entity = (Stray) location.getWorld().spawnEntity(location, EntityType.STRAY);
+        // Create a Stray as the base entity (skeleton variant with icy appearance),
+        // marked as a shadow assassin before it enters the world
+        Stray entity = location.getWorld().spawn(location, Stray.class, stray ->
+            stray.getPersistentDataContainer().set(
+                new org.bukkit.NamespacedKey(plugin, "shadow_assassin"),
+                PersistentDataType.BYTE,
+                (byte) 1
+            )
+        );
         
         // Set custom name
         entity.setCustomName(ChatColor.DARK_PURPLE + "Shadow Assassin");
@@ -101,34 +111,24 @@ public class ShadowAssassin implements Listener {
         // Apply permanent invisibility in low light
         entity.addPotionEffect(new PotionEffect(PotionEffectType.INVISIBILITY, Integer.MAX_VALUE, 0, false, false));
         
-        // Store custom data to identify this as a shadow assassin
-        entity.getPersistentDataContainer().set(
-            new org.bukkit.NamespacedKey(plugin, "shadow_assassin"),
-            PersistentDataType.BYTE,
-            (byte) 1
-        );
-        
-        // Create shadow particle effect
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (entity == null || entity.isDead()) {
-                    this.cancel();
-                    return;
-                }
-                
-                // Create shadow particles around the entity
-                entity.getWorld().spawnParticle(
-                    Particle.SMOKE_NORMAL, 
-                    entity.getLocation().add(0, 0.5, 0), 
-                    5, 0.2, 0.5, 0.2, 0.01
-                );
-            }
-        }.runTaskTimer(plugin, 0L, 10L);
-        
+        // The shadow particles are created by the mob ability ticker
         return entity;
     }
     
+    /**
+     * Creates the shadow particles around a Shadow Assassin.
+     * Called every {@link #SHADOW_INTERVAL_TICKS} ticks by the mob ability ticker.
+     * 
+     * @param entity The Shadow Assassin entity
+     */
+    public void tickShadow(LivingEntity entity) {
+        entity.getWorld().spawnParticle(
+            Particle.SMOKE_NORMAL, 
+            entity.getLocation().add(0, 0.5, 0), 
+            5, 0.2, 0.5, 0.2, 0.01
+        );
+    }
+    
     /**
      * Handles entities being damaged to implement the teleport-behind ability.
      */
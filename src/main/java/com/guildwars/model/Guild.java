@@ -17,8 +17,11 @@ public class Guild {
     private Set<UUID> invites;
     private Location home;
     private Set<ChunkPosition> claims;
+    private final TerritoryGraph territory = new TerritoryGraph();
     private Map<String, Relation> relations;
+    private int relationVersion;
     private Date creationDate;
+    private long warKills;
     private int level;
     private double balance;
     private String description;
@@ -31,7 +34,18 @@ public class Guild {
      * @param leader The UUID of the guild leader
      */
     public Guild(String name, UUID leader) {
-        this.id = UUID.randomUUID().toString();
+        this(UUID.randomUUID().toString(), name, leader);
+    }
+
+    /**
+     * Creates a guild with a known ID, e.g. when loading it from storage.
+     *
+     * @param id The unique ID of the guild
+     * @param name The name of the guild
+     * @param leader The UUID of the guild leader
+     */
+    public Guild(String id, String name, UUID leader) {
+        this.id = id;
         this.name = name;
         this.tag = name.substring(0, Math.min(name.length(), 4)).toUpperCase();
         this.leader = leader;
@@ -284,7 +298,11 @@ public class Guild {
      * @return True if the chunk was claimed, false if it was already claimed
      */
     public boolean claim(ChunkPosition chunk) {
-        return claims.add(chunk);
+        if (!claims.add(chunk)) {
+            return false;
+        }
+        territory.add(chunk);
+        return true;
     }
 
     /**
@@ -294,7 +312,19 @@ public class Guild {
      * @return True if the chunk was unclaimed, false if it was not claimed
      */
     public boolean unclaim(ChunkPosition chunk) {
-        return claims.remove(chunk);
+        if (!claims.remove(chunk)) {
+            return false;
+        }
+        territory.remove(chunk);
+        return true;
+    }
+
+    /**
+     * Unclaims every chunk of the guild.
+     */
+    public void unclaimAll() {
+        claims.clear();
+        territory.clear();
     }
 
     /**
@@ -307,6 +337,25 @@ public class Guild {
         return claims.contains(chunk);
     }
 
+    /**
+     * Checks if unclaiming a chunk would split the guild's territory into disconnected parts.
+     *
+     * @param chunk The chunk position to check
+     * @return True if unclaiming the chunk would split the territory
+     */
+    public boolean wouldSplitTerritory(ChunkPosition chunk) {
+        return territory.wouldSplit(chunk);
+    }
+
+    /**
+     * Gets the number of disconnected parts the guild's territory is made of.
+     *
+     * @return The number of territory components
+     */
+    public int getTerritoryComponentCount() {
+        return territory.getComponentCount();
+    }
+
     /**
      * Gets the relations with other guilds.
      *
@@ -324,6 +373,16 @@ public class Guild {
      */
     public void setRelation(String guildId, Relation relation) {
         relations.put(guildId, relation);
+        relationVersion++;
+    }
+
+    /**
+     * Gets a counter that changes whenever one of the guild's relations is set.
+     *
+     * @return The relation version
+     */
+    public int getRelationVersion() {
+        return relationVersion;
     }
 
     /**
@@ -336,6 +395,15 @@ public class Guild {
         return relations.getOrDefault(guildId, Relation.NEUTRAL);
     }
 
+    /**
+     * Checks whether the guild is at war with any other guild.
+     *
+     * @return True if any relation is WAR
+     */
+    public boolean isAtWar() {
+        return relations.containsValue(Relation.WAR);
+    }
+
     /**
      * Gets the creation date of the guild.
      *
@@ -345,6 +413,33 @@ public class Guild {
         return creationDate;
     }
 
+    /**
+     * Sets the creation date of the guild, e.g. when loading it from storage.
+     *
+     * @param creationDate The creation date
+     */
+    public void setCreationDate(Date creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    /**
+     * Gets the number of enemies the guild has killed in wars over its lifetime.
+     *
+     * @return The war kills
+     */
+    public long getWarKills() {
+        return warKills;
+    }
+
+    /**
+     * Adds kills from a war to the guild's lifetime total.
+     *
+     * @param kills The number of kills to add
+     */
+    public void addWarKills(long kills) {
+        this.warKills += kills;
+    }
+
     /**
      * Gets the level of the guild.
      *
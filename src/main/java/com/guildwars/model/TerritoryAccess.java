@@ -0,0 +1,72 @@
+package com.guildwars.model;
+
+import org.bukkit.ChatColor;
+
+/**
+ * Represents how a player stands towards the owner of a chunk.
+ */
+public enum TerritoryAccess {
+    /**
+     * The chunk is not claimed by any guild.
+     */
+    WILDERNESS(ChatColor.DARK_GREEN),
+    
+    /**
+     * The chunk is claimed by the player's own guild.
+     */
+    OWN(ChatColor.GREEN),
+    
+    /**
+     * The chunk is claimed by a guild allied with the player's guild.
+     */
+    ALLY(ChatColor.AQUA),
+    
+    /**
+     * The chunk is claimed by a guild the player has no relation with.
+     */
+    NEUTRAL(ChatColor.YELLOW),
+    
+    /**
+     * The chunk is claimed by an enemy of the player's guild.
+     */
+    ENEMY(ChatColor.RED),
+    
+    /**
+     * The chunk is claimed by a guild at war with the player's guild.
+     */
+    WAR(ChatColor.DARK_RED);
+    
+    private final ChatColor color;
+    
+    TerritoryAccess(ChatColor color) {
+        this.color = color;
+    }
+    
+    /**
+     * Gets the color used to show territory with this access.
+     *
+     * @return The chat color
+     */
+    public ChatColor getColor() {
+        return color;
+    }
+    
+    /**
+     * Maps a guild relation to the access it grants in the other guild's territory.
+     *
+     * @param relation The relation between the player's guild and the owner
+     * @return The matching territory access
+     */
+    public static TerritoryAccess fromRelation(Relation relation) {
+        switch (relation) {
+            case ALLY:
+                return ALLY;
+            case ENEMY:
+                return ENEMY;
+            case WAR:
+                return WAR;
+            default:
+                return NEUTRAL;
+        }
+    }
+}
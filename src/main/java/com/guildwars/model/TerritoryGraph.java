@@ -0,0 +1,294 @@
+package com.guildwars.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the connected components of a guild's territory as chunks are claimed and unclaimed.
+ * Claims are merged with a union-find structure, so adding a chunk and asking whether two chunks
+ * are connected is near-constant time. Removal first tries a local check on the eight chunks
+ * surrounding the removed one and only falls back to a search of the territory when the
+ * neighbours are not already joined around the corner.
+ */
+public class TerritoryGraph {
+
+    // Ring around a chunk in circular order: E, SE, S, SW, W, NW, N, NE (even indices are edges)
+    private static final int[] RING_DX = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] RING_DZ = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    private final Map<ChunkPosition, Integer> nodes = new HashMap<>();
+    private int[] parent = new int[16];
+    private byte[] rank = new byte[16];
+    private int allocated;
+    private int components;
+
+    /**
+     * Adds a claimed chunk to the graph, merging it with any adjacent claims.
+     *
+     * @param position The claimed chunk
+     */
+    public void add(ChunkPosition position) {
+        if (nodes.containsKey(position)) {
+            return;
+        }
+
+        int id = allocate();
+        nodes.put(position, id);
+        components++;
+
+        for (int i = 0; i < RING_DX.length; i += 2) {
+            Integer neighbour = nodes.get(offset(position, RING_DX[i], RING_DZ[i]));
+            if (neighbour != null && union(id, neighbour)) {
+                components--;
+            }
+        }
+    }
+
+    /**
+     * Removes an unclaimed chunk from the graph, splitting its component if needed.
+     *
+     * @param position The unclaimed chunk
+     */
+    public void remove(ChunkPosition position) {
+        if (!nodes.containsKey(position)) {
+            return;
+        }
+
+        int degree = countEdgeNeighbours(position);
+        boolean splits = degree > 1 && wouldSplit(position);
+        nodes.remove(position);
+
+        if (degree == 0) {
+            // The chunk was a component on its own
+            components--;
+        } else if (splits) {
+            // Union-find cannot split a set, so rebuild the remaining territory
+            rebuild();
+            return;
+        }
+
+        // The removed node stays behind as an unreachable slot; compact once they pile up
+        if (allocated - nodes.size() > Math.max(32, nodes.size())) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Removes every chunk from the graph.
+     */
+    public void clear() {
+        nodes.clear();
+        allocated = 0;
+        components = 0;
+    }
+
+    /**
+     * Checks whether removing a chunk would break its component into disconnected parts.
+     *
+     * @param position The chunk to test
+     * @return True if unclaiming the chunk would split the territory
+     */
+    public boolean wouldSplit(ChunkPosition position) {
+        if (!nodes.containsKey(position)) {
+            return false;
+        }
+
+        boolean[] ring = new boolean[RING_DX.length];
+        int edges = 0;
+        for (int i = 0; i < RING_DX.length; i++) {
+            ring[i] = nodes.containsKey(offset(position, RING_DX[i], RING_DZ[i]));
+            if (ring[i] && i % 2 == 0) {
+                edges++;
+            }
+        }
+
+        if (edges <= 1) {
+            return false;
+        }
+
+        // Two edge neighbours are joined locally when the corner between them is claimed too
+        int links = 0;
+        for (int i = 0; i < RING_DX.length; i += 2) {
+            if (ring[i] && ring[i + 1] && ring[(i + 2) % RING_DX.length]) {
+                links++;
+            }
+        }
+
+        if (Math.max(1, edges - links) == 1) {
+            return false;
+        }
+
+        return !reachableWithout(position);
+    }
+
+    /**
+     * Checks whether two claimed chunks belong to the same connected component.
+     *
+     * @param first The first chunk
+     * @param second The second chunk
+     * @return True if both chunks are claimed and connected
+     */
+    public boolean isConnected(ChunkPosition first, ChunkPosition second) {
+        Integer a = nodes.get(first);
+        Integer b = nodes.get(second);
+        return a != null && b != null && find(a) == find(b);
+    }
+
+    /**
+     * Gets the number of disconnected parts the territory is made of.
+     *
+     * @return The number of connected components
+     */
+    public int getComponentCount() {
+        return components;
+    }
+
+    /**
+     * Gets the number of chunks tracked by the graph.
+     *
+     * @return The number of claimed chunks
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Searches the territory around a removed chunk to see whether its edge neighbours stay connected.
+     *
+     * @param removed The chunk being removed
+     * @return True if all edge neighbours can still reach each other
+     */
+    private boolean reachableWithout(ChunkPosition removed) {
+        Set<ChunkPosition> targets = new HashSet<>();
+        ChunkPosition start = null;
+        for (int i = 0; i < RING_DX.length; i += 2) {
+            ChunkPosition neighbour = offset(removed, RING_DX[i], RING_DZ[i]);
+            if (nodes.containsKey(neighbour)) {
+                if (start == null) {
+                    start = neighbour;
+                } else {
+                    targets.add(neighbour);
+                }
+            }
+        }
+
+        Set<ChunkPosition> visited = new HashSet<>();
+        Deque<ChunkPosition> queue = new ArrayDeque<>();
+        visited.add(removed);
+        visited.add(start);
+        queue.add(start);
+
+        while (!queue.isEmpty()) {
+            ChunkPosition current = queue.poll();
+            if (targets.remove(current) && targets.isEmpty()) {
+                return true;
+            }
+
+            for (int i = 0; i < RING_DX.length; i += 2) {
+                ChunkPosition next = offset(current, RING_DX[i], RING_DZ[i]);
+                if (nodes.containsKey(next) && visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+
+        return targets.isEmpty();
+    }
+
+    /**
+     * Counts the claimed chunks sharing an edge with a chunk.
+     *
+     * @param position The chunk
+     * @return The number of edge neighbours that are claimed
+     */
+    private int countEdgeNeighbours(ChunkPosition position) {
+        int count = 0;
+        for (int i = 0; i < RING_DX.length; i += 2) {
+            if (nodes.containsKey(offset(position, RING_DX[i], RING_DZ[i]))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rebuilds the union-find from the chunks that are still claimed.
+     */
+    private void rebuild() {
+        List<ChunkPosition> positions = new ArrayList<>(nodes.keySet());
+        nodes.clear();
+        allocated = 0;
+        components = 0;
+        for (ChunkPosition position : positions) {
+            add(position);
+        }
+    }
+
+    /**
+     * Allocates a new singleton set.
+     *
+     * @return The index of the new set
+     */
+    private int allocate() {
+        if (allocated == parent.length) {
+            parent = Arrays.copyOf(parent, allocated * 2);
+            rank = Arrays.copyOf(rank, allocated * 2);
+        }
+        parent[allocated] = allocated;
+        rank[allocated] = 0;
+        return allocated++;
+    }
+
+    /**
+     * Finds the root of a set, halving the path on the way.
+     *
+     * @param id The node index
+     * @return The root index
+     */
+    private int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Merges the sets containing two nodes.
+     *
+     * @param a The first node index
+     * @param b The second node index
+     * @return True if the nodes were in different sets
+     */
+    private boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+
+        if (rank[rootA] < rank[rootB]) {
+            parent[rootA] = rootB;
+        } else if (rank[rootA] > rank[rootB]) {
+            parent[rootB] = rootA;
+        } else {
+            parent[rootB] = rootA;
+            rank[rootA]++;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the chunk at an offset from another chunk in the same world.
+     */
+    private static ChunkPosition offset(ChunkPosition position, int dx, int dz) {
+        return new ChunkPosition(position.getWorld(), position.getX() + dx, position.getZ() + dz);
+    }
+}
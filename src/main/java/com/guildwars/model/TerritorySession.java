@@ -0,0 +1,118 @@
+package com.guildwars.model;
+
+/**
+ * Per-player cache of territory lookups.
+ * Holds the chunk the player is standing in, as tracked by the movement listener, and the
+ * last other chunk that was looked up (e.g. a block being broken next door). Each entry
+ * remembers the territory version it was resolved at, so repeated checks skip the claim lookup.
+ */
+public class TerritorySession {
+    private final ChunkLookup current = new ChunkLookup();
+    private final ChunkLookup lastLookup = new ChunkLookup();
+    private long lastDenyMessage;
+
+    /**
+     * Gets the lookup for the chunk the player is standing in.
+     *
+     * @return The current chunk lookup
+     */
+    public ChunkLookup getCurrent() {
+        return current;
+    }
+
+    /**
+     * Gets the lookup for the last chunk checked outside the player's current chunk.
+     *
+     * @return The last chunk lookup
+     */
+    public ChunkLookup getLastLookup() {
+        return lastLookup;
+    }
+
+    /**
+     * Checks whether a protection message may be sent, limiting them to one per interval.
+     *
+     * @param now The current time in milliseconds
+     * @param intervalMillis The minimum time between messages
+     * @return True if a message may be sent now
+     */
+    public boolean tryDenyMessage(long now, long intervalMillis) {
+        if (now - lastDenyMessage < intervalMillis) {
+            return false;
+        }
+        lastDenyMessage = now;
+        return true;
+    }
+
+    /**
+     * A resolved chunk: its coordinates, the territory version, the owner and the player's access.
+     */
+    public static class ChunkLookup {
+        private String world;
+        private int chunkX;
+        private int chunkZ;
+        private int version = -1;
+        private Guild owner;
+        private TerritoryAccess access = TerritoryAccess.WILDERNESS;
+
+        /**
+         * Checks whether this lookup is for the given chunk and still current.
+         *
+         * @param world The world name
+         * @param chunkX The chunk x coordinate
+         * @param chunkZ The chunk z coordinate
+         * @param version The current territory version
+         * @return True if the owner and access can be reused
+         */
+        public boolean isFor(String world, int chunkX, int chunkZ, int version) {
+            return this.version == version && this.chunkX == chunkX && this.chunkZ == chunkZ
+                    && world.equals(this.world);
+        }
+
+        /**
+         * Stores the result of a territory lookup.
+         *
+         * @param world The world name
+         * @param chunkX The chunk x coordinate
+         * @param chunkZ The chunk z coordinate
+         * @param version The territory version the lookup was made at
+         * @param owner The owning guild, or null for wilderness
+         * @param access The player's access to the chunk
+         */
+        public void set(String world, int chunkX, int chunkZ, int version, Guild owner, TerritoryAccess access) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.version = version;
+            this.owner = owner;
+            this.access = access;
+        }
+
+        /**
+         * Gets the territory version this lookup was made at.
+         *
+         * @return The territory version
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Gets the owner of the chunk.
+         *
+         * @return The owning guild, or null for wilderness
+         */
+        public Guild getOwner() {
+            return owner;
+        }
+
+        /**
+         * Gets the player's access to the chunk.
+         *
+         * @return The territory access
+         */
+        public TerritoryAccess getAccess() {
+            return access;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.guildwars.model;
+
+/**
+ * Represents a war between two guilds with a fixed start and end time.
+ */
+public class War {
+    private final String attackerId;
+    private final String defenderId;
+    private final long startTime;
+    private final long endTime;
+
+    /**
+     * Creates a new war.
+     *
+     * @param attackerId The ID of the guild that declared the war
+     * @param defenderId The ID of the guild war was declared on
+     * @param startTime The time the war started, in milliseconds since the epoch
+     * @param endTime The time the war ends, in milliseconds since the epoch
+     */
+    public War(String attackerId, String defenderId, long startTime, long endTime) {
+        this.attackerId = attackerId;
+        this.defenderId = defenderId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    /**
+     * Gets a key identifying the pair of guilds, independent of who declared the war.
+     *
+     * @param guild1Id The ID of one guild
+     * @param guild2Id The ID of the other guild
+     * @return The pair key
+     */
+    public static String pairKey(String guild1Id, String guild2Id) {
+        return guild1Id.compareTo(guild2Id) < 0 ? guild1Id + ":" + guild2Id : guild2Id + ":" + guild1Id;
+    }
+
+    /**
+     * Gets the key identifying the two guilds at war.
+     *
+     * @return The pair key
+     */
+    public String getPairKey() {
+        return pairKey(attackerId, defenderId);
+    }
+
+    /**
+     * Gets the ID of the guild that declared the war.
+     *
+     * @return The attacker's guild ID
+     */
+    public String getAttackerId() {
+        return attackerId;
+    }
+
+    /**
+     * Gets the ID of the guild war was declared on.
+     *
+     * @return The defender's guild ID
+     */
+    public String getDefenderId() {
+        return defenderId;
+    }
+
+    /**
+     * Checks whether a guild takes part in the war.
+     *
+     * @param guildId The guild ID
+     * @return True if the guild is the attacker or defender
+     */
+    public boolean involves(String guildId) {
+        return attackerId.equals(guildId) || defenderId.equals(guildId);
+    }
+
+    /**
+     * Gets the ID of the other guild in the war.
+     *
+     * @param guildId The ID of one of the guilds
+     * @return The ID of the opposing guild
+     */
+    public String getOpponentId(String guildId) {
+        return attackerId.equals(guildId) ? defenderId : attackerId;
+    }
+
+    /**
+     * Gets the time the war started.
+     *
+     * @return The start time in milliseconds since the epoch
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Gets the time the war ends.
+     *
+     * @return The end time in milliseconds since the epoch
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+}
@@ -0,0 +1,120 @@
+package com.guildwars.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Aggregated scoreboard of a war: kills, deaths and points per guild and per player.
+ */
+public class WarScore {
+
+    public static final int KILLS = 0;
+    public static final int DEATHS = 1;
+    public static final int POINTS = 2;
+    public static final int STAT_COUNT = 3;
+
+    private final String attackerId;
+    private final String defenderId;
+    private final long[] attackerStats = new long[STAT_COUNT];
+    private final long[] defenderStats = new long[STAT_COUNT];
+    private final Map<UUID, long[]> playerStats = new HashMap<>();
+
+    /**
+     * Creates an empty scoreboard for a war.
+     *
+     * @param attackerId The ID of the guild that declared the war
+     * @param defenderId The ID of the guild war was declared on
+     */
+    public WarScore(String attackerId, String defenderId) {
+        this.attackerId = attackerId;
+        this.defenderId = defenderId;
+    }
+
+    /**
+     * Gets the ID of the guild that declared the war.
+     *
+     * @return The attacker's guild ID
+     */
+    public String getAttackerId() {
+        return attackerId;
+    }
+
+    /**
+     * Gets the ID of the guild war was declared on.
+     *
+     * @return The defender's guild ID
+     */
+    public String getDefenderId() {
+        return defenderId;
+    }
+
+    /**
+     * Gets a guild's total for a stat.
+     *
+     * @param guildId The guild ID
+     * @param stat KILLS, DEATHS or POINTS
+     * @return The total, or 0 if the guild is not part of the war
+     */
+    public long getGuildStat(String guildId, int stat) {
+        long[] stats = getGuildStats(guildId);
+        return stats != null ? stats[stat] : 0;
+    }
+
+    /**
+     * Adds to a guild's total for a stat.
+     *
+     * @param guildId The guild ID
+     * @param stat KILLS, DEATHS or POINTS
+     * @param amount The amount to add
+     */
+    public void addGuildStat(String guildId, int stat, long amount) {
+        long[] stats = getGuildStats(guildId);
+        if (stats != null) {
+            stats[stat] += amount;
+        }
+    }
+
+    /**
+     * Gets a player's total for a stat.
+     *
+     * @param playerId The player's UUID
+     * @param stat KILLS, DEATHS or POINTS
+     * @return The total
+     */
+    public long getPlayerStat(UUID playerId, int stat) {
+        long[] stats = playerStats.get(playerId);
+        return stats != null ? stats[stat] : 0;
+    }
+
+    /**
+     * Adds to a player's total for a stat.
+     *
+     * @param playerId The player's UUID
+     * @param stat KILLS, DEATHS or POINTS
+     * @param amount The amount to add
+     */
+    public void addPlayerStat(UUID playerId, int stat, long amount) {
+        playerStats.computeIfAbsent(playerId, id -> new long[STAT_COUNT])[stat] += amount;
+    }
+
+    /**
+     * Gets the stats of every player who scored or died in the war.
+     *
+     * @return The map of player UUIDs to their kills, deaths and points
+     */
+    public Map<UUID, long[]> getPlayerStats() {
+        return Collections.unmodifiableMap(playerStats);
+    }
+
+    private long[] getGuildStats(String guildId) {
+        if (attackerId.equals(guildId)) {
+            return attackerStats;
+        }
+        if (defenderId.equals(guildId)) {
+            return defenderStats;
+        }
+        return null;
+    }
+}
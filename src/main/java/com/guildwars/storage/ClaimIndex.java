@@ -0,0 +1,285 @@
+package com.guildwars.storage;
+
+import com.guildwars.model.ChunkPosition;
+import com.guildwars.model.Guild;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Chunk-to-guild lookup table keyed by packed chunk coordinates.
+ * Each world gets an open-addressing table of primitive longs, so looking up the owner
+ * of a chunk from raw coordinates does not allocate.
+ * The index also keeps a version per 16x16-chunk region so caches built from it
+ * can tell which areas changed, and a border mask per claimed chunk marking the sides
+ * that face land not owned by the same guild.
+ */
+public class ClaimIndex {
+
+    // Border sides; offsets are indexed by side bit position
+    public static final int NORTH = 1;
+    public static final int EAST = 2;
+    public static final int SOUTH = 4;
+    public static final int WEST = 8;
+    private static final int[] SIDE_DX = {0, 1, 0, -1};
+    private static final int[] SIDE_DZ = {-1, 0, 1, 0};
+
+    private final Map<String, ChunkTable> worlds = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> regionVersions = new HashMap<>();
+
+    /**
+     * Packs chunk coordinates into a single long key.
+     *
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The packed key
+     */
+    public static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the guild that owns a chunk.
+     *
+     * @param world The world name
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The owning guild, or null if the chunk is wilderness
+     */
+    public Guild get(String world, int chunkX, int chunkZ) {
+        ChunkTable table = worlds.get(world);
+        return table != null ? table.get(pack(chunkX, chunkZ)) : null;
+    }
+
+    /**
+     * Gets the border sides of a claimed chunk.
+     *
+     * @param world The world name
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return A mask of NORTH, EAST, SOUTH and WEST for sides facing land the owner does not hold, or 0 if unclaimed
+     */
+    public int getBorderMask(String world, int chunkX, int chunkZ) {
+        ChunkTable table = worlds.get(world);
+        return table != null ? table.getBorders(pack(chunkX, chunkZ)) : 0;
+    }
+
+    /**
+     * Records the owner of a chunk.
+     * The border masks of the chunk and its neighbours are updated incrementally.
+     *
+     * @param position The chunk position
+     * @param guild The owning guild
+     */
+    public void put(ChunkPosition position, Guild guild) {
+        ChunkTable table = worlds.computeIfAbsent(position.getWorld(), world -> new ChunkTable());
+        int x = position.getX();
+        int z = position.getZ();
+
+        // Sides touching the same guild are no longer borders, on either side
+        int mask = 0;
+        for (int side = 0; side < 4; side++) {
+            long neighbour = pack(x + SIDE_DX[side], z + SIDE_DZ[side]);
+            if (table.get(neighbour) == guild) {
+                table.updateBorders(neighbour, 0, 1 << ((side + 2) & 3));
+            } else {
+                mask |= 1 << side;
+            }
+        }
+
+        long key = pack(x, z);
+        Guild previous = table.put(key, guild, mask);
+        if (previous != null && previous != guild) {
+            // The neighbours of the old owner now face foreign land here
+            restoreNeighbourBorders(table, x, z, previous);
+        }
+        touchRegion(position.getWorld(), x >> 4, z >> 4);
+    }
+
+    /**
+     * Removes the owner of a chunk.
+     *
+     * @param position The chunk position
+     * @return The previous owner, or null if the chunk was not claimed
+     */
+    public Guild remove(ChunkPosition position) {
+        ChunkTable table = worlds.get(position.getWorld());
+        Guild previous = table != null ? table.remove(pack(position.getX(), position.getZ())) : null;
+        if (previous != null) {
+            restoreNeighbourBorders(table, position.getX(), position.getZ(), previous);
+            touchRegion(position.getWorld(), position.getX() >> 4, position.getZ() >> 4);
+        }
+        return previous;
+    }
+
+    /**
+     * Marks the sides of a guild's chunks around a chunk it no longer owns as borders.
+     */
+    private void restoreNeighbourBorders(ChunkTable table, int x, int z, Guild guild) {
+        for (int side = 0; side < 4; side++) {
+            long neighbour = pack(x + SIDE_DX[side], z + SIDE_DZ[side]);
+            if (table.get(neighbour) == guild) {
+                table.updateBorders(neighbour, 1 << ((side + 2) & 3), 0);
+            }
+        }
+    }
+
+    /**
+     * Removes all claims from the index.
+     */
+    public void clear() {
+        // Every region that had claims changes, so bump their versions rather than resetting them
+        for (Map.Entry<String, ChunkTable> entry : worlds.entrySet()) {
+            ChunkTable table = entry.getValue();
+            for (int i = 0; i < table.keys.length; i++) {
+                if (table.values[i] != null) {
+                    long key = table.keys[i];
+                    touchRegion(entry.getKey(), (int) (key >> 32) >> 4, (int) key >> 4);
+                }
+            }
+        }
+        worlds.clear();
+    }
+
+    /**
+     * Gets the version of a region, which changes whenever a chunk inside it is claimed or unclaimed.
+     *
+     * @param world The world name
+     * @param regionX The region x coordinate (chunk x shifted right by 4)
+     * @param regionZ The region z coordinate (chunk z shifted right by 4)
+     * @return The region version
+     */
+    public int getRegionVersion(String world, int regionX, int regionZ) {
+        Map<Long, Integer> versions = regionVersions.get(world);
+        if (versions == null) {
+            return 0;
+        }
+        return versions.getOrDefault(pack(regionX, regionZ), 0);
+    }
+
+    /**
+     * Bumps the version of a region.
+     */
+    private void touchRegion(String world, int regionX, int regionZ) {
+        regionVersions.computeIfAbsent(world, name -> new HashMap<>())
+                .merge(pack(regionX, regionZ), 1, Integer::sum);
+    }
+
+    /**
+     * Open-addressing hash table from packed chunk keys to guilds using linear probing.
+     * A null value marks an empty slot; removal shifts later entries back to keep probe chains intact.
+     * Each entry also carries the chunk's border mask.
+     */
+    private static final class ChunkTable {
+        private long[] keys = new long[64];
+        private Guild[] values = new Guild[64];
+        private byte[] borders = new byte[64];
+        private int size;
+
+        Guild get(long key) {
+            int slot = find(key);
+            return slot >= 0 ? values[slot] : null;
+        }
+
+        int getBorders(long key) {
+            int slot = find(key);
+            return slot >= 0 ? borders[slot] : 0;
+        }
+
+        void updateBorders(long key, int set, int clear) {
+            int slot = find(key);
+            if (slot >= 0) {
+                borders[slot] = (byte) ((borders[slot] | set) & ~clear);
+            }
+        }
+
+        Guild put(long key, Guild value, int border) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize();
+            }
+
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    Guild previous = values[slot];
+                    values[slot] = value;
+                    borders[slot] = (byte) border;
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            borders[slot] = (byte) border;
+            size++;
+            return null;
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        Guild remove(long key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (values[slot] != null && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] == null) {
+                return null;
+            }
+
+            Guild previous = values[slot];
+            int gap = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (values[next] == null) {
+                    break;
+                }
+
+                // Move the entry back unless its home slot lies cyclically in (gap, next]
+                int home = mix(keys[next]) & mask;
+                boolean stays = gap < next ? (home > gap && home <= next) : (home > gap || home <= next);
+                if (!stays) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    borders[gap] = borders[next];
+                    gap = next;
+                }
+            }
+            values[gap] = null;
+            size--;
+            return previous;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Guild[] oldValues = values;
+            byte[] oldBorders = borders;
+            keys = new long[oldKeys.length * 2];
+            values = new Guild[oldValues.length * 2];
+            borders = new byte[oldBorders.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    put(oldKeys[i], oldValues[i], oldBorders[i]);
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+}
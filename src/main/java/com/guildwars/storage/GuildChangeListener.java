@@ -0,0 +1,46 @@
+package com.guildwars.storage;
+
+import com.guildwars.model.Guild;
+
+import java.util.UUID;
+
+/**
+ * Receives notifications when guilds are created, changed or deleted in storage,
+ * so derived views can be updated for just the guild that changed.
+ */
+public interface GuildChangeListener {
+
+    /**
+     * Called after a guild was created or one of its members, roles, relations, claims or stats changed.
+     *
+     * @param guild The guild that changed
+     */
+    void onGuildChanged(Guild guild);
+
+    /**
+     * Called after a guild was deleted.
+     *
+     * @param guild The deleted guild
+     */
+    void onGuildDeleted(Guild guild);
+
+    /**
+     * Called after a player became a member of a guild, including the leader of a new guild.
+     * The guild's onGuildChanged notification follows.
+     *
+     * @param guild The guild
+     * @param playerId The player's UUID
+     */
+    default void onMemberAdded(Guild guild, UUID playerId) {
+    }
+
+    /**
+     * Called after a player was removed from a guild.
+     * The guild's onGuildChanged notification follows.
+     *
+     * @param guild The guild
+     * @param playerId The player's UUID
+     */
+    default void onMemberRemoved(Guild guild, UUID playerId) {
+    }
+}
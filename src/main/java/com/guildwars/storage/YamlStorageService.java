@@ -35,6 +35,13 @@ public class YamlStorageService {
     private final Map<UUID, Guild> guildCache = new HashMap<>();
     private final Map<UUID, UUID> playerGuildCache = new HashMap<>();
     private final Map<ChunkPosition, UUID> claimCache = new HashMap<>();
+    private final ClaimIndex claimIndex = new ClaimIndex();
+    
+    // Bumped whenever claims, memberships or relations change so cached territory lookups can be invalidated
+    private int territoryVersion;
+    
+    // Notified about guild changes so derived views can be updated incrementally
+    private final List<GuildChangeListener> changeListeners = new ArrayList<>();
     
     public YamlStorageService(GuildWars plugin) {
         this.plugin = plugin;
@@ -88,6 +95,8 @@ public class YamlStorageService {
         guildCache.clear();
         playerGuildCache.clear();
         claimCache.clear();
+        claimIndex.clear();
+        territoryVersion++;
         
         // Load guilds
         ConfigurationSection guildsSection = guildsConfig.getConfigurationSection("guilds");
@@ -101,9 +110,13 @@ public class YamlStorageService {
                     String description = guildSection.getString("description", "");
                     UUID leaderId = UUID.fromString(guildSection.getString("leader"));
                     
-                    // Create guild using the available constructor
-                    Guild guild = new Guild(name, leaderId);
+                    // Keep the stored ID so claims and relations still refer to this guild
+                    Guild guild = new Guild(guildIdStr, name, leaderId);
                     guild.setDescription(description);
+                    if (guildSection.contains("created")) {
+                        guild.setCreationDate(new Date(guildSection.getLong("created")));
+                    }
+                    guild.addWarKills(guildSection.getLong("war-kills", 0));
                     
                     // Load members
                     List<String> memberList = guildSection.getStringList("members");
@@ -171,6 +184,7 @@ public class YamlStorageService {
                                     Guild guild = guildCache.get(guildId);
                                     if (guild != null) {
                                         guild.claim(position);
+                                        claimIndex.put(position, guild);
                                     }
                                 }
                             } catch (NumberFormatException e) {
@@ -242,6 +256,8 @@ public class YamlStorageService {
             guildsConfig.set(path + ".name", guild.getName());
             guildsConfig.set(path + ".description", guild.getDescription());
             guildsConfig.set(path + ".leader", guild.getLeader().toString());
+            guildsConfig.set(path + ".created", guild.getCreationDate().getTime());
+            guildsConfig.set(path + ".war-kills", guild.getWarKills());
             
             // Save members
             List<String> memberList = new ArrayList<>();
@@ -333,6 +349,27 @@ public class YamlStorageService {
         saveData();
     }
     
+    /**
+     * Register a listener that is notified when guilds change.
+     *
+     * @param listener The listener
+     */
+    public void addChangeListener(GuildChangeListener listener) {
+        changeListeners.add(listener);
+    }
+    
+    /**
+     * Notify the change listeners that a guild changed.
+     * Storage calls this for its own mutations; callers that change guild stats directly call it themselves.
+     *
+     * @param guild The guild that changed
+     */
+    public void notifyGuildChanged(Guild guild) {
+        for (GuildChangeListener listener : changeListeners) {
+            listener.onGuildChanged(guild);
+        }
+    }
+    
     /**
      * Create a new guild.
      *
@@ -357,6 +394,10 @@ public class YamlStorageService {
         UUID guildId = UUID.fromString(guild.getId());
         guildCache.put(guildId, guild);
         playerGuildCache.put(leader, guildId);
+        for (GuildChangeListener listener : changeListeners) {
+            listener.onMemberAdded(guild, leader);
+        }
+        notifyGuildChanged(guild);
         
         // Save data
         saveData();
@@ -432,6 +473,11 @@ public class YamlStorageService {
         // Remove all claims from claim cache
         for (ChunkPosition claim : guild.getClaims()) {
             claimCache.remove(claim);
+            claimIndex.remove(claim);
+        }
+        territoryVersion++;
+        for (GuildChangeListener listener : changeListeners) {
+            listener.onGuildDeleted(guild);
         }
         
         // Save data
@@ -458,6 +504,11 @@ public class YamlStorageService {
         
         // Add to player-guild cache
         playerGuildCache.put(playerId, UUID.fromString(guild.getId()));
+        territoryVersion++;
+        for (GuildChangeListener listener : changeListeners) {
+            listener.onMemberAdded(guild, playerId);
+        }
+        notifyGuildChanged(guild);
         
         // Save data
         saveData();
@@ -483,6 +534,11 @@ public class YamlStorageService {
         
         // Remove from player-guild cache
         playerGuildCache.remove(playerId);
+        territoryVersion++;
+        for (GuildChangeListener listener : changeListeners) {
+            listener.onMemberRemoved(guild, playerId);
+        }
+        notifyGuildChanged(guild);
         
         // Save data
         saveData();
@@ -505,6 +561,7 @@ public class YamlStorageService {
         
         // Promote player
         guild.addOfficer(playerId);
+        notifyGuildChanged(guild);
         
         // Save data
         saveData();
@@ -527,6 +584,7 @@ public class YamlStorageService {
         
         // Demote player
         guild.removeOfficer(playerId);
+        notifyGuildChanged(guild);
         
         // Save data
         saveData();
@@ -549,6 +607,7 @@ public class YamlStorageService {
         
         // Set leader
         guild.setLeader(playerId);
+        notifyGuildChanged(guild);
         
         // Save data
         saveData();
@@ -597,6 +656,52 @@ public class YamlStorageService {
         return guildCache.get(guildId);
     }
     
+    /**
+     * Get the guild that owns a chunk from raw chunk coordinates without allocating.
+     *
+     * @param world  The world name
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The guild, or null if the chunk is not claimed
+     */
+    public Guild getChunkOwner(String world, int chunkX, int chunkZ) {
+        return claimIndex.get(world, chunkX, chunkZ);
+    }
+    
+    /**
+     * Get the border sides of a claimed chunk.
+     *
+     * @param world  The world name
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return A mask of ClaimIndex.NORTH, EAST, SOUTH and WEST for sides facing land the owner does not hold
+     */
+    public int getBorderMask(String world, int chunkX, int chunkZ) {
+        return claimIndex.getBorderMask(world, chunkX, chunkZ);
+    }
+    
+    /**
+     * Get the version of a 16x16-chunk region, which changes whenever a chunk inside it is claimed or unclaimed.
+     *
+     * @param world   The world name
+     * @param regionX The region x coordinate
+     * @param regionZ The region z coordinate
+     * @return The region version
+     */
+    public int getRegionVersion(String world, int regionX, int regionZ) {
+        return claimIndex.getRegionVersion(world, regionX, regionZ);
+    }
+    
+    /**
+     * Get the current territory version.
+     * The version changes whenever claims, guild memberships or relations change.
+     *
+     * @return The territory version
+     */
+    public int getTerritoryVersion() {
+        return territoryVersion;
+    }
+    
     /**
      * Get the guild ID that owns a chunk.
      *
@@ -637,6 +742,17 @@ public class YamlStorageService {
         return false;
     }
     
+    /**
+     * Check if unclaiming a chunk would split a guild's territory into disconnected parts.
+     *
+     * @param guild    The guild
+     * @param position The chunk position
+     * @return True if unclaiming the chunk would split the territory, false otherwise
+     */
+    public boolean wouldSplitTerritory(Guild guild, ChunkPosition position) {
+        return guild.wouldSplitTerritory(position);
+    }
+    
     /**
      * Get all claims for a guild.
      *
@@ -681,6 +797,9 @@ public class YamlStorageService {
         
         // Add to claim cache
         claimCache.put(position, UUID.fromString(guild.getId()));
+        claimIndex.put(position, guild);
+        territoryVersion++;
+        notifyGuildChanged(guild);
         
         // Save data
         saveData();
@@ -709,6 +828,9 @@ public class YamlStorageService {
         
         // Remove from claim cache
         claimCache.remove(position);
+        claimIndex.remove(position);
+        territoryVersion++;
+        notifyGuildChanged(guild);
         
         // Save data
         saveData();
@@ -716,6 +838,66 @@ public class YamlStorageService {
         return true;
     }
     
+    /**
+     * Claim several chunks for a guild at once.
+     * Either every chunk is claimed or, if any of them is already claimed, none are.
+     * The data is saved once for the whole set.
+     *
+     * @param guild     The guild
+     * @param positions The chunk positions
+     * @return True if the chunks were claimed, false otherwise
+     */
+    public boolean claimChunks(Guild guild, Collection<ChunkPosition> positions) {
+        // Check that none of the chunks are claimed before changing anything
+        for (ChunkPosition position : positions) {
+            if (claimCache.containsKey(position)) {
+                return false;
+            }
+        }
+        
+        UUID guildId = UUID.fromString(guild.getId());
+        for (ChunkPosition position : positions) {
+            guild.claim(position);
+            claimCache.put(position, guildId);
+            claimIndex.put(position, guild);
+        }
+        territoryVersion++;
+        notifyGuildChanged(guild);
+        
+        // Save data
+        saveData();
+        
+        return true;
+    }
+    
+    /**
+     * Unclaim every chunk of a guild and clear its home, which no longer lies in its territory.
+     * The data is saved once for the whole territory.
+     *
+     * @param guild The guild
+     * @return The number of chunks that were unclaimed
+     */
+    public int unclaimAllChunks(Guild guild) {
+        Set<ChunkPosition> claims = new HashSet<>(guild.getClaims());
+        if (claims.isEmpty()) {
+            return 0;
+        }
+        
+        for (ChunkPosition position : claims) {
+            claimCache.remove(position);
+            claimIndex.remove(position);
+        }
+        guild.unclaimAll();
+        guild.setHome(null);
+        territoryVersion++;
+        notifyGuildChanged(guild);
+        
+        // Save data
+        saveData();
+        
+        return claims.size();
+    }
+    
     /**
      * Set the relation between two guilds.
      *
@@ -735,6 +917,9 @@ public class YamlStorageService {
         // Set relation
         guild1.setRelation(guild2.getId(), relation);
         guild2.setRelation(guild1.getId(), relation);
+        territoryVersion++;
+        notifyGuildChanged(guild1);
+        notifyGuildChanged(guild2);
         
         // Save data
         saveData();
@@ -760,6 +945,9 @@ public class YamlStorageService {
         // Remove relation
         guild1.setRelation(guild2.getId(), Relation.NEUTRAL);
         guild2.setRelation(guild1.getId(), Relation.NEUTRAL);
+        territoryVersion++;
+        notifyGuildChanged(guild1);
+        notifyGuildChanged(guild2);
         
         // Save data
         saveData();
@@ -0,0 +1,198 @@
+package com.guildwars.util;
+
+import com.guildwars.GuildWars;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.minimessage.Context;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.ArgumentQueue;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the configured plugin messages as pre-parsed Adventure components.
+ * Every entry of the messages section is parsed with MiniMessage once when the configuration
+ * is loaded, with the prefix already in front. Placeholders such as {@code <guild>} become slots
+ * in the parsed component, and sending a message only fills the slots with plain text instead
+ * of parsing the message again. Messages without placeholders are the same component instance
+ * on every send. Legacy {@code &} color codes and {@code %name%} placeholders are still accepted.
+ */
+public class MessageManager {
+
+    private static final String SLOT_KEY_PREFIX = "guildwars.slot.";
+    private static final String LEGACY_CODES = "0123456789abcdefklmnor";
+    private static final String[] LEGACY_TAGS = {
+            "black", "dark_blue", "dark_green", "dark_aqua", "dark_red", "dark_purple", "gold", "gray",
+            "dark_gray", "blue", "green", "aqua", "red", "light_purple", "yellow", "white",
+            "obfuscated", "bold", "strikethrough", "underlined", "italic", "reset"
+    };
+    private static final Pattern LEGACY_PLACEHOLDER = Pattern.compile("%([a-z0-9_]+)%");
+
+    private final GuildWars plugin;
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+
+    // Unknown tags in a message are placeholders, which are parsed into slot components
+    private final TagResolver slotResolver = new TagResolver() {
+        @Override
+        public Tag resolve(String name, ArgumentQueue arguments, Context ctx) {
+            return Tag.selfClosingInserting(Component.translatable(SLOT_KEY_PREFIX + name));
+        }
+
+        @Override
+        public boolean has(String name) {
+            return !TagResolver.standard().has(name);
+        }
+    };
+
+    // Parsed messages by key, replaced as a whole on reload
+    private volatile Map<String, Template> templates = new ConcurrentHashMap<>();
+    private volatile Component prefix = Component.empty();
+
+    /**
+     * Creates a new message manager and parses the configured messages.
+     *
+     * @param plugin The plugin instance
+     */
+    public MessageManager(GuildWars plugin) {
+        this.plugin = plugin;
+        loadMessages();
+    }
+
+    /**
+     * Parses all messages from the configuration, replacing the previously parsed ones.
+     */
+    public void loadMessages() {
+        prefix = parse(plugin.getConfig().getString("messages.prefix", ""));
+
+        Map<String, Template> parsed = new ConcurrentHashMap<>();
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("messages");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                if (!key.equals("prefix") && section.isString(key)) {
+                    parsed.put(key, new Template(prefix.append(parse(section.getString(key)))));
+                }
+            }
+        }
+        templates = parsed;
+    }
+
+    /**
+     * Gets a message with its placeholders filled in.
+     *
+     * @param key The key of the message in the messages section
+     * @param fallback The message to use if the key is not configured
+     * @param placeholders Alternating placeholder names and values, e.g. "guild", "Knights"
+     * @return The message component, including the prefix
+     */
+    public Component getMessage(String key, String fallback, String... placeholders) {
+        Template template = templates.computeIfAbsent(key, k -> new Template(prefix.append(parse(fallback))));
+        return template.fill(placeholders);
+    }
+
+    /**
+     * Parses a configured message, converting legacy color codes and placeholders to MiniMessage first.
+     *
+     * @param message The configured message
+     * @return The parsed component
+     */
+    private Component parse(String message) {
+        return miniMessage.deserialize(toMiniMessage(message), slotResolver);
+    }
+
+    /**
+     * Converts legacy {@code &}/{@code §} color codes to MiniMessage tags and {@code %name%}
+     * placeholders to {@code <name>} tags.
+     *
+     * @param message The message
+     * @return The message in MiniMessage syntax
+     */
+    static String toMiniMessage(String message) {
+        StringBuilder builder = new StringBuilder(message.length() + 16);
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            int code = i + 1 < message.length() && (c == '&' || c == '§')
+                    ? LEGACY_CODES.indexOf(Character.toLowerCase(message.charAt(i + 1))) : -1;
+            if (code < 0) {
+                builder.append(c);
+                continue;
+            }
+            builder.append('<').append(LEGACY_TAGS[code]).append('>');
+            i++;
+        }
+        return LEGACY_PLACEHOLDER.matcher(builder).replaceAll("<$1>");
+    }
+
+    /**
+     * A parsed message and whether it has slots to fill.
+     */
+    private static final class Template {
+        private final Component component;
+        private final boolean hasSlots;
+
+        Template(Component component) {
+            this.component = component;
+            this.hasSlots = containsSlot(component);
+        }
+
+        /**
+         * Fills the slots of the message.
+         *
+         * @param placeholders Alternating placeholder names and values
+         * @return The filled message, or the parsed message itself if it has no slots
+         */
+        Component fill(String[] placeholders) {
+            return hasSlots ? fill(component, placeholders) : component;
+        }
+
+        private static Component fill(Component component, String[] placeholders) {
+            if (component instanceof TranslatableComponent) {
+                String key = ((TranslatableComponent) component).key();
+                if (key.startsWith(SLOT_KEY_PREFIX)) {
+                    String name = key.substring(SLOT_KEY_PREFIX.length());
+                    String value = "<" + name + ">"; // Unknown placeholders are shown as written
+                    for (int i = 0; i + 1 < placeholders.length; i += 2) {
+                        if (placeholders[i].equals(name)) {
+                            value = placeholders[i + 1];
+                            break;
+                        }
+                    }
+                    return Component.text(value, component.style());
+                }
+            }
+
+            List<Component> children = component.children();
+            if (children.isEmpty()) {
+                return component;
+            }
+
+            List<Component> filled = new ArrayList<>(children.size());
+            boolean changed = false;
+            for (Component child : children) {
+                Component filledChild = fill(child, placeholders);
+                changed |= filledChild != child;
+                filled.add(filledChild);
+            }
+            return changed ? component.children(filled) : component;
+        }
+
+        private static boolean containsSlot(Component component) {
+            if (component instanceof TranslatableComponent
+                    && ((TranslatableComponent) component).key().startsWith(SLOT_KEY_PREFIX)) {
+                return true;
+            }
+            for (Component child : component.children()) {
+                if (containsSlot(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
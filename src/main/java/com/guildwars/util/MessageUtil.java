@@ -1,5 +1,8 @@
 package com.guildwars.util;
 
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.command.CommandSender;
 import org.bukkit.plugin.Plugin;
 
@@ -9,6 +12,7 @@ import org.bukkit.plugin.Plugin;
 public class MessageUtil {
     
     private static Plugin plugin;
+    private static Audience onlinePlayers = Audience.empty();
     private static String groupTerm = "guild";
     
     /**
@@ -21,6 +25,8 @@ public class MessageUtil {
         
         // Load custom group term from config
         if (plugin != null) {
+            // Backed by the server's live view of online players, so it never has to be rebuilt
+            onlinePlayers = Audience.audience(plugin.getServer().getOnlinePlayers());
             groupTerm = plugin.getConfig().getString("general.group-term", "guild");
         }
     }
@@ -75,16 +81,33 @@ public class MessageUtil {
         sender.sendMessage("§6§l" + message);
     }
     
+    /**
+     * Converts a message with legacy § color codes to a component.
+     *
+     * @param message The message
+     * @return The component
+     */
+    public static Component toComponent(String message) {
+        return LegacyComponentSerializer.legacySection().deserialize(message);
+    }
+    
     /**
      * Broadcasts a message to all online players.
+     * The message is converted to a component once and the same component is sent to everyone.
      *
      * @param message The message to broadcast
      */
     public static void broadcast(String message) {
-        if (plugin != null) {
-            plugin.getServer().getOnlinePlayers().forEach(player -> 
-                player.sendMessage(message));
-        }
+        broadcast(toComponent(message));
+    }
+    
+    /**
+     * Broadcasts a component to all online players, sending the same instance to each of them.
+     *
+     * @param message The message to broadcast
+     */
+    public static void broadcast(Component message) {
+        onlinePlayers.sendMessage(message);
     }
     
     /**
@@ -110,6 +133,7 @@ public class MessageUtil {
      */
     public static void close() {
         plugin = null;
+        onlinePlayers = Audience.empty();
     }
     
     /**
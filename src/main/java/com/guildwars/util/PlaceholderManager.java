@@ -6,9 +6,17 @@ import com.guildwars.model.Guild;
 import org.bukkit.entity.Player;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Manages placeholders for the GuildWars plugin.
  * This class handles retrieving and formatting guild-related placeholders.
+ * The chat format is compiled into a list of literal and placeholder tokens when the
+ * configuration is loaded, so formatting a message is a single pass over the tokens with
+ * one guild lookup. Chat formatted off the main thread is rendered from a {@link ChatProfile},
+ * an immutable snapshot of the sender's guild information taken on the main thread.
  */
 public class PlaceholderManager {
 
@@ -25,8 +33,11 @@ public class PlaceholderManager {
     private String officerColor;
     private String memberColor;
     
-    // Chat format
-    private String chatFormat;
+    // Chat format, compiled into tokens; replaced as a whole on reload so chat threads never see a partial template
+    private volatile Token[] chatTemplate;
+    
+    // Reused per thread, since chat messages may be formatted off the main thread
+    private final ThreadLocal<StringBuilder> builders = ThreadLocal.withInitial(() -> new StringBuilder(128));
 
     /**
      * Creates a new PlaceholderManager.
@@ -55,9 +66,40 @@ public class PlaceholderManager {
         officerColor = config.getString("placeholders.colors.officer", "&9").replace('&', '§');
         memberColor = config.getString("placeholders.colors.member", "&a").replace('&', '§');
         
-        // Load chat format
-        chatFormat = config.getString("placeholders.chat-format", 
-                "&8[&r%guild_name%&8] %role_color%%guild_role% &r%player_name%&8: &r%message%").replace('&', '§');
+        // Load and compile chat format
+        chatTemplate = compile(config.getString("placeholders.chat-format", 
+                "&8[&r%guild_name%&8] %role_color%%guild_role% &r%player_name%&8: &r%message%").replace('&', '§'));
+    }
+    
+    /**
+     * Compiles a format into literal text and placeholder tokens.
+     * Text between percent signs that is not a known placeholder stays literal.
+     *
+     * @param format The format
+     * @return The tokens
+     */
+    private Token[] compile(String format) {
+        List<Token> tokens = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < format.length()) {
+            Placeholder placeholder = format.charAt(i) == '%' ? Placeholder.at(format, i) : null;
+            if (placeholder == null) {
+                literal.append(format.charAt(i++));
+                continue;
+            }
+            
+            if (literal.length() > 0) {
+                tokens.add(new Token(null, literal.toString()));
+                literal.setLength(0);
+            }
+            tokens.add(new Token(placeholder, placeholder.getKey()));
+            i += placeholder.getKey().length();
+        }
+        if (literal.length() > 0) {
+            tokens.add(new Token(null, literal.toString()));
+        }
+        return tokens.toArray(new Token[0]);
     }
 
     /**
@@ -122,7 +164,7 @@ public class PlaceholderManager {
             return "";
         }
         
-        return plugin.getServer().getOfflinePlayer(guild.getLeader()).getName();
+        return plugin.getPlayerNameCache().getName(guild.getLeader());
     }
     
     /**
@@ -154,16 +196,61 @@ public class PlaceholderManager {
      * @return The formatted chat message with guild information
      */
     public String formatChatMessage(Player player, String message) {
-        Guild guild = guildService.getGuildByPlayer(player.getUniqueId());
+        return formatChatMessage(player, guildService.getGuildByPlayer(player.getUniqueId()), message);
+    }
+    
+    /**
+     * Formats a chat message with the information of a guild the caller already looked up.
+     *
+     * @param player The player sending the message
+     * @param guild The player's guild, or null if they are not in a guild
+     * @param message The message content
+     * @return The formatted chat message, or null if the player is not in a guild
+     */
+    public String formatChatMessage(Player player, Guild guild, String message) {
         if (guild == null) {
             return null; // Return null to indicate no guild formatting should be applied
         }
         
-        String formatted = chatFormat;
-        formatted = formatted.replace("%message%", message);
-        formatted = replacePlaceholders(player, formatted);
+        return render(chatTemplate, player.getName(), createChatProfile(player.getUniqueId(), guild), message);
+    }
+    
+    /**
+     * Formats a chat message from a snapshot of the sender's guild information.
+     * Only reads the snapshot and the compiled chat format, so it is safe to call off the main thread.
+     *
+     * @param player The player sending the message
+     * @param profile The sender's chat profile
+     * @param message The message content
+     * @return The formatted chat message
+     */
+    public String formatChatMessage(Player player, ChatProfile profile, String message) {
+        return render(chatTemplate, player.getName(), profile, message);
+    }
+    
+    /**
+     * Takes a snapshot of a guild member's chat information. Must be called on the main thread.
+     *
+     * @param playerId The member's UUID
+     * @param guild The member's guild
+     * @return The chat profile
+     */
+    public ChatProfile createChatProfile(UUID playerId, Guild guild) {
+        String roleTag;
+        String roleColor;
+        if (guild.isLeader(playerId)) {
+            roleTag = leaderTag;
+            roleColor = leaderColor;
+        } else if (guild.isOfficer(playerId)) {
+            roleTag = officerTag;
+            roleColor = officerColor;
+        } else {
+            roleTag = memberTag;
+            roleColor = memberColor;
+        }
         
-        return formatted;
+        return new ChatProfile(guild.getName(), guildTag, roleTag, roleColor,
+                plugin.getPlayerNameCache().getName(guild.getLeader()));
     }
     
     /**
@@ -187,14 +274,124 @@ public class PlaceholderManager {
             return "";
         }
         
-        String result = input;
-        result = result.replace("%guild_name%", getGuildName(player));
-        result = result.replace("%guild_tag%", getGuildTag(player));
-        result = result.replace("%guild_role%", getRoleTag(player));
-        result = result.replace("%guild_leader%", getGuildLeader(player));
-        result = result.replace("%player_name%", player.getName());
-        result = result.replace("%role_color%", getRoleColor(player));
+        Guild guild = guildService.getGuildByPlayer(player.getUniqueId());
+        ChatProfile profile = guild != null ? createChatProfile(player.getUniqueId(), guild) : null;
+        return render(compile(input), player.getName(), profile, null);
+    }
+    
+    /**
+     * Renders compiled tokens for a player in one pass.
+     *
+     * @param tokens The compiled tokens
+     * @param playerName The player's name
+     * @param profile The player's chat profile, or null if they are not in a guild
+     * @param message The message for %message%, or null to leave the placeholder as is
+     * @return The rendered text
+     */
+    private String render(Token[] tokens, String playerName, ChatProfile profile, String message) {
+        StringBuilder builder = builders.get();
+        builder.setLength(0);
+        for (Token token : tokens) {
+            if (token.placeholder == null) {
+                builder.append(token.text);
+                continue;
+            }
+            
+            switch (token.placeholder) {
+                case GUILD_NAME:
+                    builder.append(profile != null ? profile.guildName : "");
+                    break;
+                case GUILD_TAG:
+                    builder.append(profile != null ? profile.guildTag : "");
+                    break;
+                case GUILD_ROLE:
+                    builder.append(profile != null ? profile.roleTag : "");
+                    break;
+                case GUILD_LEADER:
+                    builder.append(profile != null ? profile.leaderName : "");
+                    break;
+                case PLAYER_NAME:
+                    builder.append(playerName);
+                    break;
+                case ROLE_COLOR:
+                    builder.append(profile != null ? profile.roleColor : "");
+                    break;
+                case MESSAGE:
+                    builder.append(message != null ? message : token.text);
+                    break;
+            }
+        }
+        return builder.toString();
+    }
+    
+    /**
+     * The placeholders that can be used in formats.
+     */
+    private enum Placeholder {
+        GUILD_NAME("%guild_name%"),
+        GUILD_TAG("%guild_tag%"),
+        GUILD_ROLE("%guild_role%"),
+        GUILD_LEADER("%guild_leader%"),
+        PLAYER_NAME("%player_name%"),
+        ROLE_COLOR("%role_color%"),
+        MESSAGE("%message%");
+        
+        private final String key;
         
-        return result;
+        Placeholder(String key) {
+            this.key = key;
+        }
+        
+        String getKey() {
+            return key;
+        }
+        
+        /**
+         * Finds the placeholder that starts at a position in a format.
+         *
+         * @param format The format
+         * @param index The position of a percent sign
+         * @return The placeholder, or null if none starts there
+         */
+        static Placeholder at(String format, int index) {
+            for (Placeholder placeholder : values()) {
+                if (format.startsWith(placeholder.key, index)) {
+                    return placeholder;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * A piece of a compiled format: literal text, or a placeholder to fill in.
+     */
+    private static final class Token {
+        private final Placeholder placeholder;
+        private final String text;
+        
+        Token(Placeholder placeholder, String text) {
+            this.placeholder = placeholder;
+            this.text = text;
+        }
+    }
+    
+    /**
+     * An immutable snapshot of a guild member's chat information, safe to read from any thread.
+     */
+    public static final class ChatProfile {
+        private final String guildName;
+        private final String guildTag;
+        private final String roleTag;
+        private final String roleColor;
+        private final String leaderName;
+        
+        ChatProfile(String guildName, String guildTag, String roleTag, String roleColor, String leaderName) {
+            this.guildName = guildName;
+            this.guildTag = guildTag;
+            this.roleTag = roleTag;
+            this.roleColor = roleColor;
+            this.leaderName = leaderName;
+        }
     }
 }
@@ -0,0 +1,303 @@
+package com.guildwars.util;
+
+import com.guildwars.GuildWars;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Caches player names by UUID so guild listings never block on offline-player lookups.
+ * Names are recorded when players join, persisted to names.yml, and unknown UUIDs are
+ * queued and resolved one after another by a single async worker while callers get a fallback
+ * name, so warming the cache with every guild member never starts more than one thread. UUIDs
+ * the server has no name
+ * for are remembered, and only looked up again after a backoff that doubles with every miss.
+ */
+public class PlayerNameCache implements Listener {
+
+    private static final long SAVE_INTERVAL_TICKS = 20L * 60L * 5L; // 5 minutes
+    private static final long MIN_RETRY_MILLIS = 60_000L; // 1 minute
+    private static final long MAX_RETRY_MILLIS = 6 * 3_600_000L; // 6 hours
+
+    private final GuildWars plugin;
+    private final File namesFile;
+    private final Map<UUID, String> names = new ConcurrentHashMap<>();
+    private final Set<UUID> pendingLookups = ConcurrentHashMap.newKeySet();
+
+    // UUIDs waiting for the lookup worker, and whether the worker is scheduled or running
+    private final Queue<UUID> lookupQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean lookupRunning = new AtomicBoolean();
+
+    // UUIDs whose lookup found no name, and when they may be looked up again
+    private final Map<UUID, Miss> misses = new ConcurrentHashMap<>();
+    private final Object saveLock = new Object();
+    private volatile boolean dirty;
+    private BukkitTask saveTask;
+
+    /**
+     * Creates a new player name cache and loads the persisted names.
+     *
+     * @param plugin The plugin instance
+     */
+    public PlayerNameCache(GuildWars plugin) {
+        this.plugin = plugin;
+        this.namesFile = new File(plugin.getDataFolder(), "names.yml");
+
+        load();
+
+        // Record names of players who are already online (e.g. after a reload)
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            update(player.getUniqueId(), player.getName());
+        }
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+
+        // Periodically write changed names off the main thread
+        saveTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            if (dirty) {
+                save();
+            }
+        }, SAVE_INTERVAL_TICKS, SAVE_INTERVAL_TICKS);
+    }
+
+    /**
+     * Loads persisted names from names.yml.
+     */
+    private void load() {
+        if (!namesFile.exists()) {
+            return;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(namesFile);
+        ConfigurationSection section = config.getConfigurationSection("names");
+        if (section == null) {
+            return;
+        }
+
+        for (String key : section.getKeys(false)) {
+            try {
+                String name = section.getString(key);
+                if (name != null) {
+                    names.put(UUID.fromString(key), name);
+                }
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid UUID in names.yml: " + key);
+            }
+        }
+
+        plugin.getLogger().info("Loaded " + names.size() + " cached player names.");
+    }
+
+    /**
+     * Writes all cached names to names.yml. Safe to call from any thread.
+     */
+    public void save() {
+        synchronized (saveLock) {
+            dirty = false;
+
+            YamlConfiguration config = new YamlConfiguration();
+            for (Map.Entry<UUID, String> entry : new HashMap<>(names).entrySet()) {
+                config.set("names." + entry.getKey(), entry.getValue());
+            }
+
+            try {
+                config.save(namesFile);
+            } catch (IOException e) {
+                dirty = true;
+                plugin.getLogger().log(Level.SEVERE, "Failed to save names.yml", e);
+            }
+        }
+    }
+
+    /**
+     * Records a player's current name when they join, picking up name changes.
+     *
+     * @param event The player join event
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        update(player.getUniqueId(), player.getName());
+    }
+
+    /**
+     * Stores a name for a UUID, marking the cache dirty if it changed.
+     *
+     * @param playerId The player's UUID
+     * @param name The player's name
+     */
+    public void update(UUID playerId, String name) {
+        if (name == null) {
+            return;
+        }
+
+        misses.remove(playerId);
+        String previous = names.put(playerId, name);
+        if (!name.equals(previous)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Gets the name for a UUID without blocking.
+     * Unknown UUIDs are resolved in the background and a shortened UUID is returned meanwhile.
+     *
+     * @param playerId The player's UUID
+     * @return The cached name, or a fallback if it is not known yet
+     */
+    public String getName(UUID playerId) {
+        String name = names.get(playerId);
+        if (name != null) {
+            return name;
+        }
+
+        resolveAsync(playerId);
+        return playerId.toString().substring(0, 8);
+    }
+
+    /**
+     * Checks whether a name is cached for a UUID.
+     *
+     * @param playerId The player's UUID
+     * @return True if the name is known
+     */
+    public boolean isCached(UUID playerId) {
+        return names.containsKey(playerId);
+    }
+
+    /**
+     * Finds a UUID among candidates whose cached name matches, ignoring case.
+     *
+     * @param candidates The UUIDs to search, e.g. a guild's members
+     * @param name The name to look for
+     * @return The matching UUID, or null if none matches
+     */
+    public UUID findByName(Collection<UUID> candidates, String name) {
+        for (UUID candidate : candidates) {
+            String cached = names.get(candidate);
+            if (cached == null) {
+                resolveAsync(candidate);
+            } else if (cached.equalsIgnoreCase(name)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves any uncached UUIDs in the background so later lookups are hits.
+     *
+     * @param playerIds The UUIDs to warm
+     */
+    public void prefetch(Collection<UUID> playerIds) {
+        for (UUID playerId : playerIds) {
+            if (!names.containsKey(playerId)) {
+                resolveAsync(playerId);
+            }
+        }
+    }
+
+    /**
+     * Queues a name lookup through the server's offline player data,
+     * unless an earlier lookup found no name and its backoff has not passed yet.
+     *
+     * @param playerId The player's UUID
+     */
+    private void resolveAsync(UUID playerId) {
+        Miss miss = misses.get(playerId);
+        if (miss != null && System.currentTimeMillis() < miss.retryAt) {
+            return; // Known to have no name for now
+        }
+        if (!pendingLookups.add(playerId)) {
+            return; // Lookup already queued
+        }
+
+        lookupQueue.add(playerId);
+        if (lookupRunning.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, this::drainLookups);
+        }
+    }
+
+    /**
+     * Resolves queued UUIDs until the queue is empty. Runs on the single async lookup worker.
+     */
+    private void drainLookups() {
+        do {
+            UUID playerId;
+            while ((playerId = lookupQueue.poll()) != null) {
+                try {
+                    resolve(playerId);
+                } finally {
+                    pendingLookups.remove(playerId);
+                }
+            }
+            lookupRunning.set(false);
+
+            // A UUID queued after the last poll but before the flag was cleared is picked up here
+        } while (!lookupQueue.isEmpty() && lookupRunning.compareAndSet(false, true));
+    }
+
+    /**
+     * Looks up one name, remembering a miss with a backoff that doubles with every miss.
+     *
+     * @param playerId The player's UUID
+     */
+    private void resolve(UUID playerId) {
+        OfflinePlayer offlinePlayer = plugin.getServer().getOfflinePlayer(playerId);
+        String name = offlinePlayer.getName();
+        if (name != null) {
+            names.putIfAbsent(playerId, name);
+            misses.remove(playerId);
+            dirty = true;
+        } else {
+            Miss previous = misses.get(playerId);
+            long backoff = previous != null ? Math.min(previous.backoff * 2, MAX_RETRY_MILLIS) : MIN_RETRY_MILLIS;
+            misses.put(playerId, new Miss(backoff, System.currentTimeMillis() + backoff));
+        }
+    }
+
+    /**
+     * Stops the save task and writes the cache to disk.
+     */
+    public void cleanup() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+        if (dirty) {
+            save();
+        }
+    }
+
+    /**
+     * A lookup that found no name, and when to try again.
+     */
+    private static final class Miss {
+        private final long backoff;
+        private final long retryAt;
+
+        Miss(long backoff, long retryAt) {
+            this.backoff = backoff;
+            this.retryAt = retryAt;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+
+/**
+ * Runs the plugin's repeating main-thread work within a time budget per tick.
+ * Tasks are run from one scheduler task and timed with {@link System#nanoTime()}. Normal tasks,
+ * such as gravity well pulls or clear lag countdowns, always run when they are due. Cosmetic
+ * tasks, such as health bars, damage indicators and particles, only run while the tick's budget
+ * lasts; the rest are deferred to the next tick, starting with the ones that waited longest, and
+ * run regardless once they have waited the configured number of ticks. Run and deferral counts
+ * are kept per category and shown by /guildadmin tasks.
+ */
+public class BudgetedTaskExecutor {
+
+    /**
+     * How important a task is when the tick budget runs out.
+     */
+    public enum Priority {
+        /**
+         * Gameplay work that always runs when it is due.
+         */
+        NORMAL,
+
+        /**
+         * Visual work that is deferred to a later tick when the budget is used up.
+         */
+        COSMETIC
+    }
+
+    private final GuildWars plugin;
+
+    // Scheduled tasks in the order they were scheduled; tasks scheduled while ticking are added afterwards
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<Task> scheduled = new ArrayList<>();
+
+    // Scratch list of the cosmetic tasks due this tick
+    private final List<Task> dueCosmetic = new ArrayList<>();
+
+    // Statistics by category, in the order the categories were first used
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    private BukkitTask tickTask;
+    private long tick;
+    private long tickStart;
+    private long budgetNanos;
+    private int maxDeferralTicks;
+
+    /**
+     * Creates a new budgeted task executor and starts its scheduler task.
+     *
+     * @param plugin The plugin instance
+     */
+    public BudgetedTaskExecutor(GuildWars plugin) {
+        this.plugin = plugin;
+        loadConfig();
+
+        tickTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Loads the tick budget from the configuration.
+     */
+    public void loadConfig() {
+        double budgetMillis = plugin.getConfig().getDouble("general.performance.task-budget.max-ms-per-tick", 2.0);
+        budgetNanos = (long) (Math.max(0.1, budgetMillis) * 1_000_000L);
+        maxDeferralTicks = Math.max(1, plugin.getConfig().getInt("general.performance.task-budget.max-deferral-ticks", 20));
+    }
+
+    /**
+     * Schedules a repeating task.
+     *
+     * @param category The category the task's statistics are counted under, e.g. "health-bars"
+     * @param priority The priority of the task
+     * @param delayTicks The ticks before the first run
+     * @param periodTicks The ticks between runs
+     * @param step The work of one run, returning false once the task is finished
+     * @return The scheduled task, which can be cancelled
+     */
+    public Task schedule(String category, Priority priority, long delayTicks, long periodTicks, BooleanSupplier step) {
+        Task task = new Task(getStats(category), priority, Math.max(1, periodTicks), step);
+        task.nextRun = tick + Math.max(1, delayTicks);
+        scheduled.add(task);
+        return task;
+    }
+
+    /**
+     * Checks whether the current tick's budget has time left.
+     * Tasks that do cosmetic work of their own can use this to skip it.
+     *
+     * @return True if the budget is not used up yet
+     */
+    public boolean hasBudget() {
+        return System.nanoTime() - tickStart < budgetNanos;
+    }
+
+    /**
+     * Counts cosmetic work that a task skipped because the budget was used up.
+     *
+     * @param category The category to count the deferral under
+     */
+    public void recordDeferral(String category) {
+        getStats(category).deferrals++;
+    }
+
+    /**
+     * Gets the statistics of every category.
+     *
+     * @return An unmodifiable view of the statistics by category
+     */
+    public Map<String, Stats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Gets the number of times work of a category was deferred.
+     *
+     * @param category The category
+     * @return The number of deferrals
+     */
+    public long getDeferrals(String category) {
+        Stats categoryStats = stats.get(category);
+        return categoryStats != null ? categoryStats.deferrals : 0;
+    }
+
+    /**
+     * Gets the number of times any work was deferred.
+     *
+     * @return The total number of deferrals
+     */
+    public long getTotalDeferrals() {
+        long total = 0;
+        for (Stats categoryStats : stats.values()) {
+            total += categoryStats.deferrals;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the configured budget per tick.
+     *
+     * @return The budget in milliseconds
+     */
+    public double getBudgetMillis() {
+        return budgetNanos / 1_000_000.0;
+    }
+
+    /**
+     * Gets the number of scheduled tasks.
+     *
+     * @return The number of tasks
+     */
+    public int getTaskCount() {
+        return tasks.size() + scheduled.size();
+    }
+
+    /**
+     * Gets the statistics of a category, creating them on first use.
+     */
+    private Stats getStats(String category) {
+        return stats.computeIfAbsent(category, Stats::new);
+    }
+
+    /**
+     * Runs the due normal tasks, then the due cosmetic tasks while the budget lasts.
+     */
+    private void tick() {
+        tick++;
+        tickStart = System.nanoTime();
+
+        tasks.addAll(scheduled);
+        scheduled.clear();
+
+        for (Task task : tasks) {
+            if (task.priority == Priority.NORMAL && task.isDue(tick)) {
+                run(task);
+            }
+        }
+
+        // Cosmetic tasks that waited longest go first, so deferred work is not starved
+        for (Task task : tasks) {
+            if (task.priority == Priority.COSMETIC && task.isDue(tick)) {
+                dueCosmetic.add(task);
+            }
+        }
+        dueCosmetic.sort((a, b) -> Long.compare(a.nextRun, b.nextRun));
+        for (Task task : dueCosmetic) {
+            if (hasBudget() || tick - task.nextRun >= maxDeferralTicks) {
+                run(task);
+            } else {
+                task.stats.deferrals++;
+            }
+        }
+
+        dueCosmetic.clear();
+        tasks.removeIf(task -> task.cancelled);
+    }
+
+    /**
+     * Runs a task once, timing it and cancelling it if it finished or failed.
+     */
+    private void run(Task task) {
+        long start = System.nanoTime();
+        try {
+            if (!task.step.getAsBoolean()) {
+                task.cancel();
+            }
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Task of " + task.stats.category + " failed and was stopped", e);
+            task.cancel();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        task.stats.runs++;
+        task.stats.nanos += elapsed;
+        task.stats.maxNanos = Math.max(task.stats.maxNanos, elapsed);
+        task.nextRun = tick + task.periodTicks;
+    }
+
+    /**
+     * Stops the scheduler task and drops all tasks.
+     */
+    public void cleanup() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        tasks.clear();
+        scheduled.clear();
+    }
+
+    /**
+     * A task scheduled on the executor.
+     */
+    public static final class Task {
+        private final Stats stats;
+        private final Priority priority;
+        private final long periodTicks;
+        private final BooleanSupplier step;
+        private long nextRun;
+        private boolean cancelled;
+
+        Task(Stats stats, Priority priority, long periodTicks, BooleanSupplier step) {
+            this.stats = stats;
+            this.priority = priority;
+            this.periodTicks = periodTicks;
+            this.step = step;
+        }
+
+        boolean isDue(long tick) {
+            return !cancelled && tick >= nextRun;
+        }
+
+        /**
+         * Stops the task; it does not run again.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * Checks whether the task was cancelled or has finished.
+         *
+         * @return True if the task no longer runs
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Run, deferral and timing counts of one category of tasks.
+     */
+    public static final class Stats {
+        private final String category;
+        private long runs;
+        private long deferrals;
+        private long nanos;
+        private long maxNanos;
+
+        Stats(String category) {
+            this.category = category;
+        }
+
+        /**
+         * Gets the number of runs.
+         *
+         * @return The number of runs
+         */
+        public long getRuns() {
+            return runs;
+        }
+
+        /**
+         * Gets the number of times a run was deferred or skipped because the budget was used up.
+         *
+         * @return The number of deferrals
+         */
+        public long getDeferrals() {
+            return deferrals;
+        }
+
+        /**
+         * Gets the average time of a run.
+         *
+         * @return The average time in microseconds
+         */
+        public double getAverageMicros() {
+            return runs > 0 ? nanos / 1_000.0 / runs : 0;
+        }
+
+        /**
+         * Gets the longest time of a run.
+         *
+         * @return The longest time in microseconds
+         */
+        public double getMaxMicros() {
+            return maxNanos / 1_000.0;
+        }
+    }
+}
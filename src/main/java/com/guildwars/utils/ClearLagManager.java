@@ -6,22 +6,23 @@ import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Item;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 /**
  * Manages periodic clearing of ground items to reduce server lag
  */
 public class ClearLagManager {
 
+    private static final String TASK_CATEGORY = "clear-lag";
+
     private final GuildWars plugin;
     private final Set<EntityType> excludedTypes;
-    private BukkitTask clearTask;
-    private BukkitTask warningTask;
+    private BudgetedTaskExecutor.Task clearTask;
+    private BudgetedTaskExecutor.Task warningTask;
     private boolean enabled;
     private int interval; // in minutes
     private int warningTime; // in seconds
@@ -86,47 +87,12 @@ public class ClearLagManager {
         // Convert interval to ticks (1 minute = 20 ticks * 60 seconds)
         long intervalTicks = interval * 20L * 60L;
         
-        // Start the main clear lag task
-        clearTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Schedule the warning task to run before clearing
-                warningTask = new BukkitRunnable() {
-                    private int secondsLeft = warningTime;
-                    
-                    @Override
-                    public void run() {
-                        if (secondsLeft <= 0) {
-                            // Time's up, clear the items
-                            int cleared = clearItems();
-                            
-                            // Broadcast the completion message
-                            String message = ChatColor.RED + "Cleared " + ChatColor.YELLOW + cleared + 
-                                    ChatColor.RED + " items from the ground.";
-                            plugin.getServer().broadcastMessage(ChatColor.GOLD + "[GuildWars] " + message);
-                            
-                            // Cancel this warning task
-                            this.cancel();
-                            warningTask = null;
-                            return;
-                        }
-                        
-                        // Determine if we should send a warning message
-                        // Send at: 60, 30, 15, 10, 5, 4, 3, 2, 1 seconds
-                        if (secondsLeft == 60 || secondsLeft == 30 || secondsLeft == 15 || 
-                                secondsLeft == 10 || secondsLeft <= 5) {
-                            String timeString = secondsLeft == 1 ? "second" : "seconds";
-                            String message = ChatColor.YELLOW + "Ground items will be cleared in " + 
-                                    ChatColor.RED + secondsLeft + ChatColor.YELLOW + " " + timeString + "!";
-                            plugin.getServer().broadcastMessage(ChatColor.GOLD + "[GuildWars] " + message);
-                        }
-                        
-                        // Decrement counter
-                        secondsLeft--;
-                    }
-                }.runTaskTimer(plugin, 0L, 20L); // Run every second
-            }
-        }.runTaskTimer(plugin, intervalTicks, intervalTicks);
+        // Start the main clear lag task, which starts the warning countdown before clearing
+        clearTask = plugin.getTaskExecutor().schedule(TASK_CATEGORY, BudgetedTaskExecutor.Priority.NORMAL,
+                intervalTicks, intervalTicks, () -> {
+                    startWarningTask();
+                    return true;
+                });
         
         plugin.getLogger().info("Clear lag task started with interval of " + interval + " minutes");
     }
@@ -169,11 +135,19 @@ public class ClearLagManager {
         }
         
         // Start a new warning
-        warningTask = new BukkitRunnable() {
+        startWarningTask();
+    }
+    
+    /**
+     * Starts the countdown that warns players every second and clears the items when it ends
+     */
+    private void startWarningTask() {
+        warningTask = plugin.getTaskExecutor().schedule(TASK_CATEGORY, BudgetedTaskExecutor.Priority.NORMAL,
+                0L, 20L, new BooleanSupplier() { // Run every second
             private int secondsLeft = warningTime;
             
             @Override
-            public void run() {
+            public boolean getAsBoolean() {
                 if (secondsLeft <= 0) {
                     // Time's up, clear the items
                     int cleared = clearItems();
@@ -183,10 +157,9 @@ public class ClearLagManager {
                             ChatColor.RED + " items from the ground.";
                     plugin.getServer().broadcastMessage(ChatColor.GOLD + "[GuildWars] " + message);
                     
-                    // Cancel this warning task
-                    this.cancel();
+                    // Stop this warning task
                     warningTask = null;
-                    return;
+                    return false;
                 }
                 
                 // Determine if we should send a warning message
@@ -201,8 +174,9 @@ public class ClearLagManager {
                 
                 // Decrement counter
                 secondsLeft--;
+                return true;
             }
-        }.runTaskTimer(plugin, 0L, 20L); // Run every second
+        });
     }
     
     /**
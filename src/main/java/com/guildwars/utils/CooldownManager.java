@@ -0,0 +1,291 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Tracks command cooldowns of players, e.g. between guild home teleports.
+ * Each player has one array holding the expiry time of every cooldown type, and an expiry
+ * queue ordered by end time lets the once-a-second sweep drop finished cooldowns while only
+ * looking at the head of the queue. Running cooldowns are written to cooldowns.yml off the
+ * main thread, so restarting the server does not reset them.
+ */
+public class CooldownManager {
+
+    private static final long SWEEP_INTERVAL_TICKS = 20L;
+    private static final int SAVE_EVERY_SWEEPS = 300; // 5 minutes
+
+    private final GuildWars plugin;
+    private final File cooldownsFile;
+    private final Object saveLock = new Object();
+
+    // Expiry times in milliseconds by player, indexed by cooldown type; 0 means no cooldown
+    private final Map<UUID, long[]> cooldowns = new HashMap<>();
+
+    // May hold entries for cooldowns that were restarted or cleared, which are skipped when they come up
+    private final PriorityQueue<Expiry> expiries = new PriorityQueue<>();
+
+    private BukkitTask sweepTask;
+    private int sweepsSinceSave;
+    private boolean dirty;
+
+    // Snapshots are numbered as they are taken, so an older async write never replaces a newer one
+    private long snapshotGeneration;
+    private long writtenGeneration;
+
+    /**
+     * Creates a new cooldown manager, loads persisted cooldowns and starts the sweep.
+     *
+     * @param plugin The plugin instance
+     */
+    public CooldownManager(GuildWars plugin) {
+        this.plugin = plugin;
+        this.cooldownsFile = new File(plugin.getDataFolder(), "cooldowns.yml");
+
+        load();
+
+        sweepTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::sweep,
+                SWEEP_INTERVAL_TICKS, SWEEP_INTERVAL_TICKS);
+    }
+
+    /**
+     * Starts a cooldown for a player, replacing any running cooldown of the same type.
+     *
+     * @param playerId The player's UUID
+     * @param type The cooldown type
+     * @param durationMillis The duration in milliseconds
+     */
+    public void start(UUID playerId, Type type, long durationMillis) {
+        if (durationMillis <= 0) {
+            clear(playerId, type);
+            return;
+        }
+
+        long expiresAt = System.currentTimeMillis() + durationMillis;
+        cooldowns.computeIfAbsent(playerId, id -> new long[Type.values().length])[type.ordinal()] = expiresAt;
+        expiries.add(new Expiry(playerId, type, expiresAt));
+        dirty = true;
+    }
+
+    /**
+     * Gets how long a player's cooldown still runs.
+     *
+     * @param playerId The player's UUID
+     * @param type The cooldown type
+     * @return The remaining time in milliseconds, or 0 if the cooldown is not active
+     */
+    public long getRemaining(UUID playerId, Type type) {
+        long[] expiresAt = cooldowns.get(playerId);
+        if (expiresAt == null) {
+            return 0;
+        }
+        return Math.max(0, expiresAt[type.ordinal()] - System.currentTimeMillis());
+    }
+
+    /**
+     * Checks whether a player's cooldown is still running.
+     *
+     * @param playerId The player's UUID
+     * @param type The cooldown type
+     * @return True if the cooldown is active
+     */
+    public boolean isActive(UUID playerId, Type type) {
+        return getRemaining(playerId, type) > 0;
+    }
+
+    /**
+     * Ends a player's cooldown early.
+     *
+     * @param playerId The player's UUID
+     * @param type The cooldown type
+     */
+    public void clear(UUID playerId, Type type) {
+        long[] expiresAt = cooldowns.get(playerId);
+        if (expiresAt != null && expiresAt[type.ordinal()] != 0) {
+            expiresAt[type.ordinal()] = 0;
+            removeIfEmpty(playerId, expiresAt);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Drops every cooldown that has run out and saves the rest every few minutes.
+     * Only the head of the expiry queue is inspected while nothing is due.
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        while (!expiries.isEmpty() && expiries.peek().expiresAt <= now) {
+            Expiry expiry = expiries.poll();
+            long[] expiresAt = cooldowns.get(expiry.playerId);
+
+            // Skip cooldowns that were restarted or cleared since this entry was queued
+            if (expiresAt == null || expiresAt[expiry.type.ordinal()] != expiry.expiresAt) {
+                continue;
+            }
+
+            expiresAt[expiry.type.ordinal()] = 0;
+            removeIfEmpty(expiry.playerId, expiresAt);
+            dirty = true;
+        }
+
+        if (++sweepsSinceSave >= SAVE_EVERY_SWEEPS && dirty) {
+            sweepsSinceSave = 0;
+            YamlConfiguration snapshot = snapshot();
+            long generation = ++snapshotGeneration;
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> write(snapshot, generation));
+        }
+    }
+
+    /**
+     * Forgets a player once none of their cooldowns are running.
+     */
+    private void removeIfEmpty(UUID playerId, long[] expiresAt) {
+        for (long time : expiresAt) {
+            if (time != 0) {
+                return;
+            }
+        }
+        cooldowns.remove(playerId);
+    }
+
+    /**
+     * Loads the cooldowns that are still running from cooldowns.yml.
+     */
+    private void load() {
+        if (!cooldownsFile.exists()) {
+            return;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(cooldownsFile);
+        ConfigurationSection section = config.getConfigurationSection("cooldowns");
+        if (section == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (String playerIdStr : section.getKeys(false)) {
+            UUID playerId;
+            try {
+                playerId = UUID.fromString(playerIdStr);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid player UUID in cooldowns.yml: " + playerIdStr);
+                continue;
+            }
+
+            for (Type type : Type.values()) {
+                long expiresAt = section.getLong(playerIdStr + "." + type.getKey());
+                if (expiresAt > now) {
+                    cooldowns.computeIfAbsent(playerId, id -> new long[Type.values().length])[type.ordinal()] = expiresAt;
+                    expiries.add(new Expiry(playerId, type, expiresAt));
+                }
+            }
+        }
+
+        plugin.getLogger().info("Loaded cooldowns of " + cooldowns.size() + " players.");
+    }
+
+    /**
+     * Copies the running cooldowns into a configuration that can be written from another thread.
+     *
+     * @return The snapshot
+     */
+    private YamlConfiguration snapshot() {
+        dirty = false;
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<UUID, long[]> entry : cooldowns.entrySet()) {
+            for (Type type : Type.values()) {
+                long expiresAt = entry.getValue()[type.ordinal()];
+                if (expiresAt != 0) {
+                    config.set("cooldowns." + entry.getKey() + "." + type.getKey(), expiresAt);
+                }
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Writes a snapshot to cooldowns.yml unless a newer snapshot was already written.
+     *
+     * @param snapshot The snapshot to write
+     * @param generation The number of the snapshot
+     */
+    private void write(YamlConfiguration snapshot, long generation) {
+        synchronized (saveLock) {
+            if (generation <= writtenGeneration) {
+                return; // Queued before a newer snapshot that finished first
+            }
+            writtenGeneration = generation;
+
+            try {
+                snapshot.save(cooldownsFile);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to save cooldowns.yml", e);
+            }
+        }
+    }
+
+    /**
+     * Stops the sweep and writes the running cooldowns.
+     */
+    public void cleanup() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        write(snapshot(), ++snapshotGeneration);
+    }
+
+    /**
+     * The actions that have a cooldown.
+     */
+    public enum Type {
+        GUILD_CREATE("create"),
+        GUILD_HOME("home"),
+        WAR_DECLARE("war");
+
+        private final String key;
+
+        Type(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Gets the key this cooldown is stored under.
+         *
+         * @return The storage key
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    /**
+     * A queued cooldown end.
+     */
+    private static final class Expiry implements Comparable<Expiry> {
+        private final UUID playerId;
+        private final Type type;
+        private final long expiresAt;
+
+        Expiry(UUID playerId, Type type, long expiresAt) {
+            this.playerId = playerId;
+            this.type = type;
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public int compareTo(Expiry other) {
+            return Long.compare(expiresAt, other.expiresAt);
+        }
+    }
+}
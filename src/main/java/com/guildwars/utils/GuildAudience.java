@@ -0,0 +1,58 @@
+package com.guildwars.utils;
+
+import com.guildwars.model.Guild;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.audience.ForwardingAudience;
+import org.bukkit.entity.Player;
+
+/**
+ * The online members of a guild as one Adventure audience.
+ * Messages, action bars, titles and sounds sent to it reach every online member, read live from
+ * the online member index, so one pre-built component can be sent to the whole guild without
+ * resolving any members.
+ */
+public class GuildAudience implements ForwardingAudience {
+
+    private final OnlineMemberIndex onlineMemberIndex;
+    private final Guild guild;
+
+    /**
+     * Creates a new guild audience.
+     *
+     * @param onlineMemberIndex The index the online members are read from
+     * @param guild The guild
+     */
+    GuildAudience(OnlineMemberIndex onlineMemberIndex, Guild guild) {
+        this.onlineMemberIndex = onlineMemberIndex;
+        this.guild = guild;
+    }
+
+    /**
+     * Gets the guild of this audience.
+     *
+     * @return The guild
+     */
+    public Guild getGuild() {
+        return guild;
+    }
+
+    /**
+     * Gets the guild's online members, which messages are forwarded to.
+     *
+     * @return The online members
+     */
+    @Override
+    public Iterable<? extends Audience> audiences() {
+        return onlineMemberIndex.getOnlineMembers(guild);
+    }
+
+    /**
+     * Gets this audience without one player, e.g. the player whose action is announced.
+     *
+     * @param player The player to leave out
+     * @return The audience without the player
+     */
+    public Audience excluding(Player player) {
+        return filterAudience(member -> member != player);
+    }
+}
@@ -0,0 +1,541 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import com.guildwars.database.GuildService;
+import com.guildwars.model.Guild;
+import com.guildwars.storage.GuildChangeListener;
+import com.guildwars.util.MessageUtil;
+import org.bukkit.ChatColor;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+/**
+ * Guild bank holding the balance of every guild.
+ * Every transaction is appended to bank.log, and balances are rebuilt by replaying the log on
+ * startup. Transactions lock only the stripes of the guilds involved, so transactions of
+ * different guilds run in parallel from any thread. Log entries are queued and written in
+ * batches by an async task that syncs the file to disk, rather than saving all guild data
+ * for each transaction.
+ */
+public class GuildBankManager implements GuildChangeListener {
+
+    private static final int LOCK_STRIPES = 64;
+    private static final int COMPACT_THRESHOLD = 10_000;
+
+    /**
+     * The largest amount a single transaction may move, in cents.
+     */
+    public static final long MAX_TRANSACTION_CENTS = 100_000_000_000L; // 1 billion
+
+    private final GuildWars plugin;
+    private final GuildService guildService;
+    private final File ledgerFile;
+    private final Object writeLock = new Object();
+
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+
+    // Ledger lines waiting to be written, and guilds whose Guild balance needs refreshing on the main thread
+    private final Queue<String> pendingEntries = new ConcurrentLinkedQueue<>();
+    private final Set<String> changedGuilds = ConcurrentHashMap.newKeySet();
+
+    private BufferedWriter ledgerWriter;
+    private FileOutputStream ledgerStream;
+    private BukkitTask flushTask;
+    private BukkitTask publishTask;
+    private BukkitTask upkeepTask;
+
+    /**
+     * Creates a new guild bank, rebuilds balances from the ledger and starts the flush and upkeep tasks.
+     *
+     * @param plugin The plugin instance
+     */
+    public GuildBankManager(GuildWars plugin) {
+        this.plugin = plugin;
+        this.guildService = plugin.getGuildService();
+        this.ledgerFile = new File(plugin.getDataFolder(), "bank.log");
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+
+        replay();
+        openLedger();
+
+        // Show the rebuilt balances on the guilds
+        for (Guild guild : guildService.getAllGuilds()) {
+            guild.setBalance(toAmount(getBalance(guild)));
+        }
+
+        guildService.addGuildChangeListener(this);
+
+        long flushInterval = Math.max(1, plugin.getConfig().getLong("bank.flush-interval-ticks", 20));
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flush,
+                flushInterval, flushInterval);
+        publishTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::publishBalances, 20L, 20L);
+
+        double upkeepPerClaim = plugin.getConfig().getDouble("territory.upkeep.per-claim", 0);
+        if (upkeepPerClaim > 0) {
+            long upkeepInterval = Math.max(1, plugin.getConfig().getLong("territory.upkeep.interval-minutes", 1440)) * 60L * 20L;
+            upkeepTask = plugin.getServer().getScheduler().runTaskTimer(plugin,
+                    () -> collectUpkeep(toCents(upkeepPerClaim)), upkeepInterval, upkeepInterval);
+        }
+    }
+
+    /**
+     * Gets the balance of a guild.
+     *
+     * @param guild The guild
+     * @return The balance in cents
+     */
+    public long getBalance(Guild guild) {
+        Account account = accounts.get(guild.getId());
+        return account != null ? account.balance : 0;
+    }
+
+    /**
+     * Adds money to a guild's bank.
+     *
+     * @param guild The guild
+     * @param cents The amount in cents, greater than 0
+     * @param actor The player who made the deposit, or null for the server
+     * @return True if the money was added, false if the balance would overflow
+     */
+    public boolean deposit(Guild guild, long cents, UUID actor) {
+        ReentrantLock lock = getStripe(guild.getId());
+        lock.lock();
+        try {
+            Account account = getAccount(guild.getId());
+            account.balance = Math.addExact(account.balance, cents);
+            record("DEPOSIT", guild.getId(), cents, null, actor);
+        } catch (ArithmeticException e) {
+            return false;
+        } finally {
+            lock.unlock();
+        }
+        balanceChanged(guild.getId());
+        return true;
+    }
+
+    /**
+     * Takes money from a guild's bank if it holds enough.
+     *
+     * @param guild The guild
+     * @param cents The amount in cents, greater than 0
+     * @param actor The player who made the withdrawal, or null for the server
+     * @return True if the money was withdrawn, false if the balance is too low
+     */
+    public boolean withdraw(Guild guild, long cents, UUID actor) {
+        return debit("WITHDRAW", guild, cents, actor);
+    }
+
+    /**
+     * Charges a guild for the upkeep of its claims if it can pay.
+     *
+     * @param guild The guild
+     * @param cents The upkeep in cents, greater than 0
+     * @return True if the upkeep was paid, false if the balance is too low
+     */
+    public boolean chargeUpkeep(Guild guild, long cents) {
+        return debit("UPKEEP", guild, cents, null);
+    }
+
+    /**
+     * Moves money from one guild's bank to another's.
+     *
+     * @param from The paying guild
+     * @param to The receiving guild
+     * @param cents The amount in cents, greater than 0
+     * @param actor The player who made the transfer
+     * @return True if the money was moved, false if the paying guild's balance is too low
+     *         or the receiving guild's balance would overflow
+     */
+    public boolean transfer(Guild from, Guild to, long cents, UUID actor) {
+        // Lock both stripes in index order so opposite transfers cannot deadlock
+        int fromStripe = getStripeIndex(from.getId());
+        int toStripe = getStripeIndex(to.getId());
+        ReentrantLock first = stripes[Math.min(fromStripe, toStripe)];
+        ReentrantLock second = stripes[Math.max(fromStripe, toStripe)];
+
+        first.lock();
+        second.lock();
+        try {
+            Account source = getAccount(from.getId());
+            Account target = getAccount(to.getId());
+            if (source.balance < cents) {
+                return false;
+            }
+            target.balance = Math.addExact(target.balance, cents);
+            source.balance -= cents;
+            record("TRANSFER", from.getId(), cents, to.getId(), actor);
+        } catch (ArithmeticException e) {
+            return false;
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+        balanceChanged(from.getId());
+        balanceChanged(to.getId());
+        return true;
+    }
+
+    /**
+     * Takes money from a guild's bank if it holds enough.
+     */
+    private boolean debit(String type, Guild guild, long cents, UUID actor) {
+        ReentrantLock lock = getStripe(guild.getId());
+        lock.lock();
+        try {
+            Account account = getAccount(guild.getId());
+            if (account.balance < cents) {
+                return false;
+            }
+            account.balance -= cents;
+            record(type, guild.getId(), cents, null, actor);
+        } finally {
+            lock.unlock();
+        }
+        balanceChanged(guild.getId());
+        return true;
+    }
+
+    /**
+     * Charges every guild the upkeep of its claims and warns members of guilds that cannot pay.
+     *
+     * @param centsPerClaim The upkeep per claimed chunk in cents
+     */
+    private void collectUpkeep(long centsPerClaim) {
+        for (Guild guild : guildService.getAllGuilds()) {
+            int claims = guild.getClaims().size();
+            if (claims == 0 || chargeUpkeep(guild, claims * centsPerClaim)) {
+                continue;
+            }
+
+            String message = ChatColor.RED + "Your guild bank could not pay the upkeep of "
+                    + format(claims * centsPerClaim) + " for " + claims + " claims.";
+            plugin.getOnlineMemberIndex().getAudience(guild).sendMessage(MessageUtil.toComponent(message));
+            plugin.getMailboxManager().mailOfflineMembers(guild, message);
+        }
+    }
+
+    /**
+     * Closes the account of a deleted guild.
+     *
+     * @param guild The deleted guild
+     */
+    @Override
+    public void onGuildDeleted(Guild guild) {
+        ReentrantLock lock = getStripe(guild.getId());
+        lock.lock();
+        try {
+            if (accounts.remove(guild.getId()) != null) {
+                record("CLOSE", guild.getId(), 0, null, null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bank balances do not depend on other guild changes.
+     *
+     * @param guild The guild that changed
+     */
+    @Override
+    public void onGuildChanged(Guild guild) {
+    }
+
+    /**
+     * Queues a ledger entry. Callers hold the stripe lock of the guilds involved,
+     * so the entries of each guild are queued in the order they were applied.
+     */
+    private void record(String type, String guildId, long cents, String targetId, UUID actor) {
+        pendingEntries.add(System.currentTimeMillis() + " " + type + " " + guildId + " " + cents + " "
+                + (targetId != null ? targetId : "-") + " " + (actor != null ? actor : "-"));
+    }
+
+    /**
+     * Refreshes the balance shown on a guild, right away on the main thread or with the next publish otherwise.
+     *
+     * @param guildId The guild ID
+     */
+    private void balanceChanged(String guildId) {
+        if (plugin.getServer().isPrimaryThread()) {
+            publishBalance(guildId);
+        } else {
+            changedGuilds.add(guildId);
+        }
+    }
+
+    /**
+     * Copies balances changed off the main thread onto their guilds.
+     */
+    private void publishBalances() {
+        for (String guildId : changedGuilds) {
+            changedGuilds.remove(guildId);
+            publishBalance(guildId);
+        }
+    }
+
+    /**
+     * Copies a guild's balance onto the guild and notifies listeners such as the leaderboards.
+     *
+     * @param guildId The guild ID
+     */
+    private void publishBalance(String guildId) {
+        Guild guild = guildService.getGuildById(guildId);
+        if (guild != null) {
+            guild.setBalance(toAmount(getBalance(guild)));
+            guildService.notifyGuildChanged(guild);
+        }
+    }
+
+    /**
+     * Writes all queued ledger entries and syncs them to disk.
+     */
+    private void flush() {
+        synchronized (writeLock) {
+            if (ledgerWriter == null || pendingEntries.isEmpty()) {
+                return;
+            }
+
+            try {
+                String entry;
+                while ((entry = pendingEntries.poll()) != null) {
+                    ledgerWriter.write(entry);
+                    ledgerWriter.newLine();
+                }
+                ledgerWriter.flush();
+                ledgerStream.getFD().sync();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to write bank.log", e);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds all balances by replaying bank.log, and compacts the log into one snapshot
+     * entry per guild once it has grown long.
+     */
+    private void replay() {
+        if (!ledgerFile.exists()) {
+            return;
+        }
+
+        int entries = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(ledgerFile, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts.length < 6) {
+                    plugin.getLogger().warning("Invalid entry in bank.log: " + line);
+                    continue;
+                }
+
+                try {
+                    apply(parts[1], parts[2], Long.parseLong(parts[3]), parts[4]);
+                    entries++;
+                } catch (NumberFormatException e) {
+                    plugin.getLogger().warning("Invalid entry in bank.log: " + line);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to read bank.log", e);
+            return;
+        }
+
+        if (entries > COMPACT_THRESHOLD) {
+            compact();
+        }
+        plugin.getLogger().info("Rebuilt " + accounts.size() + " guild bank balances from " + entries + " ledger entries.");
+    }
+
+    /**
+     * Applies one ledger entry to the balances.
+     */
+    private void apply(String type, String guildId, long cents, String targetId) {
+        switch (type) {
+            case "DEPOSIT":
+                getAccount(guildId).balance += cents;
+                break;
+            case "WITHDRAW":
+            case "UPKEEP":
+                getAccount(guildId).balance -= cents;
+                break;
+            case "TRANSFER":
+                getAccount(guildId).balance -= cents;
+                getAccount(targetId).balance += cents;
+                break;
+            case "SNAPSHOT":
+                getAccount(guildId).balance = cents;
+                break;
+            case "CLOSE":
+                accounts.remove(guildId);
+                break;
+            default:
+                plugin.getLogger().warning("Unknown bank.log entry type: " + type);
+                break;
+        }
+    }
+
+    /**
+     * Replaces bank.log with one snapshot entry per guild.
+     */
+    private void compact() {
+        File compacted = new File(plugin.getDataFolder(), "bank.log.tmp");
+        long now = System.currentTimeMillis();
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(compacted), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, Account> entry : accounts.entrySet()) {
+                writer.write(now + " SNAPSHOT " + entry.getKey() + " " + entry.getValue().balance + " - -");
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to compact bank.log", e);
+            return;
+        }
+
+        try {
+            Files.move(compacted.toPath(), ledgerFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to replace bank.log with its compacted copy", e);
+        }
+    }
+
+    /**
+     * Opens bank.log for appending.
+     */
+    private void openLedger() {
+        try {
+            ledgerStream = new FileOutputStream(ledgerFile, true);
+            ledgerWriter = new BufferedWriter(new OutputStreamWriter(ledgerStream, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to open bank.log", e);
+        }
+    }
+
+    /**
+     * Gets the account of a guild, creating an empty one if needed.
+     */
+    private Account getAccount(String guildId) {
+        return accounts.computeIfAbsent(guildId, id -> new Account());
+    }
+
+    /**
+     * Gets the index of the lock guarding a guild's account.
+     */
+    private int getStripeIndex(String guildId) {
+        int hash = guildId.hashCode();
+        return (hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    /**
+     * Gets the lock guarding a guild's account.
+     */
+    private ReentrantLock getStripe(String guildId) {
+        return stripes[getStripeIndex(guildId)];
+    }
+
+    /**
+     * Converts an amount of money to cents.
+     *
+     * @param amount The amount
+     * @return The amount in cents
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Parses an amount of money typed by a player or admin.
+     *
+     * @param input The typed amount, e.g. "12.50"
+     * @return The amount in cents, or 0 if it is not a number, not positive or larger than {@link #MAX_TRANSACTION_CENTS}
+     */
+    public static long parseCents(String input) {
+        double amount;
+        try {
+            amount = Double.parseDouble(input);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+
+        // Infinity, NaN and huge values would round to Long.MAX_VALUE
+        if (!Double.isFinite(amount) || amount <= 0 || amount > toAmount(MAX_TRANSACTION_CENTS)) {
+            return 0;
+        }
+        return toCents(amount);
+    }
+
+    /**
+     * Converts cents to an amount of money.
+     *
+     * @param cents The amount in cents
+     * @return The amount
+     */
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Formats an amount in cents for display.
+     *
+     * @param cents The amount in cents
+     * @return The formatted amount
+     */
+    public static String format(long cents) {
+        return String.format("%.2f", toAmount(cents));
+    }
+
+    /**
+     * Stops the tasks and writes the remaining ledger entries.
+     */
+    public void cleanup() {
+        for (BukkitTask task : new BukkitTask[] {flushTask, publishTask, upkeepTask}) {
+            if (task != null) {
+                task.cancel();
+            }
+        }
+        flushTask = null;
+        publishTask = null;
+        upkeepTask = null;
+
+        flush();
+        synchronized (writeLock) {
+            try {
+                if (ledgerWriter != null) {
+                    ledgerWriter.close();
+                    ledgerWriter = null;
+                }
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to close bank.log", e);
+            }
+        }
+    }
+
+    /**
+     * The balance of one guild, guarded by the guild's stripe lock.
+     */
+    private static final class Account {
+        private volatile long balance;
+    }
+}
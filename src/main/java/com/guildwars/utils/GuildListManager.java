@@ -0,0 +1,287 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import com.guildwars.model.Guild;
+import com.guildwars.storage.GuildChangeListener;
+import com.guildwars.util.PlayerNameCache;
+import com.guildwars.utils.LeaderboardManager.Metric;
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the pages of the /guilds listing.
+ * The guilds matching a filter are collected once from the members leaderboard and each page
+ * is rendered on first use, then kept until a guild is created or deleted or something the
+ * listing shows changes: a name, tag, member count or leader. Bank, claim and war score changes
+ * leave the pages alone, so repeated /guilds calls are served from the cache without touching
+ * the guilds at all.
+ */
+public class GuildListManager implements GuildChangeListener {
+
+    private static final int MAX_LISTINGS = 64;
+
+    private final GuildWars plugin;
+    private final LeaderboardManager leaderboardManager;
+    private final PlayerNameCache nameCache;
+
+    // Least recently used filters are dropped once the cache is full
+    private final Map<Filter, Listing> listings = new LinkedHashMap<Filter, Listing>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Filter, Listing> eldest) {
+            return size() > MAX_LISTINGS;
+        }
+    };
+
+    // What the listing shows of every guild, to tell whether a change affects it
+    private final Map<String, String> shownFields = new HashMap<>();
+
+    private int pageSize;
+    private int maxMembers;
+
+    /**
+     * Creates a new guild list manager and starts listening for guild changes.
+     *
+     * @param plugin The plugin instance
+     */
+    public GuildListManager(GuildWars plugin) {
+        this.plugin = plugin;
+        this.leaderboardManager = plugin.getLeaderboardManager();
+        this.nameCache = plugin.getPlayerNameCache();
+
+        loadConfig();
+
+        for (Guild guild : plugin.getGuildService().getAllGuilds()) {
+            shownFields.put(guild.getId(), getShownFields(guild));
+        }
+        plugin.getGuildService().addGuildChangeListener(this);
+    }
+
+    /**
+     * Loads listing settings from the configuration and drops pages rendered with the old ones.
+     */
+    public void loadConfig() {
+        pageSize = Math.max(1, plugin.getConfig().getInt("guilds.list.page-size", 10));
+        maxMembers = plugin.getConfig().getInt("guilds.max-members", 20);
+        listings.clear();
+    }
+
+    /**
+     * Gets the configured number of guilds per page.
+     *
+     * @return The page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Gets a rendered page of the guild listing.
+     *
+     * @param namePrefix Only list guilds whose name starts with this, or an empty string for all guilds
+     * @param minMembers Only list guilds with at least this many members
+     * @param page The page number, starting at 1; pages past the end show the last page
+     * @return The lines of the page, including header and footer
+     */
+    public List<String> getPage(String namePrefix, int minMembers, int page) {
+        Filter filter = new Filter(namePrefix.toLowerCase(), Math.max(1, minMembers));
+        Listing listing = listings.get(filter);
+        if (listing == null) {
+            listing = new Listing(collect(filter));
+            listings.put(filter, listing);
+        }
+
+        int totalPages = Math.max(1, (listing.guilds.size() + pageSize - 1) / pageSize);
+        page = Math.max(1, Math.min(page, totalPages));
+
+        List<String> lines = listing.pages.get(page);
+        if (lines == null) {
+            lines = render(filter, listing.guilds, page, totalPages);
+
+            // Pages showing fallback leader names are rendered again once the names are resolved
+            if (areLeaderNamesCached(listing.guilds, page)) {
+                listing.pages.put(page, lines);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Collects the guilds matching a filter, largest first.
+     *
+     * @param filter The filter
+     * @return The matching guilds
+     */
+    private List<Guild> collect(Filter filter) {
+        List<Guild> guilds = new ArrayList<>();
+        for (Guild guild : leaderboardManager.getRange(Metric.MEMBERS, 0, leaderboardManager.getSize())) {
+            // The leaderboard is ordered by member count, so no later guild can match
+            if (guild.getMemberCount() < filter.minMembers) {
+                break;
+            }
+            if (guild.getName().toLowerCase().startsWith(filter.namePrefix)) {
+                guilds.add(guild);
+            }
+        }
+        return guilds;
+    }
+
+    /**
+     * Checks whether the names of all leaders on a page are known.
+     *
+     * @param guilds The listed guilds
+     * @param page The page number
+     * @return True if no fallback names would be shown
+     */
+    private boolean areLeaderNamesCached(List<Guild> guilds, int page) {
+        int end = Math.min(guilds.size(), page * pageSize);
+        for (int i = (page - 1) * pageSize; i < end; i++) {
+            if (!nameCache.isCached(guilds.get(i).getLeader())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Renders a page of the listing.
+     *
+     * @param filter The filter the guilds matched
+     * @param guilds The matching guilds
+     * @param page The page number
+     * @param totalPages The number of pages
+     * @return The page lines
+     */
+    private List<String> render(Filter filter, List<Guild> guilds, int page, int totalPages) {
+        List<String> lines = new ArrayList<>(pageSize + 3);
+        lines.add(ChatColor.GOLD + "=== Guilds on the Server (Page " + page + "/" + totalPages + ") ===");
+
+        if (guilds.isEmpty()) {
+            if (filter.isEmpty()) {
+                lines.add(ChatColor.YELLOW + "No guilds have been created yet.");
+                lines.add(ChatColor.GREEN + "Use /guild create <name> to create the first guild!");
+            } else {
+                lines.add(ChatColor.YELLOW + "No guilds match your filters.");
+            }
+            return lines;
+        }
+
+        lines.add(ChatColor.YELLOW + "Found " + guilds.size() + " guilds:");
+
+        int end = Math.min(guilds.size(), page * pageSize);
+        for (int i = (page - 1) * pageSize; i < end; i++) {
+            Guild guild = guilds.get(i);
+
+            // Format: GuildName [TAG] - Members: X/Y - Leader: PlayerName
+            lines.add(ChatColor.GREEN + guild.getName() +
+                    ChatColor.AQUA + " [" + guild.getTag() + "]" +
+                    ChatColor.GRAY + " - " +
+                    ChatColor.YELLOW + "Members: " + guild.getMemberCount() + "/" + maxMembers +
+                    ChatColor.GRAY + " - " +
+                    ChatColor.GOLD + "Leader: " + nameCache.getName(guild.getLeader()));
+        }
+
+        if (page < totalPages) {
+            lines.add(ChatColor.YELLOW + "Use /guilds " + (page + 1) + filter.toArguments() + " for the next page.");
+        } else {
+            lines.add(ChatColor.YELLOW + "Use /guild info <guild> to see detailed information about a guild.");
+        }
+        return lines;
+    }
+
+    /**
+     * Gets what the listing shows of a guild, and what it is filtered and ordered by.
+     *
+     * @param guild The guild
+     * @return The shown fields, joined into one key
+     */
+    private String getShownFields(Guild guild) {
+        return guild.getName() + '\0' + guild.getTag() + '\0' + guild.getMemberCount() + '\0' + guild.getLeader();
+    }
+
+    /**
+     * Drops all rendered pages when a guild is created or something the listing shows of it changed.
+     *
+     * @param guild The guild that changed
+     */
+    @Override
+    public void onGuildChanged(Guild guild) {
+        String fields = getShownFields(guild);
+        if (!fields.equals(shownFields.put(guild.getId(), fields))) {
+            listings.clear();
+        }
+    }
+
+    /**
+     * Drops all rendered pages when a guild is deleted.
+     *
+     * @param guild The deleted guild
+     */
+    @Override
+    public void onGuildDeleted(Guild guild) {
+        shownFields.remove(guild.getId());
+        listings.clear();
+    }
+
+    /**
+     * Clears all rendered pages.
+     */
+    public void cleanup() {
+        listings.clear();
+        shownFields.clear();
+    }
+
+    /**
+     * The filters of a listing.
+     */
+    private static final class Filter {
+        private final String namePrefix;
+        private final int minMembers;
+
+        Filter(String namePrefix, int minMembers) {
+            this.namePrefix = namePrefix;
+            this.minMembers = minMembers;
+        }
+
+        boolean isEmpty() {
+            return namePrefix.isEmpty() && minMembers <= 1;
+        }
+
+        String toArguments() {
+            return (namePrefix.isEmpty() ? "" : " name:" + namePrefix) + (minMembers <= 1 ? "" : " min:" + minMembers);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Filter)) {
+                return false;
+            }
+            Filter other = (Filter) o;
+            return minMembers == other.minMembers && namePrefix.equals(other.namePrefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * namePrefix.hashCode() + minMembers;
+        }
+    }
+
+    /**
+     * The guilds matching a filter and the pages rendered from them so far.
+     */
+    private static final class Listing {
+        private final List<Guild> guilds;
+        private final Map<Integer, List<String>> pages = new HashMap<>();
+
+        Listing(List<Guild> guilds) {
+            this.guilds = guilds;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import org.bukkit.ChatColor;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Teleports players to their guild home after a warmup.
+ * The destination chunk is loaded asynchronously while the warmup counts down and held with a
+ * plugin chunk ticket until the player arrives, so the teleport itself never blocks the main
+ * thread on a chunk load. Moving or taking damage during the warmup cancels the teleport.
+ */
+public class HomeTeleportManager implements Listener {
+
+    private final GuildWars plugin;
+    private final Map<UUID, PendingTeleport> pending = new HashMap<>();
+
+    private int warmupSeconds;
+    private long cooldownMillis;
+
+    /**
+     * Creates a new home teleport manager.
+     *
+     * @param plugin The plugin instance
+     */
+    public HomeTeleportManager(GuildWars plugin) {
+        this.plugin = plugin;
+
+        loadConfig();
+
+        // Register events
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Loads teleport settings from the configuration.
+     */
+    public void loadConfig() {
+        warmupSeconds = Math.max(0, plugin.getConfig().getInt("guilds.home.teleport-delay", 3));
+        cooldownMillis = plugin.getConfig().getLong("guilds.home.teleport-cooldown", 60) * 1000L;
+    }
+
+    /**
+     * Starts the warmup of a home teleport and begins loading the destination.
+     *
+     * @param player The player
+     * @param home The guild home
+     * @return False if the player already has a teleport pending
+     */
+    public boolean requestTeleport(Player player, Location home) {
+        if (pending.containsKey(player.getUniqueId())) {
+            return false;
+        }
+
+        PendingTeleport teleport = new PendingTeleport(home.clone());
+        pending.put(player.getUniqueId(), teleport);
+
+        // Load the destination during the warmup and keep it loaded until the player arrives
+        home.getWorld().getChunkAtAsync(home).thenAccept(chunk -> {
+            if (pending.get(player.getUniqueId()) == teleport) {
+                chunk.addPluginChunkTicket(plugin);
+                teleport.chunk = chunk;
+                if (teleport.warmupDone) {
+                    complete(player, teleport);
+                }
+            }
+        });
+
+        if (warmupSeconds > 0) {
+            player.sendMessage(ChatColor.YELLOW + "Teleporting to your guild home in " + warmupSeconds
+                    + " seconds. Don't move or take damage!");
+        }
+        teleport.task = plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            teleport.task = null;
+            teleport.warmupDone = true;
+
+            // If the chunk is still loading, the teleport happens as soon as it is ready
+            if (teleport.chunk != null) {
+                complete(player, teleport);
+            }
+        }, warmupSeconds * 20L);
+        return true;
+    }
+
+    /**
+     * Teleports a player whose warmup is over and whose destination is loaded.
+     *
+     * @param player The player
+     * @param teleport The pending teleport
+     */
+    private void complete(Player player, PendingTeleport teleport) {
+        pending.remove(player.getUniqueId());
+        if (!player.isOnline()) {
+            release(teleport);
+            return;
+        }
+
+        player.teleportAsync(teleport.destination).thenAccept(success -> {
+            release(teleport);
+            if (success) {
+                plugin.getCooldownManager().start(player.getUniqueId(), CooldownManager.Type.GUILD_HOME, cooldownMillis);
+                player.sendMessage(ChatColor.GREEN + "Teleported to guild home!");
+            } else {
+                player.sendMessage(ChatColor.RED + "Teleport to your guild home failed.");
+            }
+        });
+    }
+
+    /**
+     * Cancels a player's pending teleport.
+     *
+     * @param player The player
+     * @param reason The message to send, or null to cancel silently
+     */
+    private void cancel(Player player, String reason) {
+        PendingTeleport teleport = pending.remove(player.getUniqueId());
+        if (teleport == null) {
+            return;
+        }
+
+        if (teleport.task != null) {
+            teleport.task.cancel();
+        }
+        release(teleport);
+        if (reason != null) {
+            player.sendMessage(ChatColor.RED + reason);
+        }
+    }
+
+    /**
+     * Releases the chunk ticket held for a teleport.
+     *
+     * @param teleport The teleport
+     */
+    private void release(PendingTeleport teleport) {
+        if (teleport.chunk != null) {
+            teleport.chunk.removePluginChunkTicket(plugin);
+            teleport.chunk = null;
+        }
+    }
+
+    /**
+     * Cancels the teleport of players who move to another block during the warmup.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null || (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ())) {
+            return; // Only looked around
+        }
+
+        PendingTeleport teleport = pending.get(event.getPlayer().getUniqueId());
+        if (teleport != null && !teleport.warmupDone) {
+            cancel(event.getPlayer(), "Teleport cancelled because you moved.");
+        }
+    }
+
+    /**
+     * Cancels the teleport of players who take damage during the warmup.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityDamage(EntityDamageEvent event) {
+        if (!pending.isEmpty() && event.getEntity() instanceof Player) {
+            Player player = (Player) event.getEntity();
+            PendingTeleport teleport = pending.get(player.getUniqueId());
+            if (teleport != null && !teleport.warmupDone) {
+                cancel(player, "Teleport cancelled because you took damage.");
+            }
+        }
+    }
+
+    /**
+     * Drops the pending teleport of players who leave.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        cancel(event.getPlayer(), null);
+    }
+
+    /**
+     * Cancels all pending teleports and releases their chunks.
+     */
+    public void cleanup() {
+        for (PendingTeleport teleport : pending.values()) {
+            if (teleport.task != null) {
+                teleport.task.cancel();
+            }
+            release(teleport);
+        }
+        pending.clear();
+    }
+
+    /**
+     * A home teleport that is warming up or waiting for its destination to load.
+     */
+    private static final class PendingTeleport {
+        private final Location destination;
+        private BukkitTask task;
+        private Chunk chunk;
+        private boolean warmupDone;
+
+        PendingTeleport(Location destination) {
+            this.destination = destination;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import com.guildwars.database.GuildService;
+import com.guildwars.model.Guild;
+import com.guildwars.storage.GuildChangeListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps guilds ranked by members, claims, war kills, balance and age.
+ * Every metric has its own order-statistic tree of guilds. When a guild changes only its own
+ * entries are moved, so looking up a rank or a page of the leaderboard takes O(log n)
+ * instead of sorting every guild on each call.
+ */
+public class LeaderboardManager implements GuildChangeListener {
+
+    private final Ranking[] rankings = new Ranking[Metric.values().length];
+
+    // The scores each guild is currently filed under, needed to find its entries again
+    private final Map<String, long[]> scores = new HashMap<>();
+
+    /**
+     * Creates a new leaderboard manager, ranks all existing guilds and starts listening for changes.
+     *
+     * @param plugin The plugin instance
+     */
+    public LeaderboardManager(GuildWars plugin) {
+        GuildService guildService = plugin.getGuildService();
+
+        for (int i = 0; i < rankings.length; i++) {
+            rankings[i] = new Ranking();
+        }
+        for (Guild guild : guildService.getAllGuilds()) {
+            onGuildChanged(guild);
+        }
+
+        guildService.addGuildChangeListener(this);
+    }
+
+    /**
+     * Re-files a guild under its current scores in every leaderboard whose score changed.
+     *
+     * @param guild The guild that changed
+     */
+    @Override
+    public void onGuildChanged(Guild guild) {
+        long[] current = scores.get(guild.getId());
+        boolean ranked = current != null;
+        if (!ranked) {
+            current = new long[rankings.length];
+            scores.put(guild.getId(), current);
+        }
+
+        for (Metric metric : Metric.values()) {
+            int index = metric.ordinal();
+            long score = metric.getScore(guild);
+            if (ranked && current[index] == score) {
+                continue;
+            }
+            if (ranked) {
+                rankings[index].remove(current[index], guild.getId());
+            }
+            rankings[index].insert(score, guild);
+            current[index] = score;
+        }
+    }
+
+    /**
+     * Removes a deleted guild from every leaderboard.
+     *
+     * @param guild The deleted guild
+     */
+    @Override
+    public void onGuildDeleted(Guild guild) {
+        long[] current = scores.remove(guild.getId());
+        if (current == null) {
+            return;
+        }
+        for (int i = 0; i < rankings.length; i++) {
+            rankings[i].remove(current[i], guild.getId());
+        }
+    }
+
+    /**
+     * Gets the position of a guild on a leaderboard.
+     *
+     * @param metric The leaderboard
+     * @param guild The guild
+     * @return The rank, starting at 1, or 0 if the guild is not ranked
+     */
+    public int getRank(Metric metric, Guild guild) {
+        long[] current = scores.get(guild.getId());
+        if (current == null) {
+            return 0;
+        }
+        return rankings[metric.ordinal()].rank(current[metric.ordinal()], guild.getId());
+    }
+
+    /**
+     * Gets a slice of a leaderboard, best guild first.
+     *
+     * @param metric The leaderboard
+     * @param from The index of the first guild, starting at 0
+     * @param count The maximum number of guilds to return
+     * @return The guilds in ranked order
+     */
+    public List<Guild> getRange(Metric metric, int from, int count) {
+        List<Guild> guilds = new ArrayList<>(Math.max(0, Math.min(count, getSize() - from)));
+        rankings[metric.ordinal()].collect(from, from + count, guilds);
+        return guilds;
+    }
+
+    /**
+     * Gets the number of ranked guilds.
+     *
+     * @return The number of guilds on each leaderboard
+     */
+    public int getSize() {
+        return scores.size();
+    }
+
+    /**
+     * Clears all leaderboards.
+     */
+    public void cleanup() {
+        for (int i = 0; i < rankings.length; i++) {
+            rankings[i] = new Ranking();
+        }
+        scores.clear();
+    }
+
+    /**
+     * The stats guilds can be ranked by.
+     */
+    public enum Metric {
+        MEMBERS("members", "Members"),
+        CLAIMS("claims", "Claims"),
+        WAR_KILLS("kills", "War Kills"),
+        BALANCE("balance", "Balance"),
+        AGE("age", "Age");
+
+        private final String key;
+        private final String displayName;
+
+        Metric(String key, String displayName) {
+            this.key = key;
+            this.displayName = displayName;
+        }
+
+        /**
+         * Gets the name used for this metric in commands.
+         *
+         * @return The command key
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Gets the name shown to players.
+         *
+         * @return The display name
+         */
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * Gets the score a guild is ranked by; higher scores rank first.
+         *
+         * @param guild The guild
+         * @return The score
+         */
+        long getScore(Guild guild) {
+            switch (this) {
+                case MEMBERS:
+                    return guild.getMemberCount();
+                case CLAIMS:
+                    return guild.getClaims().size();
+                case WAR_KILLS:
+                    return guild.getWarKills();
+                case BALANCE:
+                    return Math.round(guild.getBalance() * 100);
+                case AGE:
+                    return -guild.getCreationDate().getTime(); // Oldest first
+                default:
+                    return 0;
+            }
+        }
+
+        /**
+         * Formats a guild's value for this metric for display.
+         *
+         * @param guild The guild
+         * @return The formatted value
+         */
+        public String format(Guild guild) {
+            switch (this) {
+                case MEMBERS:
+                    return guild.getMemberCount() + " members";
+                case CLAIMS:
+                    return guild.getClaims().size() + " claims";
+                case WAR_KILLS:
+                    return guild.getWarKills() + " kills";
+                case BALANCE:
+                    return String.format("%.2f", guild.getBalance());
+                case AGE:
+                    long days = (System.currentTimeMillis() - guild.getCreationDate().getTime()) / 86_400_000L;
+                    return days + (days == 1 ? " day" : " days");
+                default:
+                    return "";
+            }
+        }
+
+        /**
+         * Gets a metric by its command key.
+         *
+         * @param key The command key
+         * @return The metric, or null if no metric has that key
+         */
+        public static Metric fromKey(String key) {
+            for (Metric metric : values()) {
+                if (metric.key.equalsIgnoreCase(key)) {
+                    return metric;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Treap of guilds ordered by score (highest first) and then guild ID.
+     * Every node knows the size of its subtree, which gives ranks and positional lookups
+     * in O(log n) expected time.
+     */
+    private static final class Ranking {
+        private Node root;
+
+        void insert(long score, Guild guild) {
+            root = insert(root, new Node(score, guild, ThreadLocalRandom.current().nextInt()));
+        }
+
+        void remove(long score, String guildId) {
+            root = remove(root, score, guildId);
+        }
+
+        int rank(long score, String guildId) {
+            int before = 0;
+            Node node = root;
+            while (node != null) {
+                int cmp = compare(score, guildId, node);
+                if (cmp < 0) {
+                    node = node.left;
+                } else if (cmp > 0) {
+                    before += size(node.left) + 1;
+                    node = node.right;
+                } else {
+                    return before + size(node.left) + 1;
+                }
+            }
+            return 0;
+        }
+
+        void collect(int from, int to, List<Guild> out) {
+            collect(root, from, to, 0, out);
+        }
+
+        private static void collect(Node node, int from, int to, int offset, List<Guild> out) {
+            // Skip subtrees that lie completely outside [from, to)
+            if (node == null || offset >= to || offset + node.size <= from) {
+                return;
+            }
+            collect(node.left, from, to, offset, out);
+            int index = offset + size(node.left);
+            if (index >= from && index < to) {
+                out.add(node.guild);
+            }
+            collect(node.right, from, to, index + 1, out);
+        }
+
+        private static Node insert(Node node, Node added) {
+            if (node == null) {
+                return added;
+            }
+            if (compare(added.score, added.guild.getId(), node) < 0) {
+                node.left = insert(node.left, added);
+                if (node.left.priority > node.priority) {
+                    node = rotateRight(node);
+                }
+            } else {
+                node.right = insert(node.right, added);
+                if (node.right.priority > node.priority) {
+                    node = rotateLeft(node);
+                }
+            }
+            node.update();
+            return node;
+        }
+
+        private static Node remove(Node node, long score, String guildId) {
+            if (node == null) {
+                return null;
+            }
+            int cmp = compare(score, guildId, node);
+            if (cmp == 0) {
+                return merge(node.left, node.right);
+            }
+            if (cmp < 0) {
+                node.left = remove(node.left, score, guildId);
+            } else {
+                node.right = remove(node.right, score, guildId);
+            }
+            node.update();
+            return node;
+        }
+
+        private static Node merge(Node left, Node right) {
+            if (left == null) {
+                return right;
+            }
+            if (right == null) {
+                return left;
+            }
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                left.update();
+                return left;
+            }
+            right.left = merge(left, right.left);
+            right.update();
+            return right;
+        }
+
+        private static Node rotateRight(Node node) {
+            Node pivot = node.left;
+            node.left = pivot.right;
+            pivot.right = node;
+            node.update();
+            pivot.update();
+            return pivot;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node pivot = node.right;
+            node.right = pivot.left;
+            pivot.left = node;
+            node.update();
+            pivot.update();
+            return pivot;
+        }
+
+        private static int compare(long score, String guildId, Node node) {
+            if (score != node.score) {
+                return score > node.score ? -1 : 1;
+            }
+            return guildId.compareTo(node.guild.getId());
+        }
+
+        private static int size(Node node) {
+            return node != null ? node.size : 0;
+        }
+    }
+
+    /**
+     * A guild filed under one score.
+     */
+    private static final class Node {
+        private final long score;
+        private final Guild guild;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        Node(long score, Guild guild, int priority) {
+            this.score = score;
+            this.guild = guild;
+            this.priority = priority;
+        }
+
+        void update() {
+            size = 1 + Ranking.size(left) + Ranking.size(right);
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import com.guildwars.model.Guild;
+import com.guildwars.util.MessageUtil;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+/**
+ * Keeps guild notifications for members who are offline and delivers them when they join.
+ * Every mailbox holds at most a configured number of messages, dropping the oldest, so memory
+ * stays bounded however many events a guild produces. Mail is appended to mailbox.log in
+ * batches by an async task, together with a marker when a mailbox is emptied, and the log is
+ * replayed on startup. Once the log holds more than twice as many lines as there is undelivered
+ * mail, the flush task rewrites it with only the undelivered mail, so the file stays bounded
+ * by the mailbox caps on a server that runs for a long time.
+ */
+public class MailboxManager implements Listener {
+
+    private static final long FLUSH_INTERVAL_TICKS = 100L;
+    private static final int COMPACT_MIN_LINES = 1_000;
+
+    // Queued in place of a log line to have the flush task compact the log at that point
+    private static final String COMPACT_MARKER = "\0COMPACT";
+
+    private final GuildWars plugin;
+    private final File mailboxFile;
+    private final Object writeLock = new Object();
+
+    // Undelivered mail by player, oldest first
+    private final Map<UUID, ArrayDeque<Mail>> mailboxes = new HashMap<>();
+
+    // Log lines waiting to be written
+    private final Queue<String> pendingLines = new ConcurrentLinkedQueue<>();
+
+    // Undelivered mail to rewrite the log with when the flush task reaches the compact marker
+    private volatile List<String> compactedLines;
+
+    private BufferedWriter logWriter;
+    private BukkitTask flushTask;
+    private int maxMessages;
+
+    // Lines in the log, including queued ones, and messages waiting in all mailboxes
+    private int logLines;
+    private int waiting;
+
+    /**
+     * Creates a new mailbox manager, replays the mailbox log and starts the flush task.
+     *
+     * @param plugin The plugin instance
+     */
+    public MailboxManager(GuildWars plugin) {
+        this.plugin = plugin;
+        this.mailboxFile = new File(plugin.getDataFolder(), "mailbox.log");
+
+        loadConfig();
+        replay();
+        openLog();
+
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flush,
+                FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
+
+        // Register events
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Loads mailbox settings from the configuration.
+     */
+    public void loadConfig() {
+        maxMessages = Math.max(1, plugin.getConfig().getInt("mailbox.max-messages-per-player", 20));
+    }
+
+    /**
+     * Sends a message to a player now if they are online, or leaves it in their mailbox.
+     *
+     * @param playerId The player's UUID
+     * @param message The message, with legacy § color codes
+     */
+    public void send(UUID playerId, String message) {
+        Player player = plugin.getServer().getPlayer(playerId);
+        if (player != null) {
+            player.sendMessage(message);
+        } else {
+            mail(playerId, message);
+        }
+    }
+
+    /**
+     * Leaves a message in the mailbox of every offline member of a guild.
+     * Online members are expected to be notified directly.
+     *
+     * @param guild The guild
+     * @param message The message, with legacy § color codes
+     */
+    public void mailOfflineMembers(Guild guild, String message) {
+        mailOfflineMembers(guild.getMembers(), message);
+    }
+
+    /**
+     * Leaves a message in the mailbox of every offline player of a group, e.g. the former members of a disbanded guild.
+     *
+     * @param playerIds The players
+     * @param message The message, with legacy § color codes
+     */
+    public void mailOfflineMembers(Collection<UUID> playerIds, String message) {
+        for (UUID playerId : playerIds) {
+            if (plugin.getServer().getPlayer(playerId) == null) {
+                mail(playerId, message);
+            }
+        }
+    }
+
+    /**
+     * Adds a message to a player's mailbox, dropping the oldest message once the mailbox is full.
+     *
+     * @param playerId The player's UUID
+     * @param message The message
+     */
+    private void mail(UUID playerId, String message) {
+        // A line break would split the log entry
+        message = message.replace('\n', ' ');
+
+        long now = System.currentTimeMillis();
+        add(playerId, new Mail(now, message));
+        log(now + " " + playerId + " MAIL " + message);
+    }
+
+    /**
+     * Adds mail to a mailbox, keeping it within the cap.
+     */
+    private void add(UUID playerId, Mail mail) {
+        ArrayDeque<Mail> mailbox = mailboxes.computeIfAbsent(playerId, id -> new ArrayDeque<>());
+        mailbox.addLast(mail);
+        waiting++;
+        while (mailbox.size() > maxMessages) {
+            mailbox.removeFirst();
+            waiting--;
+        }
+    }
+
+    /**
+     * Queues a log line and has the log compacted once most of it is delivered or dropped mail.
+     *
+     * @param line The log line
+     */
+    private void log(String line) {
+        pendingLines.add(line);
+        logLines++;
+
+        if (logLines > COMPACT_MIN_LINES && logLines > waiting * 2 && compactedLines == null) {
+            // Everything queued so far is in the snapshot, later lines are appended to the compacted log
+            compactedLines = snapshotLines();
+            pendingLines.add(COMPACT_MARKER);
+            logLines = waiting;
+        }
+    }
+
+    /**
+     * Delivers all waiting mail in one message when a player joins.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        ArrayDeque<Mail> mailbox = mailboxes.remove(player.getUniqueId());
+        if (mailbox == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Component> lines = new ArrayList<>(mailbox.size() + 1);
+        lines.add(MessageUtil.toComponent(ChatColor.GOLD + "While you were away (" + mailbox.size() + " messages):"));
+        for (Mail mail : mailbox) {
+            lines.add(MessageUtil.toComponent(ChatColor.GRAY + "[" + formatAge(now - mail.time) + " ago] " + ChatColor.RESET + mail.message));
+        }
+        player.sendMessage(Component.join(JoinConfiguration.newlines(), lines));
+
+        waiting -= mailbox.size();
+        log(now + " " + player.getUniqueId() + " CLEAR");
+    }
+
+    /**
+     * Formats how long ago mail was sent.
+     *
+     * @param millis The age in milliseconds
+     * @return The formatted age, e.g. 5m, 3h or 2d
+     */
+    private String formatAge(long millis) {
+        long minutes = millis / 60_000L;
+        if (minutes < 60) {
+            return Math.max(1, minutes) + "m";
+        }
+        if (minutes < 24 * 60) {
+            return (minutes / 60) + "h";
+        }
+        return (minutes / (24 * 60)) + "d";
+    }
+
+    /**
+     * Writes the queued log lines, compacting the log where a compact marker was queued.
+     */
+    private void flush() {
+        synchronized (writeLock) {
+            if (logWriter == null || pendingLines.isEmpty()) {
+                return;
+            }
+
+            try {
+                String line;
+                while ((line = pendingLines.poll()) != null) {
+                    if (line.equals(COMPACT_MARKER)) {
+                        // Lines before the marker are in the compacted log, lines after it are appended to it
+                        reopenCompacted();
+                        if (logWriter == null) {
+                            return;
+                        }
+                        continue;
+                    }
+
+                    logWriter.write(line);
+                    logWriter.newLine();
+                }
+                logWriter.flush();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to write mailbox.log", e);
+            }
+        }
+    }
+
+    /**
+     * Closes mailbox.log, replaces it with the undelivered mail snapshot and opens it again.
+     * Must be called while holding the write lock.
+     */
+    private void reopenCompacted() {
+        try {
+            logWriter.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to close mailbox.log", e);
+        }
+        logWriter = null;
+
+        compact(compactedLines);
+        compactedLines = null;
+        openLog();
+    }
+
+    /**
+     * Rebuilds the mailboxes by replaying mailbox.log, and rewrites the log with only the
+     * undelivered mail once most of it is delivered or dropped.
+     */
+    private void replay() {
+        if (!mailboxFile.exists()) {
+            return;
+        }
+
+        // Mail sent to a whole guild is stored once for all members, as when it was sent
+        Map<String, String> messages = new HashMap<>();
+
+        int lines = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(mailboxFile, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                String[] parts = line.split(" ", 4);
+                try {
+                    long time = Long.parseLong(parts[0]);
+                    UUID playerId = UUID.fromString(parts[1]);
+                    if (parts[2].equals("MAIL") && parts.length == 4) {
+                        add(playerId, new Mail(time, messages.computeIfAbsent(parts[3], message -> message)));
+                    } else if (parts[2].equals("CLEAR")) {
+                        ArrayDeque<Mail> cleared = mailboxes.remove(playerId);
+                        if (cleared != null) {
+                            waiting -= cleared.size();
+                        }
+                    }
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    plugin.getLogger().warning("Invalid entry in mailbox.log: " + line);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to read mailbox.log", e);
+            return;
+        }
+
+        logLines = lines;
+        if (lines > COMPACT_MIN_LINES && lines > waiting * 2) {
+            compact(snapshotLines());
+            logLines = waiting;
+        }
+        plugin.getLogger().info("Loaded " + waiting + " undelivered messages for " + mailboxes.size() + " players.");
+    }
+
+    /**
+     * Gets the log lines of all undelivered mail.
+     *
+     * @return The log lines
+     */
+    private List<String> snapshotLines() {
+        List<String> lines = new ArrayList<>(waiting);
+        for (Map.Entry<UUID, ArrayDeque<Mail>> entry : mailboxes.entrySet()) {
+            for (Mail mail : entry.getValue()) {
+                lines.add(mail.time + " " + entry.getKey() + " MAIL " + mail.message);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Replaces mailbox.log with the given lines. The log must not be open for appending.
+     *
+     * @param lines The log lines of the undelivered mail
+     */
+    private void compact(List<String> lines) {
+        File compacted = new File(plugin.getDataFolder(), "mailbox.log.tmp");
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(compacted), StandardCharsets.UTF_8))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to compact mailbox.log", e);
+            return;
+        }
+
+        try {
+            Files.move(compacted.toPath(), mailboxFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to replace mailbox.log with its compacted copy", e);
+        }
+    }
+
+    /**
+     * Opens mailbox.log for appending.
+     */
+    private void openLog() {
+        try {
+            logWriter = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(mailboxFile, true), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to open mailbox.log", e);
+        }
+    }
+
+    /**
+     * Stops the flush task and writes the remaining log lines.
+     */
+    public void cleanup() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        flush();
+        synchronized (writeLock) {
+            try {
+                if (logWriter != null) {
+                    logWriter.close();
+                    logWriter = null;
+                }
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to close mailbox.log", e);
+            }
+        }
+    }
+
+    /**
+     * A message waiting in a mailbox.
+     */
+    private static final class Mail {
+        private final long time;
+        private final String message;
+
+        Mail(long time, String message) {
+            this.time = time;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import com.guildwars.database.GuildService;
+import com.guildwars.model.Guild;
+import com.guildwars.model.Relation;
+import com.guildwars.storage.GuildChangeListener;
+import com.guildwars.util.PlaceholderManager;
+import com.guildwars.util.PlaceholderManager.ChatProfile;
+import net.kyori.adventure.audience.Audience;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the online members of every guild.
+ * Players are added when they join or join a guild and removed when they quit or leave it, so
+ * guild chat and guild notifications only visit the guild's online members instead of every
+ * online player or every member. The index is concurrent and may be read from any thread,
+ * e.g. by the async chat handler. Each guild is also available as a {@link GuildAudience}.
+ * Every online member also has a {@link ChatProfile}, taken on the main thread whenever they
+ * join, join a guild or their guild changes, so async chat never reads the mutable guild.
+ * Players who can read all guild chats are collected on the main thread when they join, every
+ * few seconds and on reload, and published as an immutable snapshot, so the async chat handler
+ * never checks permissions itself.
+ */
+public class OnlineMemberIndex implements Listener, GuildChangeListener {
+
+    private static final String ADMIN_PERMISSION = "guildwars.admin";
+    private static final long ADMIN_REFRESH_TICKS = 100L; // 5 seconds
+
+    private final GuildWars plugin;
+    private final GuildService guildService;
+    private final PlaceholderManager placeholderManager;
+
+    // Online members by guild ID; guilds without online members have no entry
+    private final Map<String, Set<Player>> onlineMembers = new ConcurrentHashMap<>();
+
+    // Guild of every online player that is in a guild
+    private final Map<UUID, Guild> onlineGuilds = new ConcurrentHashMap<>();
+
+    // Chat profile of every online player that is in a guild
+    private final Map<UUID, ChatProfile> chatProfiles = new ConcurrentHashMap<>();
+
+    // Audience of every guild, created on first use
+    private final Map<String, GuildAudience> audiences = new ConcurrentHashMap<>();
+
+    // Online players that had the admin permission when last checked, who can read all guild chats;
+    // replaced as a whole on the main thread
+    private volatile Set<Player> onlineAdmins = Set.of();
+
+    private BukkitTask adminRefreshTask;
+
+    /**
+     * Creates a new online member index and indexes the players that are already online.
+     *
+     * @param plugin The plugin instance
+     */
+    public OnlineMemberIndex(GuildWars plugin) {
+        this.plugin = plugin;
+        this.guildService = plugin.getGuildService();
+        this.placeholderManager = plugin.getPlaceholderManager();
+
+        // Players are already online after a reload
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            addPlayer(player);
+        }
+
+        guildService.addGuildChangeListener(this);
+
+        // Pick up players who were given the admin permission while online
+        adminRefreshTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::refreshAdmins,
+                ADMIN_REFRESH_TICKS, ADMIN_REFRESH_TICKS);
+
+        // Register events
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Gets the online members of a guild.
+     *
+     * @param guild The guild
+     * @return A live, unmodifiable view of the guild's online members
+     */
+    public Set<Player> getOnlineMembers(Guild guild) {
+        Set<Player> members = onlineMembers.get(guild.getId());
+        return members != null ? Collections.unmodifiableSet(members) : Collections.emptySet();
+    }
+
+    /**
+     * Gets the online members of a guild as one audience.
+     *
+     * @param guild The guild
+     * @return The guild's audience
+     */
+    public GuildAudience getAudience(Guild guild) {
+        return audiences.computeIfAbsent(guild.getId(), id -> new GuildAudience(this, guild));
+    }
+
+    /**
+     * Gets the online members of a guild and of all its allies as one audience.
+     *
+     * @param guild The guild
+     * @return The audience of the guild and its allies
+     */
+    public Audience getAllianceAudience(Guild guild) {
+        List<Audience> alliance = new ArrayList<>();
+        alliance.add(getAudience(guild));
+        for (Map.Entry<String, Relation> relation : guild.getRelations().entrySet()) {
+            if (relation.getValue() == Relation.ALLY) {
+                Guild ally = guildService.getGuildById(relation.getKey());
+                if (ally != null) {
+                    alliance.add(getAudience(ally));
+                }
+            }
+        }
+        return Audience.audience(alliance);
+    }
+
+    /**
+     * Gets the guild of an online player without going through the storage caches,
+     * so it is safe to call off the main thread.
+     *
+     * @param playerId The player's UUID
+     * @return The player's guild, or null if they are offline or not in a guild
+     */
+    public Guild getGuild(UUID playerId) {
+        return onlineGuilds.get(playerId);
+    }
+
+    /**
+     * Gets the chat profile of an online player. Safe to call off the main thread.
+     *
+     * @param playerId The player's UUID
+     * @return The player's chat profile, or null if they are offline or not in a guild
+     */
+    public ChatProfile getChatProfile(UUID playerId) {
+        return chatProfiles.get(playerId);
+    }
+
+    /**
+     * Takes new chat profiles of all online members, e.g. after the chat tags were reloaded.
+     */
+    public void refreshChatProfiles() {
+        for (Map.Entry<UUID, Guild> entry : onlineGuilds.entrySet()) {
+            chatProfiles.put(entry.getKey(), placeholderManager.createChatProfile(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Gets the online players that can read every guild chat, as of the last permission check.
+     * Safe to call off the main thread.
+     *
+     * @return An immutable snapshot of the online admins
+     */
+    public Set<Player> getOnlineAdmins() {
+        return onlineAdmins;
+    }
+
+    /**
+     * Checks the admin permission of every online player again. Must be called on the main thread.
+     */
+    public void refreshAdmins() {
+        Set<Player> admins = new HashSet<>();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            if (player.hasPermission(ADMIN_PERMISSION)) {
+                admins.add(player);
+            }
+        }
+        onlineAdmins = Set.copyOf(admins);
+    }
+
+    /**
+     * Adds a player to or removes them from the admin snapshot.
+     *
+     * @param player The player
+     * @param admin Whether the player can read every guild chat
+     */
+    private void setAdmin(Player player, boolean admin) {
+        if (onlineAdmins.contains(player) == admin) {
+            return;
+        }
+
+        Set<Player> admins = new HashSet<>(onlineAdmins);
+        if (admin) {
+            admins.add(player);
+        } else {
+            admins.remove(player);
+        }
+        onlineAdmins = Set.copyOf(admins);
+    }
+
+    /**
+     * Adds a player to the index of their guild.
+     *
+     * @param player The player
+     */
+    private void addPlayer(Player player) {
+        Guild guild = guildService.getGuildByPlayer(player.getUniqueId());
+        if (guild != null) {
+            addMember(guild, player);
+        }
+        if (player.hasPermission(ADMIN_PERMISSION)) {
+            setAdmin(player, true);
+        }
+    }
+
+    /**
+     * Adds an online player to the online members of a guild.
+     *
+     * @param guild The guild
+     * @param player The player
+     */
+    private void addMember(Guild guild, Player player) {
+        onlineGuilds.put(player.getUniqueId(), guild);
+        chatProfiles.put(player.getUniqueId(), placeholderManager.createChatProfile(player.getUniqueId(), guild));
+        onlineMembers.computeIfAbsent(guild.getId(), id -> ConcurrentHashMap.newKeySet()).add(player);
+    }
+
+    /**
+     * Removes a player from the online members of a guild.
+     *
+     * @param guildId The guild ID
+     * @param playerId The player's UUID
+     */
+    private void removeMember(String guildId, UUID playerId) {
+        onlineGuilds.remove(playerId);
+        chatProfiles.remove(playerId);
+        onlineMembers.computeIfPresent(guildId, (id, members) -> {
+            members.removeIf(member -> member.getUniqueId().equals(playerId));
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    /**
+     * Indexes players as they join, before other join listeners send guild messages.
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        addPlayer(event.getPlayer());
+    }
+
+    /**
+     * Drops players from the index once they have left.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        Guild guild = onlineGuilds.get(player.getUniqueId());
+        if (guild != null) {
+            removeMember(guild.getId(), player.getUniqueId());
+        }
+        setAdmin(player, false);
+    }
+
+    /**
+     * Adds a player who joined a guild if they are online.
+     *
+     * @param guild The guild
+     * @param playerId The player's UUID
+     */
+    @Override
+    public void onMemberAdded(Guild guild, UUID playerId) {
+        Player player = plugin.getServer().getPlayer(playerId);
+        if (player != null) {
+            addMember(guild, player);
+        }
+    }
+
+    /**
+     * Removes a player who left a guild.
+     *
+     * @param guild The guild
+     * @param playerId The player's UUID
+     */
+    @Override
+    public void onMemberRemoved(Guild guild, UUID playerId) {
+        removeMember(guild.getId(), playerId);
+    }
+
+    /**
+     * Takes new chat profiles of a changed guild's online members, whose name, roles or leader may have changed.
+     *
+     * @param guild The guild that changed
+     */
+    @Override
+    public void onGuildChanged(Guild guild) {
+        Set<Player> members = onlineMembers.get(guild.getId());
+        if (members != null) {
+            for (Player member : members) {
+                chatProfiles.put(member.getUniqueId(), placeholderManager.createChatProfile(member.getUniqueId(), guild));
+            }
+        }
+    }
+
+    /**
+     * Drops the online members of a deleted guild.
+     *
+     * @param guild The deleted guild
+     */
+    @Override
+    public void onGuildDeleted(Guild guild) {
+        audiences.remove(guild.getId());
+        Set<Player> members = onlineMembers.remove(guild.getId());
+        if (members != null) {
+            for (Player member : members) {
+                onlineGuilds.remove(member.getUniqueId());
+                chatProfiles.remove(member.getUniqueId());
+            }
+        }
+    }
+
+    /**
+     * Stops the admin refresh and clears the index.
+     */
+    public void cleanup() {
+        if (adminRefreshTask != null) {
+            adminRefreshTask.cancel();
+            adminRefreshTask = null;
+        }
+        onlineMembers.clear();
+        onlineGuilds.clear();
+        chatProfiles.clear();
+        audiences.clear();
+        onlineAdmins = Set.of();
+    }
+}
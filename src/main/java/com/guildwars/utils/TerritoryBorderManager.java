@@ -0,0 +1,245 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import com.guildwars.database.GuildService;
+import com.guildwars.model.Guild;
+import com.guildwars.model.TerritoryAccess;
+import com.guildwars.storage.ClaimIndex;
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Shows territory borders with particles for players who toggled /guild borders.
+ * Border sides come from the masks the claim index maintains incrementally, so nothing is
+ * recomputed from raw claims. A single task walks the chunks around all viewers, handling a
+ * different slice of chunks each tick, and each chunk is looked up once per cycle no matter
+ * how many viewers can see it.
+ */
+public class TerritoryBorderManager implements Listener {
+
+    private static final int CYCLE_TICKS = 10;
+    private static final int POINTS_PER_EDGE = 8;
+
+    private final GuildWars plugin;
+    private final GuildService guildService;
+    private final TerritorySessionManager sessionManager;
+    private final Set<UUID> viewers = new HashSet<>();
+    private final Map<TerritoryAccess, Particle.DustOptions> dustOptions = new EnumMap<>(TerritoryAccess.class);
+
+    // Scratch state reused between ticks
+    private final Map<String, List<Player>> viewersByWorld = new HashMap<>();
+    private final Set<Long> visitedChunks = new HashSet<>();
+    private final Location scratchLocation = new Location(null, 0, 0, 0);
+    private int[] viewerChunkX = new int[8];
+    private int[] viewerChunkZ = new int[8];
+    private double[] viewerY = new double[8];
+
+    private BukkitTask task;
+    private int tick;
+    private int radius;
+
+    /**
+     * Creates a new territory border manager.
+     *
+     * @param plugin The plugin instance
+     * @param sessionManager The territory session manager
+     */
+    public TerritoryBorderManager(GuildWars plugin, TerritorySessionManager sessionManager) {
+        this.plugin = plugin;
+        this.guildService = plugin.getGuildService();
+        this.sessionManager = sessionManager;
+
+        dustOptions.put(TerritoryAccess.OWN, new Particle.DustOptions(Color.LIME, 1.0f));
+        dustOptions.put(TerritoryAccess.ALLY, new Particle.DustOptions(Color.AQUA, 1.0f));
+        dustOptions.put(TerritoryAccess.NEUTRAL, new Particle.DustOptions(Color.YELLOW, 1.0f));
+        dustOptions.put(TerritoryAccess.ENEMY, new Particle.DustOptions(Color.RED, 1.0f));
+        dustOptions.put(TerritoryAccess.WAR, new Particle.DustOptions(Color.MAROON, 1.0f));
+
+        loadConfig();
+
+        // Register events
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Loads border settings from the configuration.
+     */
+    public void loadConfig() {
+        int configured = plugin.getConfig().getInt("territory.borders.radius", 5);
+        radius = Math.max(1, Math.min(configured, plugin.getServer().getViewDistance()));
+    }
+
+    /**
+     * Toggles border particles for a player.
+     *
+     * @param player The player
+     * @return True if borders are now shown, false if they were turned off
+     */
+    public boolean toggle(Player player) {
+        if (viewers.remove(player.getUniqueId())) {
+            if (viewers.isEmpty()) {
+                stopTask();
+            }
+            return false;
+        }
+
+        viewers.add(player.getUniqueId());
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+        return true;
+    }
+
+    /**
+     * Stops showing borders to players who leave.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        if (viewers.remove(event.getPlayer().getUniqueId()) && viewers.isEmpty()) {
+            stopTask();
+        }
+    }
+
+    /**
+     * Draws one slice of the borders around all viewers.
+     */
+    private void tick() {
+        int phase = tick++ % CYCLE_TICKS;
+
+        // Group viewers by world
+        for (List<Player> players : viewersByWorld.values()) {
+            players.clear();
+        }
+        for (Iterator<UUID> iterator = viewers.iterator(); iterator.hasNext(); ) {
+            Player player = plugin.getServer().getPlayer(iterator.next());
+            if (player == null) {
+                iterator.remove();
+                continue;
+            }
+            viewersByWorld.computeIfAbsent(player.getWorld().getName(), name -> new ArrayList<>()).add(player);
+        }
+
+        for (Map.Entry<String, List<Player>> entry : viewersByWorld.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                drawWorld(entry.getKey(), entry.getValue(), phase);
+            }
+        }
+
+        if (viewers.isEmpty()) {
+            stopTask();
+        }
+    }
+
+    /**
+     * Draws the borders of the chunks in this tick's slice around the viewers in one world.
+     *
+     * @param worldName The world name
+     * @param players The viewers in the world
+     * @param phase The slice of chunks to draw this tick
+     */
+    private void drawWorld(String worldName, List<Player> players, int phase) {
+        int count = players.size();
+        if (viewerChunkX.length < count) {
+            viewerChunkX = new int[count * 2];
+            viewerChunkZ = new int[count * 2];
+            viewerY = new double[count * 2];
+        }
+        for (int i = 0; i < count; i++) {
+            Location location = players.get(i).getLocation(scratchLocation);
+            viewerChunkX[i] = location.getBlockX() >> 4;
+            viewerChunkZ[i] = location.getBlockZ() >> 4;
+            viewerY[i] = location.getY() + 1.0;
+        }
+
+        visitedChunks.clear();
+        for (int i = 0; i < count; i++) {
+            for (int x = viewerChunkX[i] - radius; x <= viewerChunkX[i] + radius; x++) {
+                for (int z = viewerChunkZ[i] - radius; z <= viewerChunkZ[i] + radius; z++) {
+                    // Spread the chunks over the cycle and handle each one once for all viewers
+                    if (Math.floorMod(x + 3 * z, CYCLE_TICKS) != phase || !visitedChunks.add(ClaimIndex.pack(x, z))) {
+                        continue;
+                    }
+
+                    int mask = guildService.getBorderMask(worldName, x, z);
+                    if (mask == 0) {
+                        continue;
+                    }
+
+                    Guild owner = guildService.getChunkOwner(worldName, x, z);
+                    for (int j = 0; j < count; j++) {
+                        if (Math.abs(viewerChunkX[j] - x) <= radius && Math.abs(viewerChunkZ[j] - z) <= radius) {
+                            drawChunkBorders(players.get(j), owner, x, z, mask, viewerY[j]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws the border sides of a chunk for one viewer, colored by their relation to its owner.
+     *
+     * @param viewer The viewing player
+     * @param owner The owner of the chunk
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @param mask The border sides of the chunk
+     * @param y The height to draw at
+     */
+    private void drawChunkBorders(Player viewer, Guild owner, int chunkX, int chunkZ, int mask, double y) {
+        Particle.DustOptions dust = dustOptions.get(sessionManager.getAccess(viewer.getUniqueId(), owner));
+        int minX = chunkX << 4;
+        int minZ = chunkZ << 4;
+
+        for (int i = 0; i < POINTS_PER_EDGE; i++) {
+            double along = i * 2 + 1.0;
+            if ((mask & ClaimIndex.NORTH) != 0) {
+                viewer.spawnParticle(Particle.REDSTONE, minX + along, y, minZ, 1, 0, 0, 0, 0, dust);
+            }
+            if ((mask & ClaimIndex.SOUTH) != 0) {
+                viewer.spawnParticle(Particle.REDSTONE, minX + along, y, minZ + 16, 1, 0, 0, 0, 0, dust);
+            }
+            if ((mask & ClaimIndex.WEST) != 0) {
+                viewer.spawnParticle(Particle.REDSTONE, minX, y, minZ + along, 1, 0, 0, 0, 0, dust);
+            }
+            if ((mask & ClaimIndex.EAST) != 0) {
+                viewer.spawnParticle(Particle.REDSTONE, minX + 16, y, minZ + along, 1, 0, 0, 0, 0, dust);
+            }
+        }
+    }
+
+    /**
+     * Stops the drawing task.
+     */
+    private void stopTask() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Stops showing borders to everyone.
+     */
+    public void cleanup() {
+        stopTask();
+        viewers.clear();
+    }
+}
@@ -0,0 +1,230 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import com.guildwars.database.GuildService;
+import com.guildwars.model.Guild;
+import com.guildwars.model.TerritoryAccess;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Renders the /guild map of claims around a player.
+ * The map is assembled from pre-rendered tiles of 16x16 chunks, cached per viewing guild.
+ * A tile is only rebuilt when a claim inside its region changes or the viewing guild's
+ * relations change, so repeated renders while claiming are cache hits.
+ */
+public class TerritoryMapManager {
+
+    private static final int MAP_WIDTH = 39;
+    private static final int MAP_HEIGHT = 11;
+    private static final int MAX_TILES = 512;
+
+    private final GuildService guildService;
+
+    // Least recently used tiles are dropped once the cache is full
+    private final Map<TileKey, MapTile> tiles = new LinkedHashMap<TileKey, MapTile>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TileKey, MapTile> eldest) {
+            return size() > MAX_TILES;
+        }
+    };
+
+    /**
+     * Creates a new territory map manager.
+     *
+     * @param plugin The plugin instance
+     */
+    public TerritoryMapManager(GuildWars plugin) {
+        this.guildService = plugin.getGuildService();
+    }
+
+    /**
+     * Renders the map of claims around a player, colored by relation to the player's guild.
+     *
+     * @param player The viewing player
+     * @return The map lines, including a header and legend
+     */
+    public List<String> render(Player player) {
+        Location location = player.getLocation();
+        String worldName = location.getWorld().getName();
+        int centerX = location.getBlockX() >> 4;
+        int centerZ = location.getBlockZ() >> 4;
+        Guild viewerGuild = guildService.getGuildByPlayer(player.getUniqueId());
+
+        List<String> lines = new ArrayList<>(MAP_HEIGHT + 2);
+        lines.add(ChatColor.GOLD + "=== Territory Map (" + centerX + ", " + centerZ + ") ===");
+
+        int minX = centerX - MAP_WIDTH / 2;
+        int minZ = centerZ - MAP_HEIGHT / 2;
+        StringBuilder row = new StringBuilder(MAP_WIDTH * 3);
+        MapTile tile = null;
+
+        for (int z = minZ; z < minZ + MAP_HEIGHT; z++) {
+            row.setLength(0);
+            ChatColor lastColor = null;
+
+            for (int x = minX; x < minX + MAP_WIDTH; x++) {
+                if (tile == null || !tile.contains(x, z)) {
+                    tile = getTile(viewerGuild, worldName, x >> 4, z >> 4);
+                }
+
+                char symbol;
+                ChatColor color;
+                if (x == centerX && z == centerZ) {
+                    symbol = '@';
+                    color = ChatColor.WHITE;
+                } else {
+                    int index = MapTile.index(x, z);
+                    symbol = tile.symbols[index];
+                    color = tile.colors[index];
+                }
+
+                // Only emit a color code where the color changes
+                if (color != lastColor) {
+                    row.append(color);
+                    lastColor = color;
+                }
+                row.append(symbol);
+            }
+            lines.add(row.toString());
+        }
+
+        lines.add(ChatColor.WHITE + "@ You " + TerritoryAccess.OWN.getColor() + "+ Own "
+                + TerritoryAccess.ALLY.getColor() + "# Ally " + TerritoryAccess.NEUTRAL.getColor() + "# Neutral "
+                + TerritoryAccess.ENEMY.getColor() + "# Enemy " + TerritoryAccess.WAR.getColor() + "# War "
+                + TerritoryAccess.WILDERNESS.getColor() + "- Wilderness");
+        return lines;
+    }
+
+    /**
+     * Gets the rendered tile for a region, rebuilding it if its claims or the viewer's relations changed.
+     *
+     * @param viewerGuild The viewing player's guild, or null if they are not in one
+     * @param worldName The world name
+     * @param regionX The region x coordinate
+     * @param regionZ The region z coordinate
+     * @return The rendered tile
+     */
+    private MapTile getTile(Guild viewerGuild, String worldName, int regionX, int regionZ) {
+        TileKey key = new TileKey(viewerGuild != null ? viewerGuild.getId() : null, worldName, regionX, regionZ);
+        int regionVersion = guildService.getRegionVersion(worldName, regionX, regionZ);
+        int relationVersion = viewerGuild != null ? viewerGuild.getRelationVersion() : 0;
+
+        MapTile tile = tiles.get(key);
+        if (tile != null && tile.regionVersion == regionVersion && tile.relationVersion == relationVersion) {
+            return tile;
+        }
+
+        tile = new MapTile(regionX, regionZ, regionVersion, relationVersion);
+        int baseX = regionX << 4;
+        int baseZ = regionZ << 4;
+        for (int dz = 0; dz < 16; dz++) {
+            for (int dx = 0; dx < 16; dx++) {
+                Guild owner = guildService.getChunkOwner(worldName, baseX + dx, baseZ + dz);
+                TerritoryAccess access = getAccess(viewerGuild, owner);
+                int index = (dz << 4) | dx;
+                tile.symbols[index] = access == TerritoryAccess.WILDERNESS ? '-' : access == TerritoryAccess.OWN ? '+' : '#';
+                tile.colors[index] = access.getColor();
+            }
+        }
+
+        tiles.put(key, tile);
+        return tile;
+    }
+
+    /**
+     * Works out how a guild stands towards the owner of a chunk.
+     *
+     * @param viewerGuild The viewing guild, or null if the viewer is not in one
+     * @param owner The owning guild, or null for wilderness
+     * @return The access shown on the map
+     */
+    private TerritoryAccess getAccess(Guild viewerGuild, Guild owner) {
+        if (owner == null) {
+            return TerritoryAccess.WILDERNESS;
+        }
+        if (viewerGuild == null) {
+            return TerritoryAccess.NEUTRAL;
+        }
+        if (viewerGuild == owner) {
+            return TerritoryAccess.OWN;
+        }
+        return TerritoryAccess.fromRelation(viewerGuild.getRelation(owner.getId()));
+    }
+
+    /**
+     * Clears all cached tiles.
+     */
+    public void cleanup() {
+        tiles.clear();
+    }
+
+    /**
+     * Identifies a cached tile by viewing guild, world and region.
+     */
+    private static final class TileKey {
+        private final String guildId;
+        private final String world;
+        private final int regionX;
+        private final int regionZ;
+
+        TileKey(String guildId, String world, int regionX, int regionZ) {
+            this.guildId = guildId;
+            this.world = world;
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TileKey)) {
+                return false;
+            }
+            TileKey other = (TileKey) o;
+            return regionX == other.regionX && regionZ == other.regionZ
+                    && Objects.equals(guildId, other.guildId) && world.equals(other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(guildId, world, regionX, regionZ);
+        }
+    }
+
+    /**
+     * A rendered 16x16-chunk region of the map.
+     */
+    private static final class MapTile {
+        private final int regionX;
+        private final int regionZ;
+        private final int regionVersion;
+        private final int relationVersion;
+        private final char[] symbols = new char[256];
+        private final ChatColor[] colors = new ChatColor[256];
+
+        MapTile(int regionX, int regionZ, int regionVersion, int relationVersion) {
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+            this.regionVersion = regionVersion;
+            this.relationVersion = relationVersion;
+        }
+
+        boolean contains(int chunkX, int chunkZ) {
+            return chunkX >> 4 == regionX && chunkZ >> 4 == regionZ;
+        }
+
+        static int index(int chunkX, int chunkZ) {
+            return ((chunkZ & 15) << 4) | (chunkX & 15);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import com.guildwars.database.GuildService;
+import com.guildwars.model.Guild;
+import com.guildwars.model.TerritoryAccess;
+import com.guildwars.model.TerritorySession;
+import com.guildwars.model.TerritorySession.ChunkLookup;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps a territory session per online player and resolves chunk ownership through it.
+ * Lookups in the chunk the player stands in, or in the same chunk as the previous lookup,
+ * are answered from the session without touching the claim index as long as no claim,
+ * membership or relation changed in between.
+ */
+public class TerritorySessionManager implements Listener {
+
+    private final GuildService guildService;
+    private final Map<UUID, TerritorySession> sessions = new HashMap<>();
+
+    /**
+     * Creates a new territory session manager.
+     *
+     * @param plugin The plugin instance
+     */
+    public TerritorySessionManager(GuildWars plugin) {
+        this.guildService = plugin.getGuildService();
+
+        // Register events
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Gets the session for a player, creating it if needed.
+     *
+     * @param player The player
+     * @return The player's territory session
+     */
+    public TerritorySession getSession(Player player) {
+        return sessions.computeIfAbsent(player.getUniqueId(), id -> new TerritorySession());
+    }
+
+    /**
+     * Resolves the owner of a chunk and the player's access to it.
+     * The chunk the player is standing in is answered from the movement tracker's entry.
+     *
+     * @param player The player
+     * @param world The world of the chunk
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The lookup holding the resolved owner and access
+     */
+    public ChunkLookup resolve(Player player, World world, int chunkX, int chunkZ) {
+        TerritorySession session = getSession(player);
+        String worldName = world.getName();
+        int version = guildService.getTerritoryVersion();
+
+        ChunkLookup current = session.getCurrent();
+        if (current.isFor(worldName, chunkX, chunkZ, version)) {
+            return current;
+        }
+
+        ChunkLookup lookup = session.getLastLookup();
+        if (!lookup.isFor(worldName, chunkX, chunkZ, version)) {
+            fill(lookup, player, worldName, chunkX, chunkZ, version);
+        }
+        return lookup;
+    }
+
+    /**
+     * Updates the chunk a player is standing in.
+     *
+     * @param player The player
+     * @param world The world the player is in
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The owner of the chunk the player was in before, or null if it was wilderness
+     */
+    public Guild updateCurrent(Player player, World world, int chunkX, int chunkZ) {
+        ChunkLookup current = getSession(player).getCurrent();
+        Guild previousOwner = current.getOwner();
+        fill(current, player, world.getName(), chunkX, chunkZ, guildService.getTerritoryVersion());
+        return previousOwner;
+    }
+
+    /**
+     * Checks whether the chunk a player is standing in needs to be resolved again.
+     *
+     * @param player The player
+     * @return True if claims, memberships or relations changed since the last update
+     */
+    public boolean isCurrentStale(Player player) {
+        return getSession(player).getCurrent().getVersion() != guildService.getTerritoryVersion();
+    }
+
+    /**
+     * Gets the owner of the chunk a player is standing in, as last seen by the movement tracker.
+     *
+     * @param player The player
+     * @return The owning guild, or null for wilderness
+     */
+    public Guild getCurrentOwner(Player player) {
+        return getSession(player).getCurrent().getOwner();
+    }
+
+    /**
+     * Looks up a chunk in the claim index and stores the result in a lookup entry.
+     */
+    private void fill(ChunkLookup lookup, Player player, String worldName, int chunkX, int chunkZ, int version) {
+        Guild owner = guildService.getChunkOwner(worldName, chunkX, chunkZ);
+        lookup.set(worldName, chunkX, chunkZ, version, owner, getAccess(player.getUniqueId(), owner));
+    }
+
+    /**
+     * Works out how a player stands towards the owner of a chunk.
+     *
+     * @param playerId The player's UUID
+     * @param owner The owning guild, or null for wilderness
+     * @return The player's access
+     */
+    public TerritoryAccess getAccess(UUID playerId, Guild owner) {
+        if (owner == null) {
+            return TerritoryAccess.WILDERNESS;
+        }
+
+        Guild playerGuild = guildService.getGuildByPlayer(playerId);
+        if (playerGuild == null) {
+            return TerritoryAccess.NEUTRAL;
+        }
+        if (playerGuild == owner) {
+            return TerritoryAccess.OWN;
+        }
+
+        return TerritoryAccess.fromRelation(playerGuild.getRelation(owner.getId()));
+    }
+
+    /**
+     * Drops the session of a player who leaves the server.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        sessions.remove(event.getPlayer().getUniqueId());
+    }
+}
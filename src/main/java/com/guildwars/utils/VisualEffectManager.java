@@ -7,18 +7,20 @@ import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 
 /**
  * Manages visual effects like damage numbers and health bars.
+ * Their animations run as cosmetic tasks on the budgeted task executor.
  */
 public class VisualEffectManager {
     
     private final GuildWars plugin;
+    private final BudgetedTaskExecutor taskExecutor;
     
     // Store entity health displays by entity UUID
     private final Map<UUID, ArmorStand> healthDisplays = new HashMap<>();
@@ -36,6 +38,7 @@ public class VisualEffectManager {
      */
     public VisualEffectManager(GuildWars plugin) {
         this.plugin = plugin;
+        this.taskExecutor = plugin.getTaskExecutor();
         loadConfig();
     }
     
@@ -90,16 +93,15 @@ public class VisualEffectManager {
         stand.setSilent(true);
         
         // Define the animation path (float upward and fade out)
-        new BukkitRunnable() {
+        taskExecutor.schedule("damage-indicators", BudgetedTaskExecutor.Priority.COSMETIC, 0L, 1L, new BooleanSupplier() {
             private int ticks = 0;
             private final int maxTicks = 20; // Display for 1 second
             
             @Override
-            public void run() {
+            public boolean getAsBoolean() {
                 if (ticks >= maxTicks || stand.isDead()) {
                     stand.remove();
-                    this.cancel();
-                    return;
+                    return false;
                 }
                 
                 // Move upward slowly
@@ -111,8 +113,9 @@ public class VisualEffectManager {
                 }
                 
                 ticks++;
+                return true;
             }
-        }.runTaskTimer(plugin, 0L, 1L);
+        });
     }
     
     /**
@@ -158,36 +161,32 @@ public class VisualEffectManager {
             // Store reference to the armor stand
             healthDisplays.put(entity.getUniqueId(), newStand);
             
-            // Schedule removal when entity dies or after configured time with no updates
-            new BukkitRunnable() {
+            // Follow the entity every 5 ticks, and remove the display when the entity dies
+            // or after configured time with no updates
+            taskExecutor.schedule("health-bars", BudgetedTaskExecutor.Priority.COSMETIC, 20L, 5L, new BooleanSupplier() {
                 private int ticksWithoutUpdate = 0;
                 private final ArmorStand standRef = newStand;
                 
                 @Override
-                public void run() {
-                    ticksWithoutUpdate++;
+                public boolean getAsBoolean() {
+                    ticksWithoutUpdate += 5;
                     
                     // Check if entity is dead or gone
                     if (entity.isDead() || !entity.isValid() || ticksWithoutUpdate > cleanupTime * 20) {
                         standRef.remove();
                         healthDisplays.remove(entity.getUniqueId());
-                        this.cancel();
-                        return;
+                        return false;
                     }
                     
                     // Update position to follow entity
-                    if (ticksWithoutUpdate % 5 == 0) { // Update position every 5 ticks
-                        // Only update if entity is still valid
-                        if (entity.isValid()) {
-                            Location newLoc = entity.getEyeLocation().add(0, 0.8, 0);
-                            standRef.teleport(newLoc);
-                            
-                            // Update visibility based on nearby players
-                            updateVisibility(standRef, entity);
-                        }
-                    }
+                    Location newLoc = entity.getEyeLocation().add(0, 0.8, 0);
+                    standRef.teleport(newLoc);
+                    
+                    // Update visibility based on nearby players
+                    updateVisibility(standRef, entity);
+                    return true;
                 }
-            }.runTaskTimer(plugin, 20L, 1L);
+            });
         } else {
             // Update existing armor stand position
             stand.teleport(location);
@@ -0,0 +1,385 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import com.guildwars.database.GuildService;
+import com.guildwars.model.Guild;
+import com.guildwars.model.Relation;
+import com.guildwars.model.War;
+import com.guildwars.model.WarScore;
+import com.guildwars.storage.GuildChangeListener;
+import com.guildwars.util.MessageUtil;
+import net.kyori.adventure.text.Component;
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Runs the lifecycle of guild wars.
+ * Active wars are kept in a queue ordered by end time, so the once-a-second expiry check only
+ * looks at the war that ends first. Wars are persisted to wars.yml and resume after a restart.
+ * Wars of a deleted guild end with it, and wars whose relation was changed are dropped.
+ */
+public class WarManager implements GuildChangeListener {
+
+    private static final long CHECK_INTERVAL_TICKS = 20L;
+
+    private final GuildWars plugin;
+    private final GuildService guildService;
+    private final File warsFile;
+
+    // Wars by guild pair; the queue may hold replaced wars, which are skipped when they come up
+    private final Map<String, War> activeWars = new HashMap<>();
+    private final PriorityQueue<War> deadlines = new PriorityQueue<>(Comparator.comparingLong(War::getEndTime));
+    private BukkitTask expiryTask;
+
+    /**
+     * Creates a new war manager, loads persisted wars and starts the expiry check.
+     *
+     * @param plugin The plugin instance
+     */
+    public WarManager(GuildWars plugin) {
+        this.plugin = plugin;
+        this.guildService = plugin.getGuildService();
+        this.warsFile = new File(plugin.getDataFolder(), "wars.yml");
+
+        load();
+        guildService.addGuildChangeListener(this);
+
+        expiryTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::checkExpiredWars,
+                CHECK_INTERVAL_TICKS, CHECK_INTERVAL_TICKS);
+    }
+
+    /**
+     * Loads active wars from wars.yml.
+     * Guilds left at war without a record (e.g. from before wars had an end time) get the minimum duration from now.
+     */
+    private void load() {
+        if (warsFile.exists()) {
+            YamlConfiguration config = YamlConfiguration.loadConfiguration(warsFile);
+            ConfigurationSection section = config.getConfigurationSection("wars");
+            if (section != null) {
+                for (String key : section.getKeys(false)) {
+                    ConfigurationSection warSection = section.getConfigurationSection(key);
+                    if (warSection == null) {
+                        continue;
+                    }
+
+                    String attackerId = warSection.getString("attacker");
+                    String defenderId = warSection.getString("defender");
+                    if (attackerId == null || defenderId == null) {
+                        plugin.getLogger().warning("Invalid war entry in wars.yml: " + key);
+                        continue;
+                    }
+                    addWar(new War(attackerId, defenderId, warSection.getLong("start"), warSection.getLong("end")));
+                }
+            }
+        }
+
+        // Give untracked wars an end time
+        long now = System.currentTimeMillis();
+        long defaultDuration = plugin.getConfig().getInt("war.min-duration", 30) * 60_000L;
+        boolean changed = false;
+        for (Guild guild : guildService.getAllGuilds()) {
+            for (Map.Entry<String, Relation> entry : guild.getRelations().entrySet()) {
+                if (entry.getValue() == Relation.WAR && !activeWars.containsKey(War.pairKey(guild.getId(), entry.getKey()))) {
+                    addWar(new War(guild.getId(), entry.getKey(), now, now + defaultDuration));
+                    changed = true;
+                }
+            }
+        }
+        if (changed) {
+            save();
+        }
+
+        plugin.getLogger().info("Loaded " + activeWars.size() + " active wars.");
+    }
+
+    /**
+     * Writes all active wars to wars.yml.
+     */
+    public void save() {
+        YamlConfiguration config = new YamlConfiguration();
+        int index = 0;
+        for (War war : activeWars.values()) {
+            String path = "wars." + index++;
+            config.set(path + ".attacker", war.getAttackerId());
+            config.set(path + ".defender", war.getDefenderId());
+            config.set(path + ".start", war.getStartTime());
+            config.set(path + ".end", war.getEndTime());
+        }
+
+        try {
+            config.save(warsFile);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save wars.yml", e);
+        }
+    }
+
+    /**
+     * Declares war between two guilds for a number of minutes and announces it.
+     *
+     * @param attacker The guild declaring war
+     * @param defender The guild war is declared on
+     * @param durationMinutes The duration of the war in minutes
+     * @return True if the war was started
+     */
+    public boolean declareWar(Guild attacker, Guild defender, int durationMinutes) {
+        if (!guildService.setGuildRelation(attacker.getId(), defender.getId(), Relation.WAR)) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        addWar(new War(attacker.getId(), defender.getId(), now, now + durationMinutes * 60_000L));
+        save();
+
+        MessageUtil.broadcast(formatMessage("war-declared", "<red><guild1> has declared war on <guild2>!",
+                attacker.getName(), defender.getName(), durationMinutes));
+        mailOfflineMembers(attacker, defender, ChatColor.RED + attacker.getName() + " declared war on "
+                + defender.getName() + " for " + durationMinutes + " minutes.");
+        return true;
+    }
+
+    /**
+     * Gets the active war between two guilds.
+     *
+     * @param guild1 One guild
+     * @param guild2 The other guild
+     * @return The war, or null if they are not at war
+     */
+    public War getWar(Guild guild1, Guild guild2) {
+        return activeWars.get(War.pairKey(guild1.getId(), guild2.getId()));
+    }
+
+    /**
+     * Gets an active war by the key of its guild pair.
+     *
+     * @param pairKey The pair key, see War.pairKey
+     * @return The war, or null if there is no active war for the pair
+     */
+    public War getWar(String pairKey) {
+        return activeWars.get(pairKey);
+    }
+
+    /**
+     * Gets all active wars a guild takes part in.
+     *
+     * @param guild The guild
+     * @return The guild's wars
+     */
+    public List<War> getWars(Guild guild) {
+        List<War> wars = new ArrayList<>();
+        for (War war : activeWars.values()) {
+            if (war.involves(guild.getId())) {
+                wars.add(war);
+            }
+        }
+        return wars;
+    }
+
+    /**
+     * Ends every war whose end time has passed.
+     * Only the head of the deadline queue is inspected while nothing is due.
+     */
+    private void checkExpiredWars() {
+        long now = System.currentTimeMillis();
+        boolean changed = false;
+
+        while (!deadlines.isEmpty() && deadlines.peek().getEndTime() <= now) {
+            War war = deadlines.poll();
+
+            // Skip wars that were replaced by a newer declaration between the same guilds
+            if (activeWars.get(war.getPairKey()) != war) {
+                continue;
+            }
+
+            activeWars.remove(war.getPairKey());
+            endWar(war);
+            changed = true;
+        }
+
+        if (changed) {
+            save();
+        }
+    }
+
+    /**
+     * Resets the relation of two guilds whose war is over and announces the end.
+     *
+     * @param war The war that ended
+     */
+    private void endWar(War war) {
+        // Finish the score first, so it is dropped even if the war is not announced
+        WarScoreManager scoreManager = plugin.getWarScoreManager();
+        WarScore score = scoreManager != null ? scoreManager.finishWar(war) : null;
+
+        Guild attacker = getGuild(war.getAttackerId());
+        Guild defender = getGuild(war.getDefenderId());
+        if (attacker == null || defender == null) {
+            return; // One of the guilds was disbanded
+        }
+
+        // The guilds may have changed their relation in the meantime
+        if (attacker.getRelation(defender.getId()) != Relation.WAR) {
+            return;
+        }
+
+        guildService.removeRelation(attacker, UUID.fromString(defender.getId()));
+        MessageUtil.broadcast(formatMessage("war-ended", "<green>The war between <guild1> and <guild2> has ended!",
+                attacker.getName(), defender.getName(), (int) ((war.getEndTime() - war.getStartTime()) / 60_000L)));
+
+        // Announce the final score
+        if (score != null) {
+            long attackerPoints = score.getGuildStat(attacker.getId(), WarScore.POINTS);
+            long defenderPoints = score.getGuildStat(defender.getId(), WarScore.POINTS);
+            String result = attackerPoints == defenderPoints ? "The war ended in a draw"
+                    : (attackerPoints > defenderPoints ? attacker.getName() : defender.getName()) + " won the war";
+            MessageUtil.broadcast(ChatColor.GOLD + result + " (" + attacker.getName() + " " + attackerPoints + " - "
+                    + defenderPoints + " " + defender.getName() + ")");
+            mailOfflineMembers(attacker, defender, ChatColor.GOLD + "The war between " + attacker.getName() + " and "
+                    + defender.getName() + " has ended: " + result + " (" + attackerPoints + " - " + defenderPoints + ")");
+        } else {
+            mailOfflineMembers(attacker, defender, ChatColor.GREEN + "The war between " + attacker.getName() + " and "
+                    + defender.getName() + " has ended.");
+        }
+    }
+
+    /**
+     * Drops the wars of a guild whose relation is no longer WAR, finishing their scores,
+     * so a relation changed outside this manager cannot leave a war behind.
+     *
+     * @param guild The guild that changed
+     */
+    @Override
+    public void onGuildChanged(Guild guild) {
+        if (activeWars.isEmpty()) {
+            return;
+        }
+
+        boolean changed = false;
+        for (War war : getWars(guild)) {
+            String otherId = war.getAttackerId().equals(guild.getId()) ? war.getDefenderId() : war.getAttackerId();
+            if (guild.getRelation(otherId) == Relation.WAR) {
+                continue;
+            }
+
+            activeWars.remove(war.getPairKey());
+            WarScoreManager scoreManager = plugin.getWarScoreManager();
+            if (scoreManager != null) {
+                scoreManager.finishWar(war);
+            }
+            changed = true;
+        }
+
+        if (changed) {
+            save();
+        }
+    }
+
+    /**
+     * Ends the wars of a deleted guild and drops their scores.
+     * The other guild's relation is reset directly, since the deleted guild is no longer in storage.
+     *
+     * @param guild The deleted guild
+     */
+    @Override
+    public void onGuildDeleted(Guild guild) {
+        List<War> wars = getWars(guild);
+        if (wars.isEmpty()) {
+            return;
+        }
+
+        WarScoreManager scoreManager = plugin.getWarScoreManager();
+        for (War war : wars) {
+            activeWars.remove(war.getPairKey());
+            if (scoreManager != null) {
+                scoreManager.finishWar(war);
+            }
+
+            Guild other = getGuild(war.getAttackerId().equals(guild.getId()) ? war.getDefenderId() : war.getAttackerId());
+            if (other != null && other.getRelation(guild.getId()) == Relation.WAR) {
+                other.setRelation(guild.getId(), Relation.NEUTRAL);
+                plugin.getOnlineMemberIndex().getAudience(other).sendMessage(MessageUtil.toComponent(
+                        ChatColor.GREEN + "The war against " + guild.getName() + " has ended, as it was disbanded."));
+            }
+        }
+        save();
+    }
+
+    /**
+     * Leaves a war announcement in the mailboxes of the offline members of both guilds,
+     * who missed the broadcast.
+     *
+     * @param attacker The attacking guild
+     * @param defender The defending guild
+     * @param message The announcement
+     */
+    private void mailOfflineMembers(Guild attacker, Guild defender, String message) {
+        MailboxManager mailboxManager = plugin.getMailboxManager();
+        if (mailboxManager != null) {
+            mailboxManager.mailOfflineMembers(attacker, message);
+            mailboxManager.mailOfflineMembers(defender, message);
+        }
+    }
+
+    /**
+     * Records an active war and schedules its end.
+     *
+     * @param war The war
+     */
+    private void addWar(War war) {
+        activeWars.put(war.getPairKey(), war);
+        deadlines.add(war);
+    }
+
+    /**
+     * Gets a guild by its ID string.
+     *
+     * @param guildId The guild ID
+     * @return The guild, or null if it does not exist
+     */
+    private Guild getGuild(String guildId) {
+        try {
+            return guildService.getGuild(UUID.fromString(guildId));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Builds a war announcement from the messages section of the configuration.
+     *
+     * @param key The message key
+     * @param fallback The message to use if the key is missing
+     * @param guild1 The name of the first guild
+     * @param guild2 The name of the second guild
+     * @param durationMinutes The war duration in minutes
+     * @return The message component
+     */
+    private Component formatMessage(String key, String fallback, String guild1, String guild2, int durationMinutes) {
+        return plugin.getMessageManager().getMessage(key, fallback,
+                "guild1", guild1, "guild2", guild2, "duration", String.valueOf(durationMinutes));
+    }
+
+    /**
+     * Stops the expiry check and saves the active wars.
+     */
+    public void cleanup() {
+        if (expiryTask != null) {
+            expiryTask.cancel();
+            expiryTask = null;
+        }
+        save();
+    }
+}
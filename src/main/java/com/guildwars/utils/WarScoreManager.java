@@ -0,0 +1,387 @@
+package com.guildwars.utils;
+
+import com.guildwars.GuildWars;
+import com.guildwars.database.GuildService;
+import com.guildwars.model.Guild;
+import com.guildwars.model.Relation;
+import com.guildwars.model.War;
+import com.guildwars.model.WarScore;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Tracks kills, deaths and points of guilds and players during wars.
+ * Events only bump LongAdder counters keyed by the war; once a second the counters are drained
+ * into the war scoreboards, and changed scoreboards are written to warscores.yml in batches
+ * off the main thread.
+ */
+public class WarScoreManager implements Listener {
+
+    private static final long AGGREGATE_INTERVAL_TICKS = 20L;
+    private static final int FLUSH_EVERY_AGGREGATES = 30; // 30 seconds
+
+    private final GuildWars plugin;
+    private final GuildService guildService;
+    private final WarManager warManager;
+    private final File scoresFile;
+    private final Object saveLock = new Object();
+
+    // Counters written by events and drained by the aggregation task
+    private final Map<War, PendingScore> pending = new ConcurrentHashMap<>();
+
+    // Aggregated scoreboards by guild pair key
+    private final Map<String, WarScore> scores = new HashMap<>();
+
+    private BukkitTask aggregateTask;
+    private int aggregatesSinceFlush;
+    private boolean dirty;
+    private long killPoints;
+
+    /**
+     * Creates a new war score manager and loads the scores of active wars.
+     *
+     * @param plugin The plugin instance
+     * @param warManager The war manager
+     */
+    public WarScoreManager(GuildWars plugin, WarManager warManager) {
+        this.plugin = plugin;
+        this.guildService = plugin.getGuildService();
+        this.warManager = warManager;
+        this.scoresFile = new File(plugin.getDataFolder(), "warscores.yml");
+
+        loadConfig();
+        load();
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        aggregateTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::aggregate,
+                AGGREGATE_INTERVAL_TICKS, AGGREGATE_INTERVAL_TICKS);
+    }
+
+    /**
+     * Loads score settings from the configuration.
+     */
+    public void loadConfig() {
+        killPoints = plugin.getConfig().getLong("war.score.kill-points", 10);
+    }
+
+    /**
+     * Records a kill between members of two guilds at war.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerDeath(PlayerDeathEvent event) {
+        Player victim = event.getEntity();
+        Player killer = victim.getKiller();
+        if (killer == null || killer.equals(victim)) {
+            return;
+        }
+
+        Guild killerGuild = guildService.getGuildByPlayer(killer.getUniqueId());
+        Guild victimGuild = guildService.getGuildByPlayer(victim.getUniqueId());
+        if (killerGuild == null || victimGuild == null || killerGuild == victimGuild) {
+            return;
+        }
+
+        // Only score while the guilds are still at war, even if the war was not dropped yet
+        War war = warManager.getWar(killerGuild, victimGuild);
+        if (war == null || killerGuild.getRelation(victimGuild.getId()) != Relation.WAR) {
+            return;
+        }
+
+        PendingScore score = pending.computeIfAbsent(war, PendingScore::new);
+        LongAdder[] killerSide = score.getGuildCounters(killerGuild.getId());
+        killerSide[WarScore.KILLS].increment();
+        killerSide[WarScore.POINTS].add(killPoints);
+        score.getGuildCounters(victimGuild.getId())[WarScore.DEATHS].increment();
+
+        LongAdder[] killerStats = score.getPlayerCounters(killer.getUniqueId());
+        killerStats[WarScore.KILLS].increment();
+        killerStats[WarScore.POINTS].add(killPoints);
+        score.getPlayerCounters(victim.getUniqueId())[WarScore.DEATHS].increment();
+    }
+
+    /**
+     * Awards objective points to a guild and player in a war, e.g. for capturing territory.
+     *
+     * @param war The war
+     * @param guild The scoring guild
+     * @param playerId The scoring player, or null if no single player scored
+     * @param points The points to award
+     */
+    public void addObjectivePoints(War war, Guild guild, UUID playerId, long points) {
+        if (!war.involves(guild.getId())) {
+            return;
+        }
+
+        PendingScore score = pending.computeIfAbsent(war, PendingScore::new);
+        score.getGuildCounters(guild.getId())[WarScore.POINTS].add(points);
+        if (playerId != null) {
+            score.getPlayerCounters(playerId)[WarScore.POINTS].add(points);
+        }
+    }
+
+    /**
+     * Gets the scoreboard of a war, at most a second behind the latest events.
+     *
+     * @param war The war
+     * @return The scoreboard, or null if nothing has been scored yet
+     */
+    public WarScore getScore(War war) {
+        return scores.get(war.getPairKey());
+    }
+
+    /**
+     * Takes the final scoreboard of a war that ended and forgets it.
+     *
+     * @param war The war that ended
+     * @return The final scoreboard, or null if nothing was scored
+     */
+    public WarScore finishWar(War war) {
+        PendingScore score = pending.remove(war);
+        if (score != null) {
+            drain(score);
+        }
+
+        WarScore finalScore = scores.remove(war.getPairKey());
+        if (finalScore != null) {
+            dirty = true;
+        }
+        return finalScore;
+    }
+
+    /**
+     * Drains all pending counters into the scoreboards and flushes them every so often.
+     */
+    private void aggregate() {
+        for (PendingScore score : pending.values()) {
+            drain(score);
+        }
+
+        if (++aggregatesSinceFlush >= FLUSH_EVERY_AGGREGATES && dirty) {
+            aggregatesSinceFlush = 0;
+            YamlConfiguration snapshot = snapshot();
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> write(snapshot));
+        }
+    }
+
+    /**
+     * Moves the counts of one war's counters into its scoreboard.
+     *
+     * @param score The pending counters
+     */
+    private void drain(PendingScore score) {
+        War war = score.war;
+        WarScore board = null;
+
+        for (int stat = 0; stat < WarScore.STAT_COUNT; stat++) {
+            long attackerAmount = score.attackerCounters[stat].sumThenReset();
+            long defenderAmount = score.defenderCounters[stat].sumThenReset();
+            if (attackerAmount != 0 || defenderAmount != 0) {
+                board = board != null ? board : getOrCreateScore(war);
+                board.addGuildStat(war.getAttackerId(), stat, attackerAmount);
+                board.addGuildStat(war.getDefenderId(), stat, defenderAmount);
+                if (stat == WarScore.KILLS) {
+                    addWarKills(war.getAttackerId(), attackerAmount);
+                    addWarKills(war.getDefenderId(), defenderAmount);
+                }
+            }
+        }
+
+        for (Map.Entry<UUID, LongAdder[]> entry : score.playerCounters.entrySet()) {
+            for (int stat = 0; stat < WarScore.STAT_COUNT; stat++) {
+                long amount = entry.getValue()[stat].sumThenReset();
+                if (amount != 0) {
+                    board = board != null ? board : getOrCreateScore(war);
+                    board.addPlayerStat(entry.getKey(), stat, amount);
+                }
+            }
+        }
+
+        if (board != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Adds war kills to a guild's lifetime total, which is saved with the guild data.
+     *
+     * @param guildId The guild ID
+     * @param kills The number of kills
+     */
+    private void addWarKills(String guildId, long kills) {
+        if (kills == 0) {
+            return;
+        }
+        Guild guild = guildService.getGuildById(guildId);
+        if (guild != null) {
+            guild.addWarKills(kills);
+            guildService.notifyGuildChanged(guild);
+        }
+    }
+
+    /**
+     * Gets the scoreboard of a war, creating an empty one if needed.
+     */
+    private WarScore getOrCreateScore(War war) {
+        return scores.computeIfAbsent(war.getPairKey(), key -> new WarScore(war.getAttackerId(), war.getDefenderId()));
+    }
+
+    /**
+     * Loads the scoreboards of wars that are still active from warscores.yml.
+     */
+    private void load() {
+        if (!scoresFile.exists()) {
+            return;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(scoresFile);
+        ConfigurationSection section = config.getConfigurationSection("scores");
+        if (section == null) {
+            return;
+        }
+
+        for (String index : section.getKeys(false)) {
+            ConfigurationSection scoreSection = section.getConfigurationSection(index);
+            if (scoreSection == null) {
+                continue;
+            }
+
+            String attackerId = scoreSection.getString("attacker");
+            String defenderId = scoreSection.getString("defender");
+            if (attackerId == null || defenderId == null || warManager.getWar(War.pairKey(attackerId, defenderId)) == null) {
+                continue; // The war is over
+            }
+
+            WarScore score = new WarScore(attackerId, defenderId);
+            List<Long> attackerStats = scoreSection.getLongList("attacker-stats");
+            List<Long> defenderStats = scoreSection.getLongList("defender-stats");
+            for (int stat = 0; stat < WarScore.STAT_COUNT; stat++) {
+                score.addGuildStat(attackerId, stat, stat < attackerStats.size() ? attackerStats.get(stat) : 0);
+                score.addGuildStat(defenderId, stat, stat < defenderStats.size() ? defenderStats.get(stat) : 0);
+            }
+
+            ConfigurationSection playersSection = scoreSection.getConfigurationSection("players");
+            if (playersSection != null) {
+                for (String playerIdStr : playersSection.getKeys(false)) {
+                    try {
+                        UUID playerId = UUID.fromString(playerIdStr);
+                        List<Long> playerStats = playersSection.getLongList(playerIdStr);
+                        for (int stat = 0; stat < Math.min(playerStats.size(), WarScore.STAT_COUNT); stat++) {
+                            score.addPlayerStat(playerId, stat, playerStats.get(stat));
+                        }
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Invalid player UUID in warscores.yml: " + playerIdStr);
+                    }
+                }
+            }
+
+            scores.put(War.pairKey(attackerId, defenderId), score);
+        }
+    }
+
+    /**
+     * Copies the scoreboards into a configuration that can be written from another thread.
+     *
+     * @return The snapshot
+     */
+    private YamlConfiguration snapshot() {
+        dirty = false;
+        YamlConfiguration config = new YamlConfiguration();
+        int index = 0;
+        for (WarScore score : scores.values()) {
+            String path = "scores." + index++;
+            config.set(path + ".attacker", score.getAttackerId());
+            config.set(path + ".defender", score.getDefenderId());
+            config.set(path + ".attacker-stats", toList(score, score.getAttackerId()));
+            config.set(path + ".defender-stats", toList(score, score.getDefenderId()));
+            for (Map.Entry<UUID, long[]> entry : score.getPlayerStats().entrySet()) {
+                long[] stats = entry.getValue();
+                config.set(path + ".players." + entry.getKey(), Arrays.asList(stats[0], stats[1], stats[2]));
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Gets a guild's kills, deaths and points as a list for storage.
+     */
+    private List<Long> toList(WarScore score, String guildId) {
+        return Arrays.asList(score.getGuildStat(guildId, WarScore.KILLS),
+                score.getGuildStat(guildId, WarScore.DEATHS), score.getGuildStat(guildId, WarScore.POINTS));
+    }
+
+    /**
+     * Writes a snapshot to warscores.yml.
+     *
+     * @param snapshot The snapshot to write
+     */
+    private void write(YamlConfiguration snapshot) {
+        synchronized (saveLock) {
+            try {
+                snapshot.save(scoresFile);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to save warscores.yml", e);
+            }
+        }
+    }
+
+    /**
+     * Stops the aggregation task and writes the final scores.
+     */
+    public void cleanup() {
+        if (aggregateTask != null) {
+            aggregateTask.cancel();
+            aggregateTask = null;
+        }
+        for (PendingScore score : pending.values()) {
+            drain(score);
+        }
+        write(snapshot());
+    }
+
+    /**
+     * Counters of one war that have not been added to its scoreboard yet.
+     */
+    private static final class PendingScore {
+        private final War war;
+        private final LongAdder[] attackerCounters = newCounters();
+        private final LongAdder[] defenderCounters = newCounters();
+        private final Map<UUID, LongAdder[]> playerCounters = new ConcurrentHashMap<>();
+
+        PendingScore(War war) {
+            this.war = war;
+        }
+
+        LongAdder[] getGuildCounters(String guildId) {
+            return war.getAttackerId().equals(guildId) ? attackerCounters : defenderCounters;
+        }
+
+        LongAdder[] getPlayerCounters(UUID playerId) {
+            return playerCounters.computeIfAbsent(playerId, id -> newCounters());
+        }
+
+        private static LongAdder[] newCounters() {
+            LongAdder[] counters = new LongAdder[WarScore.STAT_COUNT];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = new LongAdder();
+            }
+            return counters;
+        }
+    }
+}